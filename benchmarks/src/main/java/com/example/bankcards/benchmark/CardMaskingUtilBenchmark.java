@@ -0,0 +1,28 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.CardMaskingUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardMaskingUtilBenchmark {
+
+    @Param({"1234567890123456", "1234-5678-9012-3456"})
+    private String cardNumber;
+
+    @Benchmark
+    public String maskCardNumber() {
+        return CardMaskingUtil.maskCardNumber(cardNumber);
+    }
+
+    @Benchmark
+    public boolean isValidCardNumber() {
+        return CardMaskingUtil.isValidCardNumber(cardNumber);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.EncryptionUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncryptionUtilBenchmark {
+
+    private EncryptionUtil encryptionUtil;
+    private String cardNumber;
+    private String encryptedCardNumber;
+
+    @Setup
+    public void setUp() {
+        encryptionUtil = new EncryptionUtil(Fixtures.ENCRYPTION_KEY);
+        cardNumber = Fixtures.CARD_NUMBER;
+        encryptedCardNumber = encryptionUtil.encrypt(cardNumber);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptionUtil.encrypt(cardNumber);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptionUtil.decrypt(encryptedCardNumber);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.service.TransferService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Failure-path cost: a stack-capturing RuntimeException vs a stackless BusinessException,
+// thrown from `depth` frames down (request threads in Spring MVC sit well over 100 frames deep)
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionBenchmark {
+
+    @Param({"10", "150"})
+    private int depth;
+
+    private TransferService transferService;
+    private BigDecimal negativeAmount;
+
+    @Setup
+    public void setUp() {
+        // The amount check runs before the principal is resolved and before any repository access,
+        // so no SecurityContext is needed
+        transferService = new TransferService(null, null, null, null, null, null);
+        negativeAmount = new BigDecimal("-1.00");
+    }
+
+    @Benchmark
+    public String runtimeException() {
+        try {
+            return throwAt(depth, false);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String businessException() {
+        try {
+            return throwAt(depth, true);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String rejectedTransfer() {
+        try {
+            return throwFromTransferAt(depth).toString();
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private String throwAt(int remaining, boolean business) {
+        if (remaining > 0) {
+            return throwAt(remaining - 1, business);
+        }
+        if (business) {
+            throw new ConflictException("INSUFFICIENT_BALANCE", "Insufficient balance");
+        }
+        throw new RuntimeException("Insufficient balance");
+    }
+
+    private Object throwFromTransferAt(int remaining) {
+        if (remaining > 0) {
+            return throwFromTransferAt(remaining - 1);
+        }
+        return transferService.transferBetweenMyCards(1L, 2L, negativeAmount);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.bankcards.benchmark;
+
+// Same values as src/main/resources/application.yml
+final class Fixtures {
+
+    static final String ENCRYPTION_KEY = "MySecretKey16Bit";
+    static final String JWT_SECRET = "c2VjcmV0a2V5Zm9yand0dG9rZW5nZW5lcmF0aW9uMTIzNDU2Nzg5MA==";
+    static final String CARD_NUMBER = "1234567890123456";
+
+    private Fixtures() {
+    }
+}
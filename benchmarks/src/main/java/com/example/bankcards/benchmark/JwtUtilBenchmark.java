@@ -0,0 +1,47 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.util.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    // 0 disables the verified-token cache, so every call pays for signature verification
+    @Param({"0", "10000"})
+    private int verifiedCacheSize;
+
+    private JwtUtil jwtUtil;
+    private UserPrincipal principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(Fixtures.JWT_SECRET, 900_000, verifiedCacheSize);
+        principal = new UserPrincipal(1L, "testuser", User.Role.USER, null);
+        token = jwtUtil.generateToken(principal);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(principal);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, principal);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.TransactionDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.mapper.TransactionMapper;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.util.EncryptionUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private CardMapper cardMapper;
+    private TransactionMapper transactionMapper;
+    private Card card;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        EncryptionUtil encryptionUtil = new EncryptionUtil(Fixtures.ENCRYPTION_KEY);
+        // Masking only needs EncryptionUtil; the repositories are never touched
+        CardService cardService = new CardService(null, null, encryptionUtil, null, null, null);
+        cardMapper = new CardMapper(cardService);
+        transactionMapper = new TransactionMapper(cardService);
+
+        User owner = new User();
+        owner.setId(1L);
+        owner.setUsername("testuser");
+
+        card = card(1L, Fixtures.CARD_NUMBER, owner, encryptionUtil);
+        Card otherCard = card(2L, "6543210987654321", owner, encryptionUtil);
+
+        transaction = new Transaction();
+        transaction.setId(1L);
+        transaction.setFromCard(card);
+        transaction.setToCard(otherCard);
+        transaction.setAmount(new BigDecimal("250.00"));
+        transaction.setTransactionDate(LocalDateTime.of(2025, 1, 15, 12, 0));
+        transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+        transaction.setDescription("Transfer between own cards");
+    }
+
+    @Benchmark
+    public CardDto cardToDto() {
+        return cardMapper.convertToDto(card);
+    }
+
+    @Benchmark
+    public TransactionDto transactionToDto() {
+        return transactionMapper.convertToDto(transaction);
+    }
+
+    private static Card card(Long id, String number, User owner, EncryptionUtil encryptionUtil) {
+        Card card = new Card();
+        card.setId(id);
+        card.setCardNumberEncrypted(encryptionUtil.encrypt(number));
+        card.setCardHolder("IVAN IVANOV");
+        card.setExpireDate(LocalDate.of(2030, 12, 31));
+        card.setStatus(Card.CardStatus.ACTIVE);
+        card.setBalance(new BigDecimal("1000.00"));
+        card.setOwner(owner);
+        return card;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.bankcards.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compares two JMH JSON result files (-rf json): primary score and allocation per op
+public class ResultComparator {
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: ResultComparator <baseline.json> <current.json>");
+            System.exit(1);
+        }
+
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+
+        System.out.printf("%-80s %14s %14s %9s %12s %12s%n",
+                "Benchmark", "Baseline", "Current", "Change", "B/op base", "B/op now");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            double afterScore = after.path("primaryMetric").path("score").asDouble();
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %9s %12s %12s%n",
+                        entry.getKey(), "-", afterScore, "new", "-", allocation(after));
+                continue;
+            }
+
+            double beforeScore = before.path("primaryMetric").path("score").asDouble();
+            double change = (afterScore - beforeScore) / beforeScore * 100;
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%% %12s %12s  %s%n",
+                    entry.getKey(), beforeScore, afterScore, change, allocation(before), allocation(after), unit);
+        }
+    }
+
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            results.put(key(result), result);
+        }
+        return results;
+    }
+
+    private static String key(JsonNode result) {
+        StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                .replace("com.example.bankcards.benchmark.", ""));
+        key.append(" [").append(result.path("mode").asText()).append(']');
+        Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+        while (params.hasNext()) {
+            Map.Entry<String, JsonNode> param = params.next();
+            key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+        }
+        return key.toString();
+    }
+
+    private static String allocation(JsonNode result) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            // Older JMH versions prefix secondary metric names with a middle dot
+            if (metric.getKey().replace("·", "").equals(ALLOC_METRIC)) {
+                return String.format("%.0f", metric.getValue().path("score").asDouble());
+            }
+        }
+        return "-";
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bankcards.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public HttpResponse<String> login(String username, String password) throws IOException, InterruptedException {
+        return post("/api/auth/login", Map.of("username", username, "password", password), null);
+    }
+
+    public String loginForToken(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = login(username, password);
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": HTTP " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).path("token").asText();
+    }
+
+    public List<Long> myCardIds(String token) throws IOException, InterruptedException {
+        HttpResponse<String> response = get("/api/cards/my?page=0&size=100", token);
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode card : objectMapper.readTree(response.body()).path("content")) {
+            ids.add(card.path("id").asLong());
+        }
+        return ids;
+    }
+
+    public HttpResponse<String> get(String path, String token) throws IOException, InterruptedException {
+        return send(request(path, token).GET().build());
+    }
+
+    public HttpResponse<String> post(String path, Object body, String token) throws IOException, InterruptedException {
+        return send(request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
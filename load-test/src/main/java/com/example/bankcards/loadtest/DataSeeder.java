@@ -0,0 +1,159 @@
+package com.example.bankcards.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Writes the dataset straight to the database: the API has no way to fund cards.
+// Same --random-seed gives the same users, card numbers, balances and history.
+public class DataSeeder {
+
+    static final String USERNAME_PREFIX = "lt_user_";
+
+    private static final int BATCH_SIZE = 1000;
+    private static final LocalDate EXPIRE_DATE = LocalDate.of(2030, 12, 31);
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final LoadTestConfig config;
+
+    public DataSeeder(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public static String username(int index) {
+        return String.format("%s%06d", USERNAME_PREFIX, index);
+    }
+
+    public void seed() throws Exception {
+        Random random = new Random(config.randomSeed());
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(config.encryptionKey().getBytes(), "AES"));
+        String passwordHash = new BCryptPasswordEncoder().encode(LoadTestConfig.PASSWORD);
+
+        try (Connection connection = DriverManager.getConnection(
+                config.jdbcUrl(), config.jdbcUser(), config.jdbcPassword())) {
+            connection.setAutoCommit(false);
+
+            deletePreviousRun(connection);
+            insertUsers(connection, passwordHash);
+            Map<Long, List<Long>> cardsByUser = insertCards(connection, loadUserIds(connection), random, cipher);
+            insertTransactions(connection, cardsByUser, random);
+
+            connection.commit();
+        }
+    }
+
+    private void deletePreviousRun(Connection connection) throws SQLException {
+        String seededCards = "SELECT c.id FROM cards c JOIN users u ON u.id = c.owner_id WHERE u.username LIKE '"
+                + USERNAME_PREFIX + "%'";
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM transactions WHERE from_card_id IN (" + seededCards
+                    + ") OR to_card_id IN (" + seededCards + ")");
+            statement.executeUpdate("DELETE FROM cards WHERE id IN (" + seededCards + ")");
+            statement.executeUpdate("DELETE FROM refresh_tokens WHERE user_id IN (SELECT id FROM users WHERE username LIKE '"
+                    + USERNAME_PREFIX + "%')");
+            statement.executeUpdate("DELETE FROM users WHERE username LIKE '" + USERNAME_PREFIX + "%'");
+        }
+    }
+
+    private void insertUsers(Connection connection, String passwordHash) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO users (username, password, role) VALUES (?, ?, 'USER')")) {
+            for (int i = 0; i < config.users(); i++) {
+                statement.setString(1, username(i));
+                statement.setString(2, passwordHash);
+                addToBatch(statement, i);
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private List<Long> loadUserIds(Connection connection) throws SQLException {
+        List<Long> ids = new ArrayList<>(config.users());
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id FROM users WHERE username LIKE '"
+                     + USERNAME_PREFIX + "%' ORDER BY username")) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private Map<Long, List<Long>> insertCards(Connection connection, List<Long> userIds,
+                                              Random random, Cipher cipher) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO cards (card_number_encrypted, card_holder, expire_date, status, balance, owner_id) "
+                        + "VALUES (?, ?, ?, 'ACTIVE', ?, ?)")) {
+            int count = 0;
+            for (int i = 0; i < userIds.size(); i++) {
+                for (int c = 0; c < config.cardsPerUser(); c++) {
+                    String number = String.format("%08d%08d", random.nextInt(100_000_000), random.nextInt(100_000_000));
+                    statement.setString(1, Base64.getEncoder().encodeToString(cipher.doFinal(number.getBytes())));
+                    statement.setString(2, "LOAD TEST " + i);
+                    statement.setObject(3, EXPIRE_DATE);
+                    statement.setBigDecimal(4, BigDecimal.valueOf(1_000_000 + random.nextInt(9_000_000), 2));
+                    statement.setLong(5, userIds.get(i));
+                    addToBatch(statement, count++);
+                }
+            }
+            statement.executeBatch();
+        }
+
+        Map<Long, List<Long>> cardsByUser = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT c.owner_id, c.id FROM cards c JOIN users u ON u.id = c.owner_id "
+                     + "WHERE u.username LIKE '" + USERNAME_PREFIX + "%' ORDER BY u.username, c.id")) {
+            while (rs.next()) {
+                cardsByUser.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getLong(2));
+            }
+        }
+        return cardsByUser;
+    }
+
+    // History rows only; balances are seeded independently so they stay large enough for transfer storms
+    private void insertTransactions(Connection connection, Map<Long, List<Long>> cardsByUser,
+                                    Random random) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO transactions (from_card_id, to_card_id, amount, transaction_date, status, description) "
+                        + "VALUES (?, ?, ?, ?, 'COMPLETED', 'Transfer between own cards')")) {
+            int count = 0;
+            for (List<Long> cards : cardsByUser.values()) {
+                for (int t = 0; t < config.transactionsPerUser(); t++) {
+                    int from = random.nextInt(cards.size());
+                    int to = (from + 1 + random.nextInt(cards.size() - 1)) % cards.size();
+                    statement.setLong(1, cards.get(from));
+                    statement.setLong(2, cards.get(to));
+                    statement.setBigDecimal(3, BigDecimal.valueOf(100 + random.nextInt(50_000), 2));
+                    statement.setTimestamp(4, Timestamp.valueOf(HISTORY_START.plusMinutes(random.nextInt(525_600))));
+                    addToBatch(statement, count++);
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static void addToBatch(PreparedStatement statement, int index) throws SQLException {
+        statement.addBatch();
+        if ((index + 1) % BATCH_SIZE == 0) {
+            statement.executeBatch();
+        }
+    }
+}
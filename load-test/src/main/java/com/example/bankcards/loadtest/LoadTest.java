@@ -0,0 +1,106 @@
+package com.example.bankcards.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class LoadTest {
+
+    private static final BigDecimal TRANSFER_AMOUNT = new BigDecimal("1.00");
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        ApiClient client = new ApiClient(config.baseUrl());
+
+        if (config.seed()) {
+            long start = System.currentTimeMillis();
+            new DataSeeder(config).seed();
+            System.out.printf("Seeded %d users x %d cards x %d transactions in %d ms%n",
+                    config.users(), config.cardsPerUser(), config.transactionsPerUser(),
+                    System.currentTimeMillis() - start);
+        }
+
+        // Authenticated scenarios reuse tokens so that BCrypt cost only shows up in the login scenario
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < config.tokenUsers(); i++) {
+            tokens.add(client.loginForToken(DataSeeder.username(i), LoadTestConfig.PASSWORD));
+        }
+        List<String> hotTokens = new ArrayList<>();
+        List<List<Long>> hotCards = new ArrayList<>();
+        for (int i = 0; i < config.hotUsers(); i++) {
+            String token = client.loginForToken(DataSeeder.username(i), LoadTestConfig.PASSWORD);
+            hotTokens.add(token);
+            hotCards.add(client.myCardIds(token));
+        }
+
+        Map<String, ScenarioRunner.Request> scenarios = new LinkedHashMap<>();
+        scenarios.put("login", random -> client.login(
+                DataSeeder.username(random.nextInt(config.users())), LoadTestConfig.PASSWORD));
+        scenarios.put("cards", random -> client.get(
+                "/api/cards/my?page=0&size=10", tokens.get(random.nextInt(tokens.size()))));
+        // Transfer storm: every worker hits the same few users' cards
+        scenarios.put("transfers", random -> {
+            int user = random.nextInt(hotTokens.size());
+            List<Long> cards = hotCards.get(user);
+            int from = random.nextInt(cards.size());
+            int to = (from + 1 + random.nextInt(cards.size() - 1)) % cards.size();
+            return client.post("/api/transfers", Map.of(
+                    "fromCardId", cards.get(from),
+                    "toCardId", cards.get(to),
+                    "amount", TRANSFER_AMOUNT), hotTokens.get(user));
+        });
+        scenarios.put("history", random -> client.get(
+                "/api/transfers/my", tokens.get(random.nextInt(tokens.size()))));
+
+        ScenarioRunner runner = new ScenarioRunner(config);
+        List<ScenarioResult> results = new ArrayList<>();
+        for (String name : config.scenarios()) {
+            ScenarioRunner.Request request = scenarios.get(name);
+            if (request == null) {
+                throw new IllegalArgumentException("Unknown scenario: " + name + ", expected one of " + scenarios.keySet());
+            }
+            System.out.printf("Running %s: %d workers, %ds warmup, %ds measured%n", name,
+                    config.concurrency(), config.warmup().toSeconds(), config.duration().toSeconds());
+            results.add(runner.run(name, request));
+        }
+
+        print(results);
+        if (config.out() != null) {
+            write(new File(config.out()), config, results);
+        }
+    }
+
+    private static void print(List<ScenarioResult> results) {
+        System.out.printf("%n%-10s %9s %7s %10s %9s %9s %9s %9s %9s  %s%n",
+                "Scenario", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "Statuses");
+        for (ScenarioResult r : results) {
+            System.out.printf("%-10s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    r.scenario(), r.requests(), r.errors(), r.throughput(), r.p50Millis(), r.p90Millis(),
+                    r.p99Millis(), r.p999Millis(), r.maxMillis(), r.statusCounts());
+        }
+    }
+
+    private static void write(File file, LoadTestConfig config, List<ScenarioResult> results) throws Exception {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now());
+        report.put("config", config);
+        report.put("results", results);
+        new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file, report);
+        System.out.println("Report written to " + file.getAbsolutePath());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.bankcards.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Options are passed as --name=value; everything has a default suitable for a laptop run
+public record LoadTestConfig(
+        String baseUrl,
+        String jdbcUrl,
+        String jdbcUser,
+        @JsonIgnore String jdbcPassword,
+        @JsonIgnore String encryptionKey,
+        boolean seed,
+        long randomSeed,
+        int users,
+        int cardsPerUser,
+        int transactionsPerUser,
+        int hotUsers,
+        int tokenUsers,
+        List<String> scenarios,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        String out
+) {
+
+    static final String PASSWORD = "LoadTest123!";
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestConfig config = new LoadTestConfig(
+                options.getOrDefault("base-url", "http://localhost:8080"),
+                options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/bankcardsdb"),
+                options.getOrDefault("jdbc-user", "bankuser"),
+                options.getOrDefault("jdbc-password", "bankpass123"),
+                options.getOrDefault("encryption-key", "MySecretKey16Bit"),
+                Boolean.parseBoolean(options.getOrDefault("seed", "true")),
+                Long.parseLong(options.getOrDefault("random-seed", "42")),
+                Integer.parseInt(options.getOrDefault("users", "200")),
+                Integer.parseInt(options.getOrDefault("cards-per-user", "3")),
+                Integer.parseInt(options.getOrDefault("transactions-per-user", "20")),
+                Integer.parseInt(options.getOrDefault("hot-users", "5")),
+                Integer.parseInt(options.getOrDefault("token-users", "50")),
+                Arrays.asList(options.getOrDefault("scenarios", "login,cards,transfers,history").split(",")),
+                Integer.parseInt(options.getOrDefault("concurrency", "16")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30"))),
+                options.get("out")
+        );
+
+        if (config.cardsPerUser() < 2) {
+            throw new IllegalArgumentException("cards-per-user must be at least 2 for transfers");
+        }
+        if (config.hotUsers() > config.users() || config.tokenUsers() > config.users()) {
+            throw new IllegalArgumentException("hot-users and token-users cannot exceed users");
+        }
+        return config;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.bankcards.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+public record ScenarioResult(
+        String scenario,
+        long requests,
+        long errors,
+        Map<Integer, Long> statusCounts,
+        double throughput,
+        double p50Millis,
+        double p90Millis,
+        double p99Millis,
+        double p999Millis,
+        double maxMillis
+) {
+
+    static ScenarioResult of(String scenario, long[] latenciesNanos, Map<Integer, Long> statusCounts,
+                             long errors, double seconds) {
+        long[] sorted = latenciesNanos.clone();
+        Arrays.sort(sorted);
+        return new ScenarioResult(
+                scenario,
+                sorted.length,
+                errors,
+                new TreeMap<>(statusCounts),
+                sorted.length / seconds,
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.90),
+                percentile(sorted, 0.99),
+                percentile(sorted, 0.999),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0
+        );
+    }
+
+    // Nearest-rank percentile over all recorded samples
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank - 1, 0)] / 1_000_000.0;
+    }
+}
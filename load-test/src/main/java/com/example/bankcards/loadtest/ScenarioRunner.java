@@ -0,0 +1,106 @@
+package com.example.bankcards.loadtest;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-model runner: each worker sends the next request as soon as the previous one returns
+public class ScenarioRunner {
+
+    @FunctionalInterface
+    public interface Request {
+        HttpResponse<?> send(SplittableRandom random) throws Exception;
+    }
+
+    private final LoadTestConfig config;
+
+    public ScenarioRunner(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public ScenarioResult run(String scenario, Request request) throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long deadline = measureFrom + config.duration().toNanos();
+        AtomicLong errors = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.concurrency());
+        try {
+            List<Future<Worker>> futures = new ArrayList<>();
+            for (int i = 0; i < config.concurrency(); i++) {
+                SplittableRandom random = new SplittableRandom(config.randomSeed() + i);
+                futures.add(executor.submit(() -> new Worker().run(request, random, measureFrom, deadline, errors)));
+            }
+
+            LongBuffer latencies = new LongBuffer();
+            Map<Integer, Long> statusCounts = new HashMap<>();
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                latencies.addAll(worker.latencies);
+                worker.statusCounts.forEach((status, count) -> statusCounts.merge(status, count, Long::sum));
+            }
+            return ScenarioResult.of(scenario, latencies.toArray(), statusCounts, errors.get(),
+                    config.duration().toNanos() / 1e9);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class Worker {
+
+        private final LongBuffer latencies = new LongBuffer();
+        private final Map<Integer, Long> statusCounts = new HashMap<>();
+
+        Worker run(Request request, SplittableRandom random, long measureFrom, long deadline, AtomicLong errors) {
+            long now;
+            while ((now = System.nanoTime()) < deadline) {
+                int status;
+                try {
+                    status = request.send(random).statusCode();
+                } catch (Exception e) {
+                    status = -1;
+                }
+                long end = System.nanoTime();
+                if (now >= measureFrom) {
+                    latencies.add(end - now);
+                    statusCounts.merge(status, 1L, Long::sum);
+                    if (status < 200 || status >= 300) {
+                        errors.incrementAndGet();
+                    }
+                }
+            }
+            return this;
+        }
+    }
+
+    private static class LongBuffer {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LongBuffer other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Users authenticate against the main application; this service only verifies its JWTs
+@SpringBootApplication(exclude = ReactiveUserDetailsServiceAutoConfiguration.class)
+@EnableScheduling
+public class ReactiveReadApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveReadApplication.class, args);
+    }
+}
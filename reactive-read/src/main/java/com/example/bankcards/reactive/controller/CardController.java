@@ -0,0 +1,43 @@
+package com.example.bankcards.reactive.controller;
+
+import com.example.bankcards.reactive.dto.CardDto;
+import com.example.bankcards.reactive.service.CardReadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lists stream as application/x-ndjson when requested, otherwise as a JSON array
+@RestController
+@RequestMapping("/api/cards")
+@RequiredArgsConstructor
+public class CardController {
+
+    private final CardReadService cardReadService;
+
+    @GetMapping(value = "/my", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public Flux<CardDto> getMyCards(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return cardReadService.getMyCards(page, size);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public Flux<CardDto> getAllCards(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return cardReadService.getAllCards(page, size);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public Mono<CardDto> getCard(@PathVariable Long id) {
+        return cardReadService.getCardById(id);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.reactive.controller;
+
+import com.example.bankcards.reactive.dto.TransactionDto;
+import com.example.bankcards.reactive.service.TransferReadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/transfers")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+public class TransferController {
+
+    private final TransferReadService transferReadService;
+
+    @GetMapping(value = "/my", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TransactionDto> getMyTransactions() {
+        return transferReadService.getMyTransactions();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<TransactionDto> getTransaction(@PathVariable Long id) {
+        return transferReadService.getTransactionById(id);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.bankcards.reactive.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+
+@Repository
+@RequiredArgsConstructor
+public class CardReadRepository {
+
+    private static final String SELECT_CARDS = """
+            SELECT c.id, c.card_number_encrypted, c.card_holder, c.expire_date, c.status,
+                   c.balance, c.owner_id, u.username
+            FROM cards c
+            JOIN users u ON u.id = c.owner_id
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<CardRow> findByOwnerId(Long ownerId, int limit, long offset) {
+        return databaseClient.sql(SELECT_CARDS + " WHERE c.owner_id = :ownerId ORDER BY c.id LIMIT :limit OFFSET :offset")
+                .bind("ownerId", ownerId)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(CardReadRepository::toRow)
+                .all();
+    }
+
+    public Flux<CardRow> findAll(int limit, long offset) {
+        return databaseClient.sql(SELECT_CARDS + " ORDER BY c.id LIMIT :limit OFFSET :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(CardReadRepository::toRow)
+                .all();
+    }
+
+    public Mono<CardRow> findById(Long id) {
+        return databaseClient.sql(SELECT_CARDS + " WHERE c.id = :id")
+                .bind("id", id)
+                .map(CardReadRepository::toRow)
+                .one();
+    }
+
+    public Flux<Long> findIdsByOwnerId(Long ownerId) {
+        return databaseClient.sql("SELECT id FROM cards WHERE owner_id = :ownerId")
+                .bind("ownerId", ownerId)
+                .map(row -> row.get("id", Long.class))
+                .all();
+    }
+
+    public Flux<CardRow> findByIds(Collection<Long> ids) {
+        return databaseClient.sql(SELECT_CARDS + " WHERE c.id IN (:ids)")
+                .bind("ids", ids)
+                .map(CardReadRepository::toRow)
+                .all();
+    }
+
+    private static CardRow toRow(Readable row) {
+        return new CardRow(
+                row.get("id", Long.class),
+                row.get("card_number_encrypted", String.class),
+                row.get("card_holder", String.class),
+                row.get("expire_date", LocalDate.class),
+                row.get("status", String.class),
+                row.get("balance", BigDecimal.class),
+                row.get("owner_id", Long.class),
+                row.get("username", String.class)
+        );
+    }
+}
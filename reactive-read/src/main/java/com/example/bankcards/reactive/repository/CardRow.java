@@ -0,0 +1,16 @@
+package com.example.bankcards.reactive.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record CardRow(
+        Long id,
+        String cardNumberEncrypted,
+        String cardHolder,
+        LocalDate expireDate,
+        String status,
+        BigDecimal balance,
+        Long ownerId,
+        String ownerUsername
+) {
+}
@@ -0,0 +1,131 @@
+package com.example.bankcards.reactive.repository;
+
+import com.example.bankcards.reactive.repository.TransactionSegmentFile.ArchivedTransaction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Read side of the main application's transaction archive. The catalog is its transaction_archive_segments
+// table and the files are read from app.transactions.archive.directory, so this service needs the same
+// (shared) directory the main application archives into.
+// - Listed segments stay mapped; before reading, the newest catalog id is compared with the one loaded
+//   and the catalog is reopened when the main application added a segment.
+// - Opening and searching segments touches the file and inflates blocks, so it runs on boundedElastic.
+@Slf4j
+@Repository
+public class TransactionArchiveReader {
+
+    private final DatabaseClient databaseClient;
+    private final Path directory;
+
+    private volatile Catalog catalog = new Catalog(-1, List.of());
+
+    public TransactionArchiveReader(DatabaseClient databaseClient,
+                                    @Value("${app.transactions.archive.directory:./archive}") String directory) {
+        this.databaseClient = databaseClient;
+        this.directory = Paths.get(directory);
+    }
+
+    // Archived transactions of the cards, newest first. A transfer between two of the cards is returned once.
+    public Flux<ArchivedTransaction> findByCards(Collection<Long> cardIds) {
+        if (cardIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return currentCatalog()
+                .publishOn(Schedulers.boundedElastic())
+                .flatMapIterable(current -> {
+                    Map<Long, ArchivedTransaction> found = new LinkedHashMap<>();
+                    for (TransactionSegmentFile segment : current.segments()) {
+                        for (Long cardId : cardIds) {
+                            segment.findByCard(cardId, null, null)
+                                    .forEach(transaction -> found.putIfAbsent(transaction.id(), transaction));
+                        }
+                    }
+                    List<ArchivedTransaction> result = new ArrayList<>(found.values());
+                    result.sort(Comparator.comparing(ArchivedTransaction::transactionDate)
+                            .thenComparingLong(ArchivedTransaction::id).reversed());
+                    return result;
+                });
+    }
+
+    public Mono<ArchivedTransaction> findById(long id) {
+        return currentCatalog()
+                .publishOn(Schedulers.boundedElastic())
+                .flatMap(current -> {
+                    for (TransactionSegmentFile segment : current.segments()) {
+                        Optional<ArchivedTransaction> transaction = segment.findById(id);
+                        if (transaction.isPresent()) {
+                            return Mono.just(transaction.get());
+                        }
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Catalog> currentCatalog() {
+        return databaseClient.sql("SELECT COALESCE(MAX(id), 0) AS latest_id FROM transaction_archive_segments")
+                .map(row -> row.get("latest_id", Long.class))
+                .one()
+                .flatMap(latestId -> {
+                    Catalog current = catalog;
+                    return latestId == current.latestId() ? Mono.just(current) : reload(latestId);
+                });
+    }
+
+    private Mono<Catalog> reload(long latestId) {
+        return databaseClient.sql("SELECT file_name FROM transaction_archive_segments")
+                .map(row -> row.get("file_name", String.class))
+                .all()
+                .collectList()
+                .publishOn(Schedulers.boundedElastic())
+                .map(fileNames -> open(latestId, fileNames));
+    }
+
+    // Segments already mapped are kept. A listed file that cannot be opened is left out and retried on the next read
+    private synchronized Catalog open(long latestId, List<String> fileNames) {
+        Catalog current = catalog;
+        if (current.latestId() == latestId) {
+            return current;
+        }
+        Map<String, TransactionSegmentFile> mapped = new HashMap<>();
+        current.segments().forEach(segment -> mapped.put(segment.path().getFileName().toString(), segment));
+
+        List<TransactionSegmentFile> segments = new ArrayList<>();
+        boolean complete = true;
+        for (String fileName : fileNames) {
+            TransactionSegmentFile segment = mapped.get(fileName);
+            if (segment == null) {
+                try {
+                    segment = TransactionSegmentFile.open(directory.resolve(fileName));
+                } catch (UncheckedIOException e) {
+                    log.error("Archive segment {} is listed but unreadable", fileName, e);
+                    complete = false;
+                    continue;
+                }
+            }
+            segments.add(segment);
+        }
+        Catalog reloaded = new Catalog(complete ? latestId : -1, List.copyOf(segments));
+        catalog = reloaded;
+        return reloaded;
+    }
+
+    private record Catalog(long latestId, List<TransactionSegmentFile> segments) {
+    }
+}
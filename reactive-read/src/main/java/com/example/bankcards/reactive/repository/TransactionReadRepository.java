@@ -0,0 +1,58 @@
+package com.example.bankcards.reactive.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+@RequiredArgsConstructor
+public class TransactionReadRepository {
+
+    private static final String SELECT_TRANSACTIONS = """
+            SELECT t.id, t.amount, t.transaction_date, t.status, t.description,
+                   fc.card_number_encrypted AS from_card_number, fc.owner_id AS from_owner_id,
+                   tc.card_number_encrypted AS to_card_number, tc.owner_id AS to_owner_id
+            FROM transactions t
+            JOIN cards fc ON fc.id = t.from_card_id
+            JOIN cards tc ON tc.id = t.to_card_id
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    // One query for the whole history instead of one per card
+    public Flux<TransactionRow> findByOwnerId(Long ownerId) {
+        return databaseClient.sql(SELECT_TRANSACTIONS
+                        + " WHERE fc.owner_id = :ownerId OR tc.owner_id = :ownerId"
+                        + " ORDER BY t.transaction_date DESC, t.id DESC")
+                .bind("ownerId", ownerId)
+                .map(TransactionReadRepository::toRow)
+                .all();
+    }
+
+    public Mono<TransactionRow> findById(Long id) {
+        return databaseClient.sql(SELECT_TRANSACTIONS + " WHERE t.id = :id")
+                .bind("id", id)
+                .map(TransactionReadRepository::toRow)
+                .one();
+    }
+
+    private static TransactionRow toRow(Readable row) {
+        return new TransactionRow(
+                row.get("id", Long.class),
+                row.get("from_card_number", String.class),
+                row.get("from_owner_id", Long.class),
+                row.get("to_card_number", String.class),
+                row.get("to_owner_id", Long.class),
+                row.get("amount", BigDecimal.class),
+                row.get("transaction_date", LocalDateTime.class),
+                row.get("status", String.class),
+                row.get("description", String.class)
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.bankcards.reactive.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record TransactionRow(
+        Long id,
+        String fromCardNumberEncrypted,
+        Long fromOwnerId,
+        String toCardNumberEncrypted,
+        Long toOwnerId,
+        BigDecimal amount,
+        LocalDateTime transactionDate,
+        String status,
+        String description
+) {
+}
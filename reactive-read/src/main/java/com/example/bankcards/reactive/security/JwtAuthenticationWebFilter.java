@@ -0,0 +1,62 @@
+package com.example.bankcards.reactive.security;
+
+import com.example.bankcards.reactive.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+// Registered only inside the security chain; a @Component WebFilter would also run globally
+@Slf4j
+@RequiredArgsConstructor
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtUtil jwtUtil;
+    private final RevokedTokenCache revokedTokenCache;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        UserPrincipal principal = toPrincipal(authHeader.substring(7));
+        if (principal == null) {
+            return chain.filter(exchange);
+        }
+
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                principal.getAuthorities()
+        );
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authToken));
+    }
+
+    private UserPrincipal toPrincipal(String jwt) {
+        try {
+            Claims claims = jwtUtil.extractAllClaims(jwt);
+            Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+            String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+
+            if (claims.getSubject() == null || userId == null || role == null
+                    || revokedTokenCache.isRevoked(claims.getId())) {
+                return null;
+            }
+            return new UserPrincipal(userId, claims.getSubject(), role);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return null;
+        }
+    }
+}
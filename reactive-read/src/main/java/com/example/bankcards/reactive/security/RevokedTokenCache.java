@@ -0,0 +1,39 @@
+package com.example.bankcards.reactive.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Mirror of the main application's revoked_tokens table. Revocations (logout, refresh reuse)
+// become visible here within jwt.revocation.refresh-interval; access tokens are short-lived anyway.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevokedTokenCache {
+
+    private final DatabaseClient databaseClient;
+
+    private volatile Set<String> revoked = Set.of();
+
+    public boolean isRevoked(String jti) {
+        return jti != null && revoked.contains(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval}", initialDelay = 0)
+    public void refresh() {
+        databaseClient.sql("SELECT jti FROM revoked_tokens WHERE expires_at > :now")
+                .bind("now", LocalDateTime.now())
+                .map(row -> row.get("jti", String.class))
+                .all()
+                .collect(Collectors.toUnmodifiableSet())
+                .subscribe(
+                        jtis -> revoked = jtis,
+                        e -> log.warn("Could not refresh revoked tokens: {}", e.getMessage()));
+    }
+}
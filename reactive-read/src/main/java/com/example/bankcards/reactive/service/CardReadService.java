@@ -0,0 +1,60 @@
+package com.example.bankcards.reactive.service;
+
+import com.example.bankcards.reactive.dto.CardDto;
+import com.example.bankcards.reactive.repository.CardReadRepository;
+import com.example.bankcards.reactive.repository.CardRow;
+import com.example.bankcards.reactive.security.UserPrincipal;
+import com.example.bankcards.reactive.util.CardMaskingUtil;
+import com.example.bankcards.reactive.util.EncryptionUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class CardReadService {
+
+    private final CardReadRepository cardReadRepository;
+    private final EncryptionUtil encryptionUtil;
+
+    public Flux<CardDto> getMyCards(int page, int size) {
+        return UserPrincipal.current()
+                .flatMapMany(user -> cardReadRepository.findByOwnerId(user.getId(), size, (long) page * size))
+                .map(this::convertToDto);
+    }
+
+    public Flux<CardDto> getAllCards(int page, int size) {
+        return cardReadRepository.findAll(size, (long) page * size)
+                .map(this::convertToDto);
+    }
+
+    public Mono<CardDto> getCardById(Long id) {
+        return cardReadRepository.findById(id)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Card not found")))
+                .zipWith(UserPrincipal.current())
+                .flatMap(tuple -> {
+                    CardRow card = tuple.getT1();
+                    UserPrincipal currentUser = tuple.getT2();
+                    if (!currentUser.isAdmin() && !card.ownerId().equals(currentUser.getId())) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied"));
+                    }
+                    return Mono.just(convertToDto(card));
+                });
+    }
+
+    private CardDto convertToDto(CardRow card) {
+        CardDto dto = new CardDto();
+        dto.setId(card.id());
+        dto.setMaskedCardNumber(CardMaskingUtil.maskCardNumber(encryptionUtil.decrypt(card.cardNumberEncrypted())));
+        dto.setCardHolder(card.cardHolder());
+        dto.setExpireDate(card.expireDate());
+        dto.setStatus(card.status());
+        dto.setBalance(card.balance());
+        dto.setOwnerId(card.ownerId());
+        dto.setOwnerUsername(card.ownerUsername());
+        return dto;
+    }
+}
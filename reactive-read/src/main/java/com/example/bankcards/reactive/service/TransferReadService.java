@@ -0,0 +1,119 @@
+package com.example.bankcards.reactive.service;
+
+import com.example.bankcards.reactive.dto.TransactionDto;
+import com.example.bankcards.reactive.repository.CardReadRepository;
+import com.example.bankcards.reactive.repository.CardRow;
+import com.example.bankcards.reactive.repository.TransactionArchiveReader;
+import com.example.bankcards.reactive.repository.TransactionReadRepository;
+import com.example.bankcards.reactive.repository.TransactionRow;
+import com.example.bankcards.reactive.repository.TransactionSegmentFile.ArchivedTransaction;
+import com.example.bankcards.reactive.security.UserPrincipal;
+import com.example.bankcards.reactive.util.CardMaskingUtil;
+import com.example.bankcards.reactive.util.EncryptionUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class TransferReadService {
+
+    private final TransactionReadRepository transactionReadRepository;
+    private final CardReadRepository cardReadRepository;
+    private final TransactionArchiveReader transactionArchiveReader;
+    private final EncryptionUtil encryptionUtil;
+
+    // Same history as the main application: the hot table, then the archived rows of the user's cards.
+    // A segment committed between the two reads shows its rows twice at worst, and duplicates are dropped.
+    public Flux<TransactionDto> getMyTransactions() {
+        return UserPrincipal.current()
+                .flatMapMany(user -> Flux.concat(
+                        transactionReadRepository.findByOwnerId(user.getId()),
+                        findArchivedByOwnerId(user.getId())))
+                .distinct(TransactionRow::id)
+                .map(this::convertToDto);
+    }
+
+    public Mono<TransactionDto> getTransactionById(Long id) {
+        return transactionReadRepository.findById(id)
+                .switchIfEmpty(Mono.defer(() -> transactionArchiveReader.findById(id)
+                        .flatMap(archived -> withCards(List.of(archived)).next())))
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Transaction not found")))
+                .zipWith(UserPrincipal.current())
+                .flatMap(tuple -> {
+                    TransactionRow transaction = tuple.getT1();
+                    Long currentUserId = tuple.getT2().getId();
+                    if (!currentUserId.equals(transaction.fromOwnerId())
+                            && !currentUserId.equals(transaction.toOwnerId())) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied"));
+                    }
+                    return Mono.just(convertToDto(transaction));
+                });
+    }
+
+    private Flux<TransactionRow> findArchivedByOwnerId(Long ownerId) {
+        return cardReadRepository.findIdsByOwnerId(ownerId)
+                .collectList()
+                .flatMap(cardIds -> transactionArchiveReader.findByCards(cardIds).collectList())
+                .flatMapMany(this::withCards);
+    }
+
+    // Card numbers and owners are looked up now; a card deleted since the transfer has neither
+    private Flux<TransactionRow> withCards(List<ArchivedTransaction> archived) {
+        if (archived.isEmpty()) {
+            return Flux.empty();
+        }
+        Set<Long> cardIds = new HashSet<>();
+        archived.forEach(transaction -> {
+            cardIds.add(transaction.fromCardId());
+            cardIds.add(transaction.toCardId());
+        });
+        return cardReadRepository.findByIds(cardIds)
+                .collectMap(CardRow::id)
+                .flatMapIterable(cards -> archived.stream().map(transaction -> toRow(transaction, cards)).toList());
+    }
+
+    private static TransactionRow toRow(ArchivedTransaction transaction, Map<Long, CardRow> cards) {
+        CardRow from = cards.get(transaction.fromCardId());
+        CardRow to = cards.get(transaction.toCardId());
+        return new TransactionRow(
+                transaction.id(),
+                from != null ? from.cardNumberEncrypted() : null,
+                from != null ? from.ownerId() : null,
+                to != null ? to.cardNumberEncrypted() : null,
+                to != null ? to.ownerId() : null,
+                transaction.amount(),
+                transaction.transactionDate(),
+                transaction.status(),
+                transaction.description()
+        );
+    }
+
+    private TransactionDto convertToDto(TransactionRow transaction) {
+        TransactionDto dto = new TransactionDto();
+        dto.setId(transaction.id());
+        dto.setFromCardMasked(mask(transaction.fromCardNumberEncrypted()));
+        dto.setToCardMasked(mask(transaction.toCardNumberEncrypted()));
+        dto.setAmount(transaction.amount());
+        dto.setTransactionDate(transaction.transactionDate());
+        dto.setStatus(transaction.status());
+        dto.setDescription(transaction.description());
+        return dto;
+    }
+
+    // An archived transaction may outlive one of its cards
+    private String mask(String cardNumberEncrypted) {
+        if (cardNumberEncrypted == null) {
+            return null;
+        }
+        return CardMaskingUtil.maskCardNumber(encryptionUtil.decrypt(cardNumberEncrypted));
+    }
+}
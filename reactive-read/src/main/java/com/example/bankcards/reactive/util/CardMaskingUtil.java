@@ -0,0 +1,12 @@
+package com.example.bankcards.reactive.util;
+
+public class CardMaskingUtil {
+
+    public static String maskCardNumber(String cardNumber) {
+        if(cardNumber == null || cardNumber.length() < 4) {
+            return "****";
+        }
+        String lastFour = cardNumber.substring(cardNumber.length() - 4);
+        return "**** **** **** " + lastFour;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.reactive.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+
+@Component
+public class EncryptionUtil {
+
+    private final SecretKeySpec secretKeySpec;
+
+    public EncryptionUtil(@Value("${encryption.secret-key}") String secret) {
+        this.secretKeySpec = new SecretKeySpec(secret.getBytes(), "AES");
+    }
+
+    public String decrypt(String encryptedData) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES");
+            cipher.init(Cipher.DECRYPT_MODE, secretKeySpec);
+            byte[] decrypted = cipher.doFinal(Base64.getDecoder().decode(encryptedData));
+            return new String(decrypted);
+        } catch(Exception e) {
+            throw new RuntimeException("Error decrypting data", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.bankcards.reactive.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+// Verification only: tokens are issued by the main application with the same secret and claims
+@Component
+public class JwtUtil {
+
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+
+    private final JwtParser parser;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    public Claims extractAllClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.bankcards.reactive.controller;
+
+import com.example.bankcards.reactive.dto.CardDto;
+import com.example.bankcards.reactive.dto.TransactionDto;
+import com.example.bankcards.reactive.repository.TransactionSegmentFile;
+import com.example.bankcards.reactive.repository.TransactionSegmentFile.ArchivedTransaction;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class CardControllerTest {
+
+    @TempDir
+    static Path archiveDirectory;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.transactions.archive.directory", () -> archiveDirectory.toString());
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${encryption.secret-key}")
+    private String encryptionKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (String table : List.of("transaction_archive_segments", "transactions", "cards", "users")) {
+            databaseClient.sql("DELETE FROM " + table).then().block();
+        }
+        databaseClient.sql("""
+                INSERT INTO users (id, username, password, role) VALUES
+                (1, 'alice', 'x', 'USER'), (2, 'bob', 'x', 'USER'), (3, 'admin', 'x', 'ADMIN')
+                """).then().block();
+        insertCard(10, "1111222233334444", 1);
+        insertCard(11, "5555666677778888", 1);
+        insertCard(20, "9999000011112222", 2);
+        databaseClient.sql("""
+                INSERT INTO transactions (id, from_card_id, to_card_id, amount, description)
+                VALUES (100, 10, 11, 25.00, 'Transfer between own cards')
+                """).then().block();
+    }
+
+    @Test
+    void getMyCards_ShouldReturnOnlyOwnCardsMasked() {
+        List<CardDto> cards = webTestClient.get().uri("/api/cards/my")
+                .header("Authorization", bearer(1L, "alice", "USER"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CardDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(2, cards.size());
+        assertEquals("**** **** **** 4444", cards.get(0).getMaskedCardNumber());
+        assertEquals("alice", cards.get(0).getOwnerUsername());
+    }
+
+    @Test
+    void getMyCards_ShouldStreamNdjson() {
+        webTestClient.get().uri("/api/cards/my?size=1")
+                .header("Authorization", bearer(1L, "alice", "USER"))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(CardDto.class).hasSize(1);
+    }
+
+    @Test
+    void getCard_ShouldDenyForeignCard() {
+        webTestClient.get().uri("/api/cards/20")
+                .header("Authorization", bearer(1L, "alice", "USER"))
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody().jsonPath("$.message").isEqualTo("Access denied");
+    }
+
+    @Test
+    void getAllCards_ShouldRequireAdmin() {
+        webTestClient.get().uri("/api/cards")
+                .header("Authorization", bearer(1L, "alice", "USER"))
+                .exchange()
+                .expectStatus().isForbidden();
+
+        webTestClient.get().uri("/api/cards")
+                .header("Authorization", bearer(3L, "admin", "ADMIN"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CardDto.class).hasSize(3);
+    }
+
+    @Test
+    void getMyTransactions_ShouldReturnHistoryOfOwnCards() {
+        webTestClient.get().uri("/api/transfers/my")
+                .header("Authorization", bearer(1L, "alice", "USER"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(TransactionDto.class).hasSize(1);
+
+        webTestClient.get().uri("/api/transfers/my")
+                .header("Authorization", bearer(2L, "bob", "USER"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(TransactionDto.class).hasSize(0);
+    }
+
+    @Test
+    void getMyTransactions_ShouldIncludeArchivedTransactions() {
+        archive(new ArchivedTransaction(50, 10, 20, new BigDecimal("5.00"),
+                        LocalDateTime.of(2020, 1, 1, 12, 0), "COMPLETED", "Old transfer to bob"),
+                // Card 99 has been deleted since
+                new ArchivedTransaction(60, 10, 99, new BigDecimal("7.00"),
+                        LocalDateTime.of(2020, 2, 1, 12, 0), "COMPLETED", "Old transfer to a closed card"));
+
+        List<TransactionDto> alice = webTestClient.get().uri("/api/transfers/my")
+                .header("Authorization", bearer(1L, "alice", "USER"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(TransactionDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(List.of(100L, 60L, 50L), alice.stream().map(TransactionDto::getId).toList());
+        assertNull(alice.get(1).getToCardMasked());
+
+        webTestClient.get().uri("/api/transfers/my")
+                .header("Authorization", bearer(2L, "bob", "USER"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(TransactionDto.class).hasSize(1);
+    }
+
+    @Test
+    void getTransaction_ShouldFallBackToArchive_AndCheckOwnership() {
+        archive(new ArchivedTransaction(60, 10, 99, new BigDecimal("7.00"),
+                LocalDateTime.of(2020, 2, 1, 12, 0), "COMPLETED", "Old transfer to a closed card"));
+
+        webTestClient.get().uri("/api/transfers/60")
+                .header("Authorization", bearer(1L, "alice", "USER"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.fromCardMasked").isEqualTo("**** **** **** 4444")
+                .jsonPath("$.amount").isEqualTo(7.00);
+
+        webTestClient.get().uri("/api/transfers/60")
+                .header("Authorization", bearer(2L, "bob", "USER"))
+                .exchange()
+                .expectStatus().isForbidden();
+
+        webTestClient.get().uri("/api/transfers/61")
+                .header("Authorization", bearer(1L, "alice", "USER"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void request_ShouldBeUnauthorized_WithoutToken() {
+        webTestClient.get().uri("/api/cards/my")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    private void insertCard(long id, String number, long ownerId) throws Exception {
+        databaseClient.sql("""
+                        INSERT INTO cards (id, card_number_encrypted, card_holder, expire_date, status, balance, owner_id)
+                        VALUES (:id, :number, 'HOLDER', DATE '2030-12-31', 'ACTIVE', 100.00, :ownerId)
+                        """)
+                .bind("id", id)
+                .bind("number", encrypt(number))
+                .bind("ownerId", ownerId)
+                .then()
+                .block();
+    }
+
+    // Written the way the main application archives: the segment file first, then its catalog row
+    private void archive(ArchivedTransaction... transactions) {
+        String fileName = "transactions-" + UUID.randomUUID() + ".seg";
+        TransactionSegmentFile.write(archiveDirectory.resolve(fileName), List.of(transactions), 512);
+        databaseClient.sql("INSERT INTO transaction_archive_segments (file_name) VALUES (:fileName)")
+                .bind("fileName", fileName)
+                .then()
+                .block();
+    }
+
+    private String encrypt(String data) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(encryptionKey.getBytes(), "AES"));
+        return Base64.getEncoder().encodeToString(cipher.doFinal(data.getBytes()));
+    }
+
+    private String bearer(Long userId, String username, String role) {
+        long now = System.currentTimeMillis();
+        return "Bearer " + Jwts.builder()
+                .claim("uid", userId)
+                .claim("role", role)
+                .subject(username)
+                .id(UUID.randomUUID().toString())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + 60_000))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
@@ -0,0 +1,36 @@
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) UNIQUE NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(20) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS cards (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    card_number_encrypted VARCHAR(500) NOT NULL,
+    card_holder VARCHAR(100) NOT NULL,
+    expire_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    balance NUMERIC(15, 2) DEFAULT 0.00,
+    owner_id BIGINT NOT NULL REFERENCES users(id)
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    from_card_id BIGINT NOT NULL REFERENCES cards(id),
+    to_card_id BIGINT NOT NULL REFERENCES cards(id),
+    amount NUMERIC(15, 2) NOT NULL,
+    transaction_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    status VARCHAR(20) DEFAULT 'COMPLETED',
+    description VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti VARCHAR(36) PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS transaction_archive_segments (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL UNIQUE
+);
@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# Builds the AOT-processed application and an AppCDS archive from a training run.
+#
+#   scripts/startup/build-cds.sh          # against the configured Postgres
+#   scripts/startup/build-cds.sh h2       # local file-based H2 (adds the h2 Maven and Spring profiles)
+#
+# Output in target/startup: app.jar, lib/, classpath.args and app.jsa.
+set -euo pipefail
+cd "$(dirname "$0")/../.."
+
+EXTRA_PROFILE="${1:-}"
+MAVEN_PROFILES="fast-startup${EXTRA_PROFILE:+,$EXTRA_PROFILE}"
+SPRING_PROFILES="fast-startup${EXTRA_PROFILE:+,$EXTRA_PROFILE}"
+OUT=target/startup
+
+mvn -B -q -P"$MAVEN_PROFILES" package -DskipTests
+rm -rf "$OUT"
+mkdir -p "$OUT/lib"
+mvn -B -q -P"$MAVEN_PROFILES" dependency:copy-dependencies -DincludeScope=runtime -DoutputDirectory="$OUT/lib"
+# The plain jar: CDS cannot archive classes loaded from nested jars or directories
+cp target/bankcards-1.0.0.jar "$OUT/app.jar"
+
+# CDS requires the same classpath, in the same order, at dump time and at run time
+{
+    printf -- "-cp %s/app.jar" "$OUT"
+    for jar in $(ls "$OUT/lib" | sort); do
+        printf ":%s/lib/%s" "$OUT" "$jar"
+    done
+    echo
+} > "$OUT/classpath.args"
+
+# Training run: refresh the context (AOT initializers, Hibernate, security), then exit and dump the archive
+java @"$OUT/classpath.args" \
+    -XX:ArchiveClassesAtExit="$OUT/app.jsa" \
+    -Xlog:cds=error \
+    -Dspring.aot.enabled=true \
+    -Dspring.context.exit=onRefresh \
+    com.example.bankcards.BankCardsApplication \
+    --spring.profiles.active="$SPRING_PROFILES"
+
+echo "AppCDS archive: $OUT/app.jsa"
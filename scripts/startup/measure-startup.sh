@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request: from JVM launch until the app answers any HTTP request.
+#
+#   scripts/startup/measure-startup.sh baseline [spring-profile]   # java -jar, default settings
+#   scripts/startup/measure-startup.sh fast [spring-profile]       # AOT + AppCDS + fast-startup profile
+#
+# "fast" needs scripts/startup/build-cds.sh to have been run first. Set RUNS to average several runs.
+set -euo pipefail
+cd "$(dirname "$0")/../.."
+
+MODE="${1:?baseline or fast}"
+EXTRA_PROFILE="${2:-}"
+RUNS="${RUNS:-3}"
+URL="${URL:-http://localhost:8080/api/auth/login}"
+
+case "$MODE" in
+    baseline)
+        COMMAND=(java -jar target/bankcards-1.0.0-exec.jar
+                 --spring.profiles.active="${EXTRA_PROFILE:-default}")
+        ;;
+    fast)
+        COMMAND=(java @target/startup/classpath.args
+                 -XX:SharedArchiveFile=target/startup/app.jsa
+                 -Dspring.aot.enabled=true
+                 com.example.bankcards.BankCardsApplication
+                 --spring.profiles.active="fast-startup${EXTRA_PROFILE:+,$EXTRA_PROFILE}")
+        ;;
+    *)
+        echo "Unknown mode: $MODE" >&2
+        exit 1
+        ;;
+esac
+
+total=0
+for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%3N)
+    "${COMMAND[@]}" > "target/startup-$MODE.log" 2>&1 &
+    pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL")" != "000" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application exited, see target/startup-$MODE.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(date +%s%3N) - start ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$MODE run $run: first response after ${elapsed} ms"
+    total=$(( total + elapsed ))
+done
+echo "$MODE average: $(( total / RUNS )) ms"
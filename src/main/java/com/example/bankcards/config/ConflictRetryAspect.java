@@ -0,0 +1,90 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.exception.ConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Retries @RetryOnConflict methods that lost a race on a row, with full-jitter exponential backoff:
+// an optimistic lock failure (the card's version moved on) or a deadlock/lock timeout in the database.
+// Ordered before the transaction advisor, so each attempt runs in a new transaction on fresh data.
+// Metrics per operation: conflict.retry.calls, conflict.retry.retries, conflict.retry.exhausted.
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ConflictRetryAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public ConflictRetryAspect(MeterRegistry meterRegistry,
+                               @Value("${app.conflict-retry.max-attempts:5}") int maxAttempts,
+                               @Value("${app.conflict-retry.initial-backoff:10ms}") Duration initialBackoff,
+                               @Value("${app.conflict-retry.max-backoff:200ms}") Duration maxBackoff) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(1, initialBackoff.toMillis());
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoff.toMillis());
+    }
+
+    @Around("@annotation(com.example.bankcards.service.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Inside a caller's transaction the failed attempt has already doomed it; the outermost caller retries
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        Meters operationMeters = meters.computeIfAbsent(operation, this::register);
+        operationMeters.calls.increment();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    operationMeters.exhausted.increment();
+                    log.warn("{} lost {} races in a row: {}", operation, attempt, e.getMessage());
+                    throw new ConflictException("CONCURRENT_UPDATE", "The card was changed concurrently, please retry");
+                }
+                operationMeters.retries.increment();
+                Thread.sleep(backoffMillis(attempt));
+            }
+        }
+    }
+
+    // Full jitter: competing retries spread out instead of colliding again in lockstep
+    private long backoffMillis(int attempt) {
+        long cap = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private Meters register(String operation) {
+        return new Meters(
+                Counter.builder("conflict.retry.calls").tag("operation", operation).register(meterRegistry),
+                Counter.builder("conflict.retry.retries").tag("operation", operation).register(meterRegistry),
+                Counter.builder("conflict.retry.exhausted").tag("operation", operation).register(meterRegistry));
+    }
+
+    private record Meters(Counter calls, Counter retries, Counter exhausted) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.dto.AuthRequest;
+import com.example.bankcards.dto.AuthResponse;
+import com.example.bankcards.dto.BulkCardOperationRequest;
+import com.example.bankcards.dto.BulkCardOperationResultDto;
+import com.example.bankcards.dto.CardCreateRequest;
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardSummaryRebuildResultDto;
+import com.example.bankcards.dto.DiscrepancyDto;
+import com.example.bankcards.dto.ErrorResponse;
+import com.example.bankcards.dto.ReconciliationRunDto;
+import com.example.bankcards.dto.RefreshTokenRequest;
+import com.example.bankcards.dto.StandingOrderDto;
+import com.example.bankcards.dto.StandingOrderRequest;
+import com.example.bankcards.dto.StatementRunDto;
+import com.example.bankcards.dto.TransactionArchiveStatusDto;
+import com.example.bankcards.dto.TransactionDto;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.UserCardSummaryDto;
+import com.example.bankcards.entity.ArchivedCardTotal;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.ReconciliationCheckpoint;
+import com.example.bankcards.entity.ReconciliationDiscrepancy;
+import com.example.bankcards.entity.ReconciliationRun;
+import com.example.bankcards.entity.RefreshToken;
+import com.example.bankcards.entity.RevokedToken;
+import com.example.bankcards.entity.StandingOrder;
+import com.example.bankcards.entity.StatementRun;
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.entity.TransactionArchiveSegment;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserCardSummary;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.data.domain.PageImpl;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+// Reachability metadata for the native image; the JVM build ignores all of it
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.BankCardsRuntimeHints.class)
+@RegisterReflectionForBinding({
+        AuthRequest.class, AuthResponse.class, RefreshTokenRequest.class,
+        CardCreateRequest.class, CardDto.class, TransferRequest.class, TransactionDto.class,
+        ReconciliationRunDto.class, DiscrepancyDto.class, StatementRunDto.class,
+        StandingOrderRequest.class, StandingOrderDto.class, BulkCardOperationRequest.class,
+        BulkCardOperationResultDto.class, TransactionArchiveStatusDto.class, UserCardSummaryDto.class,
+        CardSummaryRebuildResultDto.class, ErrorResponse.class, PageImpl.class
+})
+public class NativeHintsConfig {
+
+    // jjwt-api instantiates its implementation by class name (Classes.newInstance)
+    private static final List<String> JJWT_IMPL_CLASSES = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    static class BankCardsRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Hibernate reads mapped fields and calls the Lombok no-arg constructors reflectively
+            for (Class<?> entity : List.of(User.class, Card.class, Transaction.class,
+                    RefreshToken.class, RevokedToken.class, ReconciliationRun.class,
+                    ReconciliationCheckpoint.class, ReconciliationDiscrepancy.class, StatementRun.class,
+                    com.example.bankcards.entity.Statement.class, StandingOrder.class,
+                    TransactionArchiveSegment.class, ArchivedCardTotal.class, UserCardSummary.class)) {
+                hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            for (Class<?> enumType : List.of(User.Role.class, Card.CardStatus.class,
+                    Transaction.TransactionStatus.class, ReconciliationRun.RunStatus.class,
+                    StatementRun.RunStatus.class, StatementRun.StatementFormat.class,
+                    StandingOrder.Frequency.class, StandingOrder.StandingOrderStatus.class)) {
+                hints.reflection().registerType(enumType, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+
+            for (String className : JJWT_IMPL_CLASSES) {
+                hints.reflection().registerType(TypeReference.of(className),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+            // Boot only registers db/changelog/**; our changelog lives under db/migration
+            hints.resources().registerPattern("db/migration/*");
+
+            // datasource-proxy wraps JDBC objects in JDK proxies (SqlMonitoringConfig)
+            hints.proxies().registerJdkProxy(ProxyJdbcObject.class, DataSource.class);
+            hints.proxies().registerJdkProxy(ProxyJdbcObject.class, Connection.class);
+            hints.proxies().registerJdkProxy(ProxyJdbcObject.class, Statement.class);
+            hints.proxies().registerJdkProxy(ProxyJdbcObject.class, PreparedStatement.class);
+            hints.proxies().registerJdkProxy(ProxyJdbcObject.class, CallableStatement.class);
+            hints.proxies().registerJdkProxy(ProxyJdbcObject.class, ResultSet.class);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.service.CacheInvalidationListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ReplicaLagGuard implements CacheInvalidationListener {
+
+    private final long lagMillis;
+    private final int maxEntries;
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+    private volatile long lastWriteForAll;
+
+    public ReplicaLagGuard(Duration lag, int maxEntries) {
+        this.lagMillis = lag.toMillis();
+        this.maxEntries = maxEntries;
+    }
+
+    public void recordWrite(Long userId) {
+        if (userId == null || lagMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (lastWrites.size() >= maxEntries && !lastWrites.containsKey(userId)) {
+            // No scan on the request path: until the next sweep, everyone reads from primary for one lag window
+            lastWriteForAll = now;
+            return;
+        }
+        lastWrites.put(userId, now);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-guard-cleanup-interval:PT5S}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        lastWrites.values().removeIf(writtenAt -> writtenAt + lagMillis <= now);
+    }
+
+    public boolean mustReadPrimary(Long userId) {
+        if (lastWriteForAll + lagMillis > System.currentTimeMillis()) {
+            return true;
+        }
+        if (userId == null) {
+            return false;
+        }
+        Long writtenAt = lastWrites.get(userId);
+        return writtenAt != null && writtenAt + lagMillis > System.currentTimeMillis();
+    }
+
+    // Writes made by other nodes, or on behalf of another user (e.g. a transfer to this user's card)
+    @Override
+    public void evict(Set<Long> cardIds, Set<Long> userIds) {
+        userIds.forEach(this::recordWrite);
+    }
+
+    @Override
+    public void evictAll() {
+        if (lagMillis > 0) {
+            lastWriteForAll = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.bankcards.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "app.sql-monitoring", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlQueryCountFilter extends OncePerRequestFilter {
+
+    public static final String COUNT_HEADER = "X-Sql-Query-Count";
+    public static final String TIME_HEADER = "X-Sql-Query-Time-Ms";
+
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public SqlQueryCountFilter(MeterRegistry meterRegistry,
+                               @Value("${app.sql-monitoring.warn-threshold:10}") int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.start();
+
+        // Headers must be written before the body commits the response; statements issued while
+        // the body is being written still end up in the metrics and the warning
+        HttpServletResponse wrapped = new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                writeHeaders(response, stats);
+            }
+        };
+
+        try {
+            filterChain.doFilter(request, wrapped);
+        } finally {
+            SqlStatementStats.stop();
+            if (!response.isCommitted()) {
+                writeHeaders(response, stats);
+            }
+            record(request, stats);
+        }
+    }
+
+    private static void writeHeaders(HttpServletResponse response, SqlStatementStats stats) {
+        response.setHeader(COUNT_HEADER, Integer.toString(stats.getCount()));
+        response.setHeader(TIME_HEADER, Long.toString(stats.getMillis()));
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getCount());
+        Timer.builder("http.server.requests.sql.time")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getCount() > warnThreshold) {
+            log.warn("{} {} executed {} SQL statements in {} ms (threshold {})",
+                    request.getMethod(), request.getRequestURI(), stats.getCount(), stats.getMillis(), warnThreshold);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+// One execution is one round trip: a JDBC batch counts once, however many rows it carries
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final String START = "sqlStatementStart";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START, Long.class);
+        SqlStatementStats.record(start == null ? 0 : System.nanoTime() - start);
+    }
+}
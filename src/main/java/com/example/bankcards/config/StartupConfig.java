@@ -0,0 +1,31 @@
+package com.example.bankcards.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.web.SecurityFilterChain;
+
+import java.util.Set;
+
+@Configuration
+@ConditionalOnProperty(prefix = "spring.main", name = "lazy-initialization", havingValue = "true")
+public class StartupConfig {
+
+    private static final Set<String> HOT_PATH_PACKAGES = Set.of(
+            "com.example.bankcards.controller",
+            "com.example.bankcards.service",
+            "com.example.bankcards.security",
+            "com.example.bankcards.mapper",
+            "com.example.bankcards.util"
+    );
+
+    // With lazy initialization on, everything serving requests is still created at startup,
+    // so the first request after a scale-out does not pay for it
+    @Bean
+    public static LazyInitializationExcludeFilter hotPathEagerInitialization() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (HOT_PATH_PACKAGES.contains(beanType.getPackageName())
+                || SecurityFilterChain.class.isAssignableFrom(beanType));
+    }
+}
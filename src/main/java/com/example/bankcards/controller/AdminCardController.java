@@ -0,0 +1,42 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.BulkCardOperationRequest;
+import com.example.bankcards.dto.BulkCardOperationResultDto;
+import com.example.bankcards.dto.CardSummaryRebuildResultDto;
+import com.example.bankcards.service.BulkCardService;
+import com.example.bankcards.service.UserCardSummaryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/cards")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Card Administration", description = "Set-based operations on many cards (ADMIN only)")
+@SecurityRequirement(name = "Bearer Authentication")
+public class AdminCardController {
+
+    private final BulkCardService bulkCardService;
+    private final UserCardSummaryService summaryService;
+
+    @PostMapping("/bulk")
+    @Operation(summary = "Bulk card operation",
+            description = "Blocks, activates or deletes all cards matching owner, card IDs, status and expiry filters. "
+                    + "Cards that break the rules of the single-card operation are skipped and counted")
+    public ResponseEntity<BulkCardOperationResultDto> bulk(@Valid @RequestBody BulkCardOperationRequest request) {
+        return ResponseEntity.ok(bulkCardService.apply(request));
+    }
+
+    @PostMapping("/summary/rebuild")
+    @Operation(summary = "Rebuild card summaries",
+            description = "Recomputes every user's card summary from the cards and corrects the rows that drifted")
+    public ResponseEntity<CardSummaryRebuildResultDto> rebuildSummaries() {
+        return ResponseEntity.ok(summaryService.rebuild());
+    }
+}
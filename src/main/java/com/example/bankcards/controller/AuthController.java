@@ -2,11 +2,16 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.AuthRequest;
 import com.example.bankcards.dto.AuthResponse;
+import com.example.bankcards.dto.RefreshTokenRequest;
+import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,7 +31,25 @@ public class AuthController {
 
     @PostMapping("/login")
     @Operation(summary = "user login", description = "Authenticates user and returns JWT token")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest request,
+                                              HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(authService.login(request, httpRequest.getRemoteAddr()));
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh tokens", description = "Exchanges a refresh token for a new access and refresh token pair")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+
+    @PostMapping("/logout")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(summary = "Logout", description = "Revokes the current access token and all refresh tokens of the user")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        if (!authorization.startsWith("Bearer ")) {
+            throw new BadRequestException("INVALID_AUTHORIZATION_HEADER", "Authorization header must be a Bearer token");
+        }
+        authService.logout(authorization.substring(7));
+        return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
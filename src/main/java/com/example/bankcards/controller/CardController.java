@@ -2,8 +2,13 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.CardCreateRequest;
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.UserCardSummaryDto;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.CardEventHub;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.UserCardSummaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,9 +17,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/cards")
@@ -24,6 +31,9 @@ import org.springframework.web.bind.annotation.*;
 public class CardController {
 
     private final CardService cardService;
+    private final CardMapper cardMapper;
+    private final CardEventHub cardEventHub;
+    private final UserCardSummaryService summaryService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -35,7 +45,7 @@ public class CardController {
                 request.getExpireDate(),
                 request.getOwnerId()
         );
-        return ResponseEntity.ok(convertToDto(card));
+        return ResponseEntity.ok(cardMapper.convertToDto(card));
     }
 
     @GetMapping("/my")
@@ -47,10 +57,27 @@ public class CardController {
     ) {
         Pageable pageable = PageRequest.of(page, size);
         Page<CardDto> cards = cardService.getMyCards(pageable)
-                .map(this::convertToDto);
+                .map(cardMapper::convertToDto);
         return ResponseEntity.ok(cards);
     }
 
+    @GetMapping("/my/summary")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Operation(summary = "Get my card summary",
+            description = "Returns the number of the current user's cards by status and their total balance")
+    public ResponseEntity<UserCardSummaryDto> getMySummary() {
+        return ResponseEntity.ok(summaryService.getMySummary());
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Operation(summary = "Stream my cards",
+            description = "Server-sent events: a snapshot of the user's cards, then a card or card-deleted event per change. "
+                    + "Reconnect with Last-Event-ID to receive only the missed events")
+    public SseEmitter streamMyCards(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return cardEventHub.subscribe(UserPrincipal.current(), lastEventId);
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get all cards", description = "Returns list of all cards (ADMIN only)")
@@ -60,7 +87,7 @@ public class CardController {
     ) {
         Pageable pageable = PageRequest.of(page, size);
         Page<CardDto> cards = cardService.getAllCards(pageable)
-                .map(this::convertToDto);
+                .map(cardMapper::convertToDto);
         return ResponseEntity.ok(cards);
     }
 
@@ -69,7 +96,7 @@ public class CardController {
     @Operation(summary = "Get card by ID", description = "Returns card details (owner or ADMIN only)")
     public ResponseEntity<CardDto> getCard(@PathVariable Long id) {
         Card card = cardService.getCardById(id);
-        return ResponseEntity.ok(convertToDto(card));
+        return ResponseEntity.ok(cardMapper.convertToDto(card));
     }
 
     @PutMapping("/{id}/block")
@@ -77,7 +104,7 @@ public class CardController {
     @Operation(summary = "Block card", description = "Blocks the card (owner or ADMIN)")
     public ResponseEntity<CardDto> blockCard(@PathVariable Long id) {
         Card card = cardService.blockCard(id);
-        return ResponseEntity.ok(convertToDto(card));
+        return ResponseEntity.ok(cardMapper.convertToDto(card));
     }
 
     @PutMapping("/{id}/activate")
@@ -85,7 +112,7 @@ public class CardController {
     @Operation(summary = "Activate card", description = "Activates blocked card (ADMIN only)")
     public ResponseEntity<CardDto> activateCard(@PathVariable Long id) {
         Card card = cardService.activateCard(id);
-        return ResponseEntity.ok(convertToDto(card));
+        return ResponseEntity.ok(cardMapper.convertToDto(card));
     }
 
     @DeleteMapping("/{id}")
@@ -95,17 +122,4 @@ public class CardController {
         cardService.deleteCard(id);
         return ResponseEntity.noContent().build();
     }
-
-    private CardDto convertToDto(Card card) {
-        CardDto dto = new CardDto();
-        dto.setId(card.getId());
-        dto.setMaskedCardNumber(cardService.getMaskedCardNumber(card));
-        dto.setCardHolder(card.getCardHolder());
-        dto.setExpireDate(card.getExpireDate());
-        dto.setStatus(card.getStatus().name());
-        dto.setBalance(card.getBalance());
-        dto.setOwnerId(card.getOwner().getId());
-        dto.setOwnerUsername(card.getOwner().getUsername());
-        return dto;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.DiscrepancyDto;
+import com.example.bankcards.dto.ReconciliationRunDto;
+import com.example.bankcards.entity.ReconciliationRun;
+import com.example.bankcards.mapper.ReconciliationMapper;
+import com.example.bankcards.service.ReconciliationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/reconciliation/runs")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Reconciliation", description = "Ledger reconciliation of card balances against transactions (ADMIN only)")
+@SecurityRequirement(name = "Bearer Authentication")
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+    private final ReconciliationMapper reconciliationMapper;
+
+    @PostMapping
+    @Operation(summary = "Start reconciliation", description = "Starts a new reconciliation run in the background")
+    public ResponseEntity<ReconciliationRunDto> start() {
+        ReconciliationRun run = reconciliationService.start();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toDto(run));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get reconciliation run", description = "Returns run status and progress")
+    public ResponseEntity<ReconciliationRunDto> getRun(@PathVariable Long id) {
+        return ResponseEntity.ok(toDto(reconciliationService.getRun(id)));
+    }
+
+    @PostMapping("/{id}/resume")
+    @Operation(summary = "Resume reconciliation", description = "Continues a failed or stopped run from its checkpoints")
+    public ResponseEntity<ReconciliationRunDto> resume(@PathVariable Long id) {
+        ReconciliationRun run = reconciliationService.resume(id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toDto(run));
+    }
+
+    @PostMapping("/{id}/stop")
+    @Operation(summary = "Stop reconciliation", description = "Stops the run after the ranges in progress are checkpointed")
+    public ResponseEntity<ReconciliationRunDto> stop(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toDto(reconciliationService.stop(id)));
+    }
+
+    @GetMapping("/{id}/discrepancies")
+    @Operation(summary = "Get discrepancies", description = "Returns cards whose balance differs from their transaction history")
+    public ResponseEntity<Page<DiscrepancyDto>> getDiscrepancies(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        Page<DiscrepancyDto> discrepancies = reconciliationService.getDiscrepancies(id, PageRequest.of(page, size))
+                .map(reconciliationMapper::convertToDto);
+        return ResponseEntity.ok(discrepancies);
+    }
+
+    private ReconciliationRunDto toDto(ReconciliationRun run) {
+        return reconciliationMapper.convertToDto(run, reconciliationService.getProgress(run.getId()));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.StandingOrderDto;
+import com.example.bankcards.dto.StandingOrderRequest;
+import com.example.bankcards.entity.StandingOrder;
+import com.example.bankcards.mapper.StandingOrderMapper;
+import com.example.bankcards.service.StandingOrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/standing-orders")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+@Tag(name = "Standing Orders", description = "Recurring transfers between own cards")
+@SecurityRequirement(name = "Bearer Authentication")
+public class StandingOrderController {
+
+    private final StandingOrderService standingOrderService;
+    private final StandingOrderMapper standingOrderMapper;
+
+    @PostMapping
+    @Operation(summary = "Create standing order", description = "Schedules a recurring transfer between user's own cards")
+    public ResponseEntity<StandingOrderDto> createOrder(@Valid @RequestBody StandingOrderRequest request) {
+        StandingOrder order = standingOrderService.createOrder(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(standingOrderMapper.convertToDto(order));
+    }
+
+    @GetMapping
+    @Operation(summary = "Get my standing orders", description = "Returns paginated list of current user's standing orders")
+    public ResponseEntity<Page<StandingOrderDto>> getMyOrders(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        Page<StandingOrderDto> orders = standingOrderService.getMyOrders(PageRequest.of(page, size))
+                .map(standingOrderMapper::convertToDto);
+        return ResponseEntity.ok(orders);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get standing order", description = "Returns standing order details (owner only)")
+    public ResponseEntity<StandingOrderDto> getOrder(@PathVariable Long id) {
+        return ResponseEntity.ok(standingOrderMapper.convertToDto(standingOrderService.getOrderById(id)));
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Update standing order", description = "Replaces the order and reschedules it from the new start")
+    public ResponseEntity<StandingOrderDto> updateOrder(@PathVariable Long id,
+                                                        @Valid @RequestBody StandingOrderRequest request) {
+        StandingOrder order = standingOrderService.updateOrder(id, request);
+        return ResponseEntity.ok(standingOrderMapper.convertToDto(order));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete standing order", description = "Cancels and deletes the standing order (owner only)")
+    public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
+        standingOrderService.deleteOrder(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.StatementRunDto;
+import com.example.bankcards.entity.StatementRun;
+import com.example.bankcards.mapper.StatementMapper;
+import com.example.bankcards.service.StatementService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+@RestController
+@RequestMapping("/api/admin/statements/runs")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Statements", description = "Monthly statement generation (ADMIN only)")
+@SecurityRequirement(name = "Bearer Authentication")
+public class StatementController {
+
+    private final StatementService statementService;
+    private final StatementMapper statementMapper;
+
+    @PostMapping
+    @Operation(summary = "Generate statements",
+            description = "Starts or continues statement generation for a month (yyyy-MM, previous month by default)")
+    public ResponseEntity<StatementRunDto> start(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth period
+    ) {
+        StatementRun run = statementService.start(period != null ? period : YearMonth.now().minusMonths(1));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toDto(run));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get statement run", description = "Returns run status and the number of statements written")
+    public ResponseEntity<StatementRunDto> getRun(@PathVariable Long id) {
+        return ResponseEntity.ok(toDto(statementService.getRun(id)));
+    }
+
+    @PostMapping("/{id}/stop")
+    @Operation(summary = "Stop statement run", description = "Stops the run after the chunks in progress are written")
+    public ResponseEntity<StatementRunDto> stop(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toDto(statementService.stop(id)));
+    }
+
+    private StatementRunDto toDto(StatementRun run) {
+        return statementMapper.convertToDto(run, statementService.countStatements(run.getId()));
+    }
+}
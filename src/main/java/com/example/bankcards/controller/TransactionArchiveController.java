@@ -0,0 +1,36 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.TransactionArchiveStatusDto;
+import com.example.bankcards.service.TransactionArchiveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/transactions/archive")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Transaction Archive", description = "Cold storage of old transactions (ADMIN only)")
+@SecurityRequirement(name = "Bearer Authentication")
+public class TransactionArchiveController {
+
+    private final TransactionArchiveService archiveService;
+
+    @PostMapping
+    @Operation(summary = "Archive old transactions",
+            description = "Starts moving transactions older than the configured age into archive segments")
+    public ResponseEntity<TransactionArchiveStatusDto> start() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(archiveService.start());
+    }
+
+    @GetMapping
+    @Operation(summary = "Get archive status", description = "Returns archive size and whether archival is running")
+    public ResponseEntity<TransactionArchiveStatusDto> getStatus() {
+        return ResponseEntity.ok(archiveService.getStatus());
+    }
+}
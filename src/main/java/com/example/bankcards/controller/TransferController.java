@@ -3,17 +3,19 @@ package com.example.bankcards.controller;
 import com.example.bankcards.dto.TransactionDto;
 import com.example.bankcards.dto.TransferRequest;
 import com.example.bankcards.entity.Transaction;
-import com.example.bankcards.service.CardService;
+import com.example.bankcards.mapper.TransactionMapper;
 import com.example.bankcards.service.TransferService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,7 +27,7 @@ import java.util.List;
 public class TransferController {
 
     private final TransferService transferService;
-    private final CardService cardService;
+    private final TransactionMapper transactionMapper;
 
     @PostMapping
     @Operation(summary = "Transfer money", description = "Transfers money between user's own cards")
@@ -35,15 +37,20 @@ public class TransferController {
                 request.getToCardId(),
                 request.getAmount()
         );
-        return ResponseEntity.ok(convertToDto(transaction));
+        return ResponseEntity.ok(transactionMapper.convertToDto(transaction));
     }
 
     @GetMapping("/my")
-    @Operation(summary = "Get my transactions", description = "Returns all transactions related to user's cards")
-    public ResponseEntity<List<TransactionDto>> getMyTransactions() {
-        List<TransactionDto> transactions = transferService.getMyTransactions()
+    @Operation(summary = "Get my transactions",
+            description = "Returns transactions related to user's cards, optionally within [from, to). "
+                    + "Archived transactions are included when the range reaches back to them")
+    public ResponseEntity<List<TransactionDto>> getMyTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        List<TransactionDto> transactions = transferService.getMyTransactions(from, to)
                 .stream()
-                .map(this::convertToDto)
+                .map(transactionMapper::convertToDto)
                 .toList();
         return ResponseEntity.ok(transactions);
     }
@@ -52,18 +59,6 @@ public class TransferController {
     @Operation(summary = "Get transaction by ID", description = "Returns transaction details")
     public ResponseEntity<TransactionDto> getTransaction(@PathVariable Long id) {
         Transaction transaction = transferService.getTransactionById(id);
-        return ResponseEntity.ok(convertToDto(transaction));
+        return ResponseEntity.ok(transactionMapper.convertToDto(transaction));
     }
-
-    private TransactionDto convertToDto(Transaction transaction) {
-        TransactionDto dto = new TransactionDto();
-        dto.setId(transaction.getId());
-        dto.setFromCardMasked(cardService.getMaskedCardNumber(transaction.getFromCard()));
-        dto.setToCardMasked(cardService.getMaskedCardNumber(transaction.getToCard()));
-        dto.setAmount(transaction.getAmount());
-        dto.setTransactionDate(transaction.getTransactionDate());
-        dto.setStatus(transaction.getStatus().name());
-        dto.setDescription(transaction.getDescription());
-        return dto;
-    }
-}
+}
\ No newline at end of file
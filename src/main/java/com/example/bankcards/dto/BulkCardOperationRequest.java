@@ -0,0 +1,34 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.Card;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Selectors are combined with AND; at least one is required
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCardOperationRequest {
+
+    @NotNull(message = "Action is required")
+    private Action action;
+
+    private Long ownerId;
+
+    @Size(max = 10000, message = "At most 10000 card IDs per request")
+    private List<Long> cardIds;
+
+    private Card.CardStatus status;
+
+    private LocalDate expireBefore;
+
+    public enum Action {
+        BLOCK, ACTIVATE, DELETE
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCardOperationResultDto {
+    private String action;
+    private long matched;
+    private long affected;
+    private long skipped;
+    private long durationMs;
+}
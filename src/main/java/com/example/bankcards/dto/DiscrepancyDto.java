@@ -0,0 +1,19 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiscrepancyDto {
+    private Long cardId;
+    private BigDecimal storedBalance;
+    private BigDecimal expectedBalance;
+    private BigDecimal difference;
+    private LocalDateTime detectedAt;
+}
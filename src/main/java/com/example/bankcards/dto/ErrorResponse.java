@@ -1,5 +1,6 @@
 package com.example.bankcards.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,4 +16,11 @@ public class ErrorResponse {
     private String error;
     private String message;
     private String path;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String code;
+
+    public ErrorResponse(LocalDateTime timestamp, int status, String error, String message, String path) {
+        this(timestamp, status, error, message, path, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRunDto {
+    private Long id;
+    private String status;
+    private Long minCardId;
+    private Long maxCardId;
+    private Integer rangeSize;
+    private Integer totalRanges;
+    private Integer completedRanges;
+    private Long cardsChecked;
+    private Long discrepancies;
+    private LocalDateTime startedAt;
+    private LocalDateTime heartbeatAt;
+    private LocalDateTime finishedAt;
+    private String lastError;
+}
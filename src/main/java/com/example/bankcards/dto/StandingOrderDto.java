@@ -0,0 +1,29 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StandingOrderDto {
+    private Long id;
+    private String fromCardMasked;
+    private String toCardMasked;
+    private BigDecimal amount;
+    private String description;
+    private String frequency;
+    private LocalDateTime startAt;
+    private LocalDate endDate;
+    private LocalDateTime nextRunAt;
+    private String status;
+    private Integer consecutiveFailures;
+    private LocalDateTime lastRunAt;
+    private String lastError;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,42 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.StandingOrder;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StandingOrderRequest {
+
+    @NotNull(message = "Source card ID is required")
+    private Long fromCardId;
+
+    @NotNull(message = "Destination card ID is required")
+    private Long toCardId;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+
+    @NotNull(message = "Frequency is required")
+    private StandingOrder.Frequency frequency;
+
+    @NotNull(message = "Start time is required")
+    @Future(message = "Start time must be in the future")
+    private LocalDateTime startAt;
+
+    private LocalDate endDate;
+
+    @Size(max = 255, message = "Description must be at most 255 characters")
+    private String description;
+}
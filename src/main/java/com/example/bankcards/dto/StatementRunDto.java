@@ -0,0 +1,23 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementRunDto {
+    private Long id;
+    private String period;
+    private String status;
+    private String format;
+    private String outputDir;
+    private Long usersProcessed;
+    private LocalDateTime startedAt;
+    private LocalDateTime heartbeatAt;
+    private LocalDateTime finishedAt;
+    private String lastError;
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionArchiveStatusDto {
+    private boolean running;
+    private int segments;
+    private long archivedTransactions;
+    private long sizeBytes;
+    private LocalDateTime oldestArchived;
+    private LocalDateTime newestArchived;
+    private String lastError;
+}
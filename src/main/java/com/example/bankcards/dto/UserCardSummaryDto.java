@@ -0,0 +1,20 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCardSummaryDto {
+    private int cardCount;
+    private int activeCount;
+    private int blockedCount;
+    private int expiredCount;
+    private BigDecimal totalBalance;
+    private LocalDateTime updatedAt;
+}
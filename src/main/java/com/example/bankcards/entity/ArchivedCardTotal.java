@@ -0,0 +1,30 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Completed flows of a card that were moved to the archive, so balances still reconcile without them
+@Entity
+@Table(name = "archived_card_totals")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedCardTotal {
+
+    @Id
+    @Column(name = "card_id")
+    private Long cardId;
+
+    @Column(name = "total_in", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalIn;
+
+    @Column(name = "total_out", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalOut;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+}
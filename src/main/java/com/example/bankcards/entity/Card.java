@@ -42,6 +42,11 @@ public class Card {
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
+    // Concurrent updates of a card (a transfer and a block) fail instead of overwriting each other
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,40 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reconciliation_checkpoints",
+        uniqueConstraints = @UniqueConstraint(name = "uq_reconciliation_checkpoints_range",
+                columnNames = {"run_id", "range_start"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "range_start", nullable = false)
+    private Long rangeStart;
+
+    @Column(name = "range_end", nullable = false)
+    private Long rangeEnd;
+
+    @Column(name = "cards_checked", nullable = false)
+    private Integer cardsChecked;
+
+    @Column(nullable = false)
+    private Integer discrepancies;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,40 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reconciliation_discrepancies")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationDiscrepancy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    // No foreign key: the report outlives deleted cards
+    @Column(name = "card_id", nullable = false)
+    private Long cardId;
+
+    @Column(name = "stored_balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal storedBalance;
+
+    @Column(name = "expected_balance", nullable = false, precision = 16, scale = 2)
+    private BigDecimal expectedBalance;
+
+    @Column(nullable = false, precision = 16, scale = 2)
+    private BigDecimal difference;
+
+    @Column(name = "detected_at", nullable = false)
+    private LocalDateTime detectedAt;
+}
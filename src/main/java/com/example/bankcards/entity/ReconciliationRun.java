@@ -0,0 +1,63 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reconciliation_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RunStatus status;
+
+    @Column(name = "min_card_id", nullable = false)
+    private Long minCardId;
+
+    @Column(name = "max_card_id", nullable = false)
+    private Long maxCardId;
+
+    @Column(name = "range_size", nullable = false)
+    private Integer rangeSize;
+
+    @Column(name = "total_ranges", nullable = false)
+    private Integer totalRanges;
+
+    // Final totals, filled when the run finishes; progress while running comes from checkpoints
+    @Column(name = "cards_checked")
+    private Long cardsChecked;
+
+    @Column(name = "discrepancies")
+    private Long discrepancies;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    public long rangeStart(int rangeIndex) {
+        return minCardId + (long) rangeIndex * rangeSize;
+    }
+
+    public enum RunStatus {
+        RUNNING, COMPLETED, FAILED, INTERRUPTED
+    }
+}
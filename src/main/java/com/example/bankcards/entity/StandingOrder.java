@@ -0,0 +1,97 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "standing_orders")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StandingOrder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false)
+    private User owner;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "from_card_id", nullable = false)
+    private Card fromCard;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "to_card_id", nullable = false)
+    private Card toCard;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(length = 255)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Frequency frequency;
+
+    @Column(name = "start_at", nullable = false)
+    private LocalDateTime startAt;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    // Null once the order is completed or failed
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt;
+
+    // Index of next_run_at in the schedule that starts at start_at
+    @Column(nullable = false)
+    private int occurrence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StandingOrderStatus status;
+
+    @Column(name = "consecutive_failures", nullable = false)
+    private int consecutiveFailures;
+
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // Lease of the instance that holds the order in its in-memory schedule
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY;
+
+        // Counted from the start so monthly orders on the 31st return to the 31st after a short month
+        public LocalDateTime occurrence(LocalDateTime startAt, int index) {
+            return switch (this) {
+                case DAILY -> startAt.plusDays(index);
+                case WEEKLY -> startAt.plusWeeks(index);
+                case MONTHLY -> startAt.plusMonths(index);
+            };
+        }
+    }
+
+    public enum StandingOrderStatus {
+        ACTIVE, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "statements",
+        uniqueConstraints = @UniqueConstraint(name = "uq_statements_user_period", columnNames = {"user_id", "period"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Statement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDate period;
+
+    @Column(name = "card_count", nullable = false)
+    private Integer cardCount;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Integer transactionCount;
+
+    @Column(name = "total_in", nullable = false, precision = 17, scale = 2)
+    private BigDecimal totalIn;
+
+    @Column(name = "total_out", nullable = false, precision = 17, scale = 2)
+    private BigDecimal totalOut;
+
+    @Column(name = "file_path", nullable = false, length = 500)
+    private String filePath;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+}
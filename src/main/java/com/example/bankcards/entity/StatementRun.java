@@ -0,0 +1,59 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "statement_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // First day of the statement month; one run per month, restarts continue it
+    @Column(nullable = false, unique = true)
+    private LocalDate period;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RunStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private StatementFormat format;
+
+    @Column(name = "output_dir", nullable = false, length = 500)
+    private String outputDir;
+
+    @Column(name = "users_processed")
+    private Long usersProcessed;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    public enum RunStatus {
+        RUNNING, COMPLETED, FAILED, INTERRUPTED
+    }
+
+    public enum StatementFormat {
+        CSV, JSON
+    }
+}
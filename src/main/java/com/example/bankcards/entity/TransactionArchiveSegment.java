@@ -0,0 +1,47 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Catalog of archive files: a segment is readable only once its row and the deletion of its
+// transactions have committed together
+@Entity
+@Table(name = "transaction_archive_segments")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Relative to the archive directory
+    @Column(name = "file_name", nullable = false, unique = true)
+    private String fileName;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Integer transactionCount;
+
+    @Column(name = "min_transaction_id", nullable = false)
+    private Long minTransactionId;
+
+    @Column(name = "max_transaction_id", nullable = false)
+    private Long maxTransactionId;
+
+    @Column(name = "min_date", nullable = false)
+    private LocalDateTime minDate;
+
+    @Column(name = "max_date", nullable = false)
+    private LocalDateTime maxDate;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,40 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Read model of a user's cards, kept in step with cards by UserCardSummaryService
+@Entity
+@Table(name = "user_card_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCardSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "card_count", nullable = false)
+    private Integer cardCount;
+
+    @Column(name = "active_count", nullable = false)
+    private Integer activeCount;
+
+    @Column(name = "blocked_count", nullable = false)
+    private Integer blockedCount;
+
+    @Column(name = "expired_count", nullable = false)
+    private Integer expiredCount;
+
+    @Column(name = "total_balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalBalance;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
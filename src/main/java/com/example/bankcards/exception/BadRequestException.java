@@ -0,0 +1,10 @@
+package com.example.bankcards.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class BadRequestException extends BusinessException {
+
+    public BadRequestException(String errorCode, String message) {
+        super(errorCode, message, HttpStatus.BAD_REQUEST);
+    }
+}
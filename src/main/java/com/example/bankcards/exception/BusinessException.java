@@ -0,0 +1,19 @@
+package com.example.bankcards.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+// Expected business rejections: no stack trace and no suppression, they are
+// thrown on user input and always translated to a response by GlobalExceptionHandler
+@Getter
+public abstract class BusinessException extends RuntimeException {
+
+    private final String errorCode;
+    private final HttpStatus status;
+
+    protected BusinessException(String errorCode, String message, HttpStatus status) {
+        super(message, null, false, false);
+        this.errorCode = errorCode;
+        this.status = status;
+    }
+}
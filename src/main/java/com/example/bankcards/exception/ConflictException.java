@@ -0,0 +1,10 @@
+package com.example.bankcards.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ConflictException extends BusinessException {
+
+    public ConflictException(String errorCode, String message) {
+        super(errorCode, message, HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ForbiddenException extends BusinessException {
+
+    public ForbiddenException(String errorCode, String message) {
+        super(errorCode, message, HttpStatus.FORBIDDEN);
+    }
+}
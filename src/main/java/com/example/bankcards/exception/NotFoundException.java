@@ -0,0 +1,10 @@
+package com.example.bankcards.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class NotFoundException extends BusinessException {
+
+    public NotFoundException(String errorCode, String message) {
+        super(errorCode, message, HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends BusinessException {
+
+    public ServiceUnavailableException(String errorCode, String message) {
+        super(errorCode, message, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
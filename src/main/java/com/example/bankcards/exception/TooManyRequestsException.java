@@ -0,0 +1,10 @@
+package com.example.bankcards.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TooManyRequestsException extends BusinessException {
+
+    public TooManyRequestsException(String errorCode, String message) {
+        super(errorCode, message, HttpStatus.TOO_MANY_REQUESTS);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.bankcards.mapper;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.service.CardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CardMapper {
+
+    private final CardService cardService;
+
+    public CardDto convertToDto(Card card) {
+        return convertToDto(card, card.getOwner().getUsername());
+    }
+
+    // For callers that already know the owner's username, so the lazy owner is not loaded
+    public CardDto convertToDto(Card card, String ownerUsername) {
+        CardDto dto = new CardDto();
+        dto.setId(card.getId());
+        dto.setMaskedCardNumber(cardService.getMaskedCardNumber(card));
+        dto.setCardHolder(card.getCardHolder());
+        dto.setExpireDate(card.getExpireDate());
+        dto.setStatus(card.getStatus().name());
+        dto.setBalance(card.getBalance());
+        dto.setOwnerId(card.getOwner().getId());
+        dto.setOwnerUsername(ownerUsername);
+        return dto;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.bankcards.mapper;
+
+import com.example.bankcards.dto.DiscrepancyDto;
+import com.example.bankcards.dto.ReconciliationRunDto;
+import com.example.bankcards.entity.ReconciliationDiscrepancy;
+import com.example.bankcards.entity.ReconciliationRun;
+import com.example.bankcards.repository.ReconciliationJdbcRepository.RunProgress;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReconciliationMapper {
+
+    public ReconciliationRunDto convertToDto(ReconciliationRun run, RunProgress progress) {
+        ReconciliationRunDto dto = new ReconciliationRunDto();
+        dto.setId(run.getId());
+        dto.setStatus(run.getStatus().name());
+        dto.setMinCardId(run.getMinCardId());
+        dto.setMaxCardId(run.getMaxCardId());
+        dto.setRangeSize(run.getRangeSize());
+        dto.setTotalRanges(run.getTotalRanges());
+        dto.setCompletedRanges(progress.completedRanges());
+        dto.setCardsChecked(progress.cardsChecked());
+        dto.setDiscrepancies(progress.discrepancies());
+        dto.setStartedAt(run.getStartedAt());
+        dto.setHeartbeatAt(run.getHeartbeatAt());
+        dto.setFinishedAt(run.getFinishedAt());
+        dto.setLastError(run.getLastError());
+        return dto;
+    }
+
+    public DiscrepancyDto convertToDto(ReconciliationDiscrepancy discrepancy) {
+        DiscrepancyDto dto = new DiscrepancyDto();
+        dto.setCardId(discrepancy.getCardId());
+        dto.setStoredBalance(discrepancy.getStoredBalance());
+        dto.setExpectedBalance(discrepancy.getExpectedBalance());
+        dto.setDifference(discrepancy.getDifference());
+        dto.setDetectedAt(discrepancy.getDetectedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bankcards.mapper;
+
+import com.example.bankcards.dto.StandingOrderDto;
+import com.example.bankcards.entity.StandingOrder;
+import com.example.bankcards.service.CardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class StandingOrderMapper {
+
+    private final CardService cardService;
+
+    public StandingOrderDto convertToDto(StandingOrder order) {
+        StandingOrderDto dto = new StandingOrderDto();
+        dto.setId(order.getId());
+        dto.setFromCardMasked(cardService.getMaskedCardNumber(order.getFromCard()));
+        dto.setToCardMasked(cardService.getMaskedCardNumber(order.getToCard()));
+        dto.setAmount(order.getAmount());
+        dto.setDescription(order.getDescription());
+        dto.setFrequency(order.getFrequency().name());
+        dto.setStartAt(order.getStartAt());
+        dto.setEndDate(order.getEndDate());
+        dto.setNextRunAt(order.getNextRunAt());
+        dto.setStatus(order.getStatus().name());
+        dto.setConsecutiveFailures(order.getConsecutiveFailures());
+        dto.setLastRunAt(order.getLastRunAt());
+        dto.setLastError(order.getLastError());
+        dto.setCreatedAt(order.getCreatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.mapper;
+
+import com.example.bankcards.dto.StatementRunDto;
+import com.example.bankcards.entity.StatementRun;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+@Component
+public class StatementMapper {
+
+    public StatementRunDto convertToDto(StatementRun run, long usersProcessed) {
+        StatementRunDto dto = new StatementRunDto();
+        dto.setId(run.getId());
+        dto.setPeriod(YearMonth.from(run.getPeriod()).toString());
+        dto.setStatus(run.getStatus().name());
+        dto.setFormat(run.getFormat().name());
+        dto.setOutputDir(run.getOutputDir());
+        dto.setUsersProcessed(usersProcessed);
+        dto.setStartedAt(run.getStartedAt());
+        dto.setHeartbeatAt(run.getHeartbeatAt());
+        dto.setFinishedAt(run.getFinishedAt());
+        dto.setLastError(run.getLastError());
+        return dto;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.bankcards.mapper;
+
+import com.example.bankcards.dto.TransactionDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.service.CardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TransactionMapper {
+
+    private final CardService cardService;
+
+    public TransactionDto convertToDto(Transaction transaction) {
+        TransactionDto dto = new TransactionDto();
+        dto.setId(transaction.getId());
+        dto.setFromCardMasked(maskedNumber(transaction.getFromCard()));
+        dto.setToCardMasked(maskedNumber(transaction.getToCard()));
+        dto.setAmount(transaction.getAmount());
+        dto.setTransactionDate(transaction.getTransactionDate());
+        dto.setStatus(transaction.getStatus().name());
+        dto.setDescription(transaction.getDescription());
+        return dto;
+    }
+
+    // An archived transaction may outlive one of its cards
+    private String maskedNumber(Card card) {
+        return card != null ? cardService.getMaskedCardNumber(card) : null;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.repository.UserCardSummaryJdbcRepository.SummaryDelta;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Set-based admin operations on cards. The business rules of CardService are repeated as SQL conditions,
+// so cards that break them are skipped by the statement instead of failing it.
+// Every changed row gets a new version, so a concurrent JPA update of the same card retries on fresh data.
+@Repository
+public class CardBulkJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserCardSummaryJdbcRepository summaryRepository;
+
+    public CardBulkJdbcRepository(DataSource dataSource, UserCardSummaryJdbcRepository summaryRepository) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.summaryRepository = summaryRepository;
+    }
+
+    public long count(CardSelection selection) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM cards WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        appendSelection(sql, args, selection);
+        Long count = jdbcTemplate.queryForObject(sql.toString(), Long.class, args.toArray());
+        return count != null ? count : 0;
+    }
+
+    // Applies the operation to the next chunk of eligible cards after afterId, in id order.
+    // One SELECT of the chunk's ids and one UPDATE/DELETE by id list, in a single short transaction.
+    // The SELECT locks the chunk, so the change hits exactly the selected cards and their owners'
+    // summaries can be adjusted from what was read.
+    @Transactional
+    public ChunkResult applyChunk(CardSelection selection, Operation operation, LocalDate today, long afterId, int limit) {
+        StringBuilder select = new StringBuilder("SELECT id, owner_id, status, balance FROM cards WHERE id > ?");
+        List<Object> selectArgs = new ArrayList<>(List.of(afterId));
+        appendSelection(select, selectArgs, selection);
+        appendRule(select, selectArgs, operation, today);
+        select.append(" ORDER BY id LIMIT ? FOR UPDATE");
+        selectArgs.add(limit);
+        List<CardRef> cards = jdbcTemplate.query(select.toString(),
+                (rs, rowNum) -> new CardRef(rs.getLong(1), rs.getLong(2),
+                        Card.CardStatus.valueOf(rs.getString(3)), rs.getBigDecimal(4)), selectArgs.toArray());
+        if (cards.isEmpty()) {
+            return new ChunkResult(cards, 0);
+        }
+
+        StringBuilder change = new StringBuilder(switch (operation) {
+            case BLOCK -> "UPDATE cards SET status = 'BLOCKED', version = version + 1, updated_at = CURRENT_TIMESTAMP";
+            case ACTIVATE -> "UPDATE cards SET status = 'ACTIVE', version = version + 1, updated_at = CURRENT_TIMESTAMP";
+            case DELETE -> "DELETE FROM cards";
+        });
+        change.append(" WHERE id IN (").append(String.join(", ", Collections.nCopies(cards.size(), "?"))).append(")");
+        List<Object> changeArgs = new ArrayList<>();
+        cards.forEach(card -> changeArgs.add(card.id()));
+        // Re-checked here: a card may have changed since the SELECT
+        appendRule(change, changeArgs, operation, today);
+        int affected = jdbcTemplate.update(change.toString(), changeArgs.toArray());
+        if (affected != cards.size()) {
+            // Cannot happen while the rows are locked; rolled back rather than leaving the summaries wrong
+            throw new ConcurrencyFailureException("Cards of the chunk changed while locked");
+        }
+        applySummaryDeltas(cards, operation);
+        return new ChunkResult(cards, affected);
+    }
+
+    private void applySummaryDeltas(List<CardRef> cards, Operation operation) {
+        // Owners in id order, so two chunks never lock the same summaries in opposite order
+        Map<Long, SummaryDelta> deltas = new TreeMap<>();
+        for (CardRef card : cards) {
+            SummaryDelta delta = switch (operation) {
+                case BLOCK -> SummaryDelta.statusChanged(card.status(), Card.CardStatus.BLOCKED);
+                case ACTIVATE -> SummaryDelta.statusChanged(card.status(), Card.CardStatus.ACTIVE);
+                case DELETE -> SummaryDelta.removed(card.status(), card.balance());
+            };
+            deltas.merge(card.ownerId(), delta, SummaryDelta::plus);
+        }
+        deltas.forEach(summaryRepository::applyDelta);
+    }
+
+    private static void appendSelection(StringBuilder sql, List<Object> args, CardSelection selection) {
+        if (selection.ownerId() != null) {
+            sql.append(" AND owner_id = ?");
+            args.add(selection.ownerId());
+        }
+        if (selection.cardIds() != null) {
+            sql.append(" AND id IN (").append(String.join(", ", Collections.nCopies(selection.cardIds().size(), "?")))
+                    .append(")");
+            args.addAll(selection.cardIds());
+        }
+        if (selection.status() != null) {
+            sql.append(" AND status = ?");
+            args.add(selection.status().name());
+        }
+        if (selection.expireBefore() != null) {
+            sql.append(" AND expire_date < ?");
+            args.add(Date.valueOf(selection.expireBefore()));
+        }
+    }
+
+    // Same rules as CardService: an expired card is neither blocked nor activated,
+    // and a card with money or with transaction history is not deleted
+    private static void appendRule(StringBuilder sql, List<Object> args, Operation operation, LocalDate today) {
+        switch (operation) {
+            case BLOCK -> sql.append(" AND status = 'ACTIVE'");
+            case ACTIVATE -> {
+                sql.append(" AND status <> 'ACTIVE' AND expire_date >= ?");
+                args.add(Date.valueOf(today));
+            }
+            case DELETE -> sql.append("""
+                     AND balance <= 0
+                     AND NOT EXISTS (SELECT 1 FROM transactions t WHERE t.from_card_id = cards.id)
+                     AND NOT EXISTS (SELECT 1 FROM transactions t WHERE t.to_card_id = cards.id)
+                     AND NOT EXISTS (SELECT 1 FROM archived_card_totals a WHERE a.card_id = cards.id)""");
+        }
+    }
+
+    public enum Operation {
+        BLOCK, ACTIVATE, DELETE
+    }
+
+    // cardIds, if set, must fit in one statement; callers split longer lists
+    public record CardSelection(Long ownerId, List<Long> cardIds, Card.CardStatus status, LocalDate expireBefore) {
+    }
+
+    public record CardRef(long id, long ownerId, Card.CardStatus status, BigDecimal balance) {
+    }
+
+    public record ChunkResult(List<CardRef> cards, int affected) {
+    }
+}
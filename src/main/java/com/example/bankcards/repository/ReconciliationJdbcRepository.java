@@ -0,0 +1,118 @@
+package com.example.bankcards.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Plain JDBC for the reconciliation job: streaming reads and batched writes that JPA would buffer in memory
+@Repository
+public class ReconciliationJdbcRepository {
+
+    // A single statement reads the balance and the flows from one snapshot,
+    // so transfers committing meanwhile never show up as discrepancies.
+    // Flows moved to the archive are counted from their per-card totals, committed with the deletion.
+    private static final String RANGE_BALANCES_SQL = """
+            SELECT c.id, c.balance,
+                   COALESCE((SELECT SUM(t.amount) FROM transactions t
+                             WHERE t.to_card_id = c.id AND t.status = 'COMPLETED'), 0)
+                 - COALESCE((SELECT SUM(t.amount) FROM transactions t
+                             WHERE t.from_card_id = c.id AND t.status = 'COMPLETED'), 0)
+                 + COALESCE((SELECT a.total_in - a.total_out FROM archived_card_totals a
+                             WHERE a.card_id = c.id), 0) AS expected_balance
+            FROM cards c
+            WHERE c.id >= ? AND c.id < ?
+            ORDER BY c.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReconciliationJdbcRepository(DataSource dataSource,
+                                        @Value("${app.reconciliation.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public Optional<CardIdBounds> findCardIdBounds() {
+        return jdbcTemplate.query("SELECT MIN(id), MAX(id) FROM cards", rs -> {
+            rs.next();
+            long min = rs.getLong(1);
+            return rs.wasNull() ? Optional.empty() : Optional.of(new CardIdBounds(min, rs.getLong(2)));
+        });
+    }
+
+    // Read-only transaction: the driver only streams with a fetch size when autocommit is off,
+    // and the routing data source sends it to the replica when one is configured
+    @Transactional(readOnly = true)
+    public void streamRangeBalances(long fromId, long toIdExclusive, Consumer<CardBalance> consumer) {
+        jdbcTemplate.query(RANGE_BALANCES_SQL, rs -> {
+            consumer.accept(new CardBalance(rs.getLong(1), rs.getBigDecimal(2), rs.getBigDecimal(3)));
+        }, fromId, toIdExclusive);
+    }
+
+    // Discrepancies and the checkpoint commit together, so a resumed run never reports a range twice
+    @Transactional
+    public void saveRangeResult(long runId, long rangeStart, long rangeEnd, int cardsChecked,
+                                List<CardBalance> discrepancies) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (!discrepancies.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO reconciliation_discrepancies
+                        (run_id, card_id, stored_balance, expected_balance, difference, detected_at)
+                    VALUES (?, ?, ?, ?, ?, ?)
+                    """, discrepancies, discrepancies.size(), (ps, balance) -> {
+                ps.setLong(1, runId);
+                ps.setLong(2, balance.cardId());
+                ps.setBigDecimal(3, balance.storedBalance());
+                ps.setBigDecimal(4, balance.expectedBalance());
+                ps.setBigDecimal(5, balance.difference());
+                ps.setTimestamp(6, now);
+            });
+        }
+        jdbcTemplate.update("""
+                INSERT INTO reconciliation_checkpoints
+                    (run_id, range_start, range_end, cards_checked, discrepancies, completed_at)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """, runId, rangeStart, rangeEnd, cardsChecked, discrepancies.size(), now);
+        jdbcTemplate.update("UPDATE reconciliation_runs SET heartbeat_at = ? WHERE id = ?", now, runId);
+    }
+
+    public Set<Long> findCompletedRangeStarts(long runId) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT range_start FROM reconciliation_checkpoints WHERE run_id = ?", Long.class, runId));
+    }
+
+    public RunProgress getProgress(long runId) {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*), COALESCE(SUM(cards_checked), 0), COALESCE(SUM(discrepancies), 0)
+                FROM reconciliation_checkpoints WHERE run_id = ?
+                """, (rs, rowNum) -> new RunProgress(rs.getInt(1), rs.getLong(2), rs.getLong(3)), runId);
+    }
+
+    public record CardIdBounds(long min, long max) {
+    }
+
+    public record CardBalance(long cardId, BigDecimal storedBalance, BigDecimal expectedBalance) {
+
+        public boolean isConsistent() {
+            return storedBalance.compareTo(expectedBalance) == 0;
+        }
+
+        public BigDecimal difference() {
+            return storedBalance.subtract(expectedBalance);
+        }
+    }
+
+    public record RunProgress(int completedRanges, long cardsChecked, long discrepancies) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.ReconciliationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+    boolean existsByStatusAndHeartbeatAtAfter(ReconciliationRun.RunStatus status, LocalDateTime heartbeatAfter);
+}
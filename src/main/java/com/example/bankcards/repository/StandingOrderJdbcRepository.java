@@ -0,0 +1,58 @@
+package com.example.bankcards.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Claiming for the standing order engine; the CRUD side goes through StandingOrderRepository
+@Repository
+public class StandingOrderJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StandingOrderJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // Takes the earliest unclaimed orders due before dueBefore and leases them to the caller.
+    // SKIP LOCKED lets several instances claim disjoint batches at the same time instead of queueing on row locks.
+    @Transactional
+    public List<DueOrder> claimDue(LocalDateTime dueBefore, LocalDateTime now, Duration lease, int limit) {
+        List<DueOrder> orders = jdbcTemplate.query("""
+                SELECT id, next_run_at FROM standing_orders
+                WHERE status = 'ACTIVE' AND next_run_at <= ?
+                  AND (claimed_until IS NULL OR claimed_until < ?)
+                ORDER BY next_run_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """, (rs, rowNum) -> new DueOrder(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()),
+                Timestamp.valueOf(dueBefore), Timestamp.valueOf(now), limit);
+
+        // The lease outlives the due time, so a crashed instance's orders are picked up again after it expires
+        jdbcTemplate.batchUpdate("UPDATE standing_orders SET claimed_until = ? WHERE id = ?", orders, orders.size(),
+                (ps, order) -> {
+                    LocalDateTime from = order.runAt().isAfter(now) ? order.runAt() : now;
+                    ps.setTimestamp(1, Timestamp.valueOf(from.plus(lease)));
+                    ps.setLong(2, order.id());
+                });
+        return orders;
+    }
+
+    // Hands orders back before their lease expires, e.g. on shutdown
+    public void releaseClaims(List<DueOrder> orders) {
+        jdbcTemplate.batchUpdate("UPDATE standing_orders SET claimed_until = NULL WHERE id = ? AND next_run_at = ?",
+                orders, orders.size(), (ps, order) -> {
+                    ps.setLong(1, order.id());
+                    ps.setTimestamp(2, Timestamp.valueOf(order.runAt()));
+                });
+    }
+
+    public record DueOrder(long id, LocalDateTime runAt) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.StandingOrder;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StandingOrderRepository extends JpaRepository<StandingOrder, Long> {
+
+    Page<StandingOrder> findByOwnerIdOrderById(Long ownerId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM StandingOrder o WHERE o.id = :id")
+    Optional<StandingOrder> findByIdForUpdate(@Param("id") Long id);
+}
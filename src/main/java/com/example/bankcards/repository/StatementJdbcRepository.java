@@ -0,0 +1,111 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Statement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Plain JDBC for the statement batch: keyset-paged users and one streamed query per chunk of users
+@Repository
+public class StatementJdbcRepository {
+
+    // Two index-friendly joins instead of an OR; a transfer between own cards shows up on both cards
+    private static final String CHUNK_TRANSACTIONS_SQL = """
+            SELECT c.owner_id, c.id AS card_id, t.id AS transaction_id, t.transaction_date,
+                   'OUT' AS direction, t.amount, t.description
+            FROM cards c JOIN transactions t ON t.from_card_id = c.id
+            WHERE c.owner_id BETWEEN ? AND ? AND t.status = 'COMPLETED'
+              AND t.transaction_date >= ? AND t.transaction_date < ?
+            UNION ALL
+            SELECT c.owner_id, c.id AS card_id, t.id AS transaction_id, t.transaction_date,
+                   'IN' AS direction, t.amount, t.description
+            FROM cards c JOIN transactions t ON t.to_card_id = c.id
+            WHERE c.owner_id BETWEEN ? AND ? AND t.status = 'COMPLETED'
+              AND t.transaction_date >= ? AND t.transaction_date < ?
+            ORDER BY owner_id, card_id, transaction_date, transaction_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StatementJdbcRepository(DataSource dataSource,
+                                   @Value("${app.statements.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public List<Long> findUserIdsAfter(long afterUserId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                Long.class, afterUserId, limit);
+    }
+
+    // Cards of users in the range that have no statement for the period yet, i.e. still to do after a restart
+    public List<CardRow> findPendingCards(long fromUserId, long toUserId, LocalDate period) {
+        return jdbcTemplate.query("""
+                SELECT c.id, c.owner_id, c.card_number_encrypted
+                FROM cards c
+                WHERE c.owner_id BETWEEN ? AND ?
+                  AND NOT EXISTS (SELECT 1 FROM statements s WHERE s.user_id = c.owner_id AND s.period = ?)
+                ORDER BY c.owner_id, c.id
+                """, (rs, rowNum) -> new CardRow(rs.getLong(1), rs.getLong(2), rs.getString(3)),
+                fromUserId, toUserId, Date.valueOf(period));
+    }
+
+    // Read-only transaction so the driver streams with the fetch size (and the replica serves it if configured)
+    @Transactional(readOnly = true)
+    public void streamTransactions(long fromUserId, long toUserId, LocalDateTime from, LocalDateTime to,
+                                   Consumer<StatementLine> consumer) {
+        Timestamp fromTs = Timestamp.valueOf(from);
+        Timestamp toTs = Timestamp.valueOf(to);
+        jdbcTemplate.query(CHUNK_TRANSACTIONS_SQL, rs -> {
+            consumer.accept(new StatementLine(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                    rs.getTimestamp(4).toLocalDateTime(), "IN".equals(rs.getString(5)),
+                    rs.getBigDecimal(6), rs.getString(7)));
+        }, fromUserId, toUserId, fromTs, toTs, fromUserId, toUserId, fromTs, toTs);
+    }
+
+    @Transactional
+    public void saveStatements(long runId, List<Statement> statements) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO statements (run_id, user_id, period, card_count, transaction_count,
+                                        total_in, total_out, file_path, generated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, statements, statements.size(), (ps, statement) -> {
+            ps.setLong(1, runId);
+            ps.setLong(2, statement.getUserId());
+            ps.setDate(3, Date.valueOf(statement.getPeriod()));
+            ps.setInt(4, statement.getCardCount());
+            ps.setInt(5, statement.getTransactionCount());
+            ps.setBigDecimal(6, statement.getTotalIn());
+            ps.setBigDecimal(7, statement.getTotalOut());
+            ps.setString(8, statement.getFilePath());
+            ps.setTimestamp(9, now);
+        });
+    }
+
+    public void touchRun(long runId) {
+        jdbcTemplate.update("UPDATE statement_runs SET heartbeat_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now()), runId);
+    }
+
+    public long countStatements(long runId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM statements WHERE run_id = ?", Long.class, runId);
+    }
+
+    public record CardRow(long cardId, long ownerId, String cardNumberEncrypted) {
+    }
+
+    public record StatementLine(long ownerId, long cardId, long transactionId, LocalDateTime date,
+                                boolean incoming, BigDecimal amount, String description) {
+    }
+}
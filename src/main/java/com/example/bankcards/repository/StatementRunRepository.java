@@ -0,0 +1,13 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.StatementRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface StatementRunRepository extends JpaRepository<StatementRun, Long> {
+    Optional<StatementRun> findByPeriod(LocalDate period);
+}
@@ -0,0 +1,132 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.TransactionArchiveSegment;
+import com.example.bankcards.repository.TransactionSegmentFile.ArchivedTransaction;
+import com.example.bankcards.repository.TransactionSegmentFile.Summary;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Plain JDBC for the archival job: reads the oldest transactions and retires them in one transaction per segment
+@Repository
+public class TransactionArchiveJdbcRepository {
+
+    private static final int DELETE_CHUNK = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionArchiveSegmentRepository segmentRepository;
+
+    public TransactionArchiveJdbcRepository(DataSource dataSource,
+                                            TransactionArchiveSegmentRepository segmentRepository) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.segmentRepository = segmentRepository;
+    }
+
+    // Archived rows are deleted, so every call returns the next oldest batch
+    public List<ArchivedTransaction> findOldest(LocalDateTime before, int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, from_card_id, to_card_id, amount, transaction_date, status, description
+                FROM transactions
+                WHERE transaction_date < ?
+                ORDER BY id
+                LIMIT ?
+                """, (rs, rowNum) -> new ArchivedTransaction(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                rs.getBigDecimal(4), rs.getTimestamp(5).toLocalDateTime(), rs.getString(6), rs.getString(7)),
+                Timestamp.valueOf(before), limit);
+    }
+
+    // Cheap enough to ask on every archive read: a new segment means the node's catalog is stale
+    public long findLatestSegmentId() {
+        Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM transaction_archive_segments", Long.class);
+        return id != null ? id : 0;
+    }
+
+    // The catalog row, the per-card totals and the deletion commit together: until then the rows
+    // are still served from the table and the file is ignored
+    @Transactional
+    public TransactionArchiveSegment commitSegment(String fileName, Summary summary,
+                                                   List<ArchivedTransaction> transactions) {
+        TransactionArchiveSegment segment = new TransactionArchiveSegment(null, fileName, summary.transactionCount(),
+                summary.minTransactionId(), summary.maxTransactionId(), summary.minDate(), summary.maxDate(),
+                summary.sizeBytes(), LocalDateTime.now());
+        segment = segmentRepository.saveAndFlush(segment);
+
+        addCardTotals(transactions);
+
+        int deleted = 0;
+        for (int start = 0; start < transactions.size(); start += DELETE_CHUNK) {
+            List<ArchivedTransaction> chunk = transactions.subList(start, Math.min(transactions.size(), start + DELETE_CHUNK));
+            List<Object> ids = new ArrayList<>(chunk.size());
+            chunk.forEach(transaction -> ids.add(transaction.id()));
+            deleted += jdbcTemplate.update("DELETE FROM transactions WHERE id IN ("
+                    + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")", ids.toArray());
+        }
+        if (deleted != transactions.size()) {
+            // Another node archived some of these rows meanwhile; its segment has them
+            throw new ConcurrencyFailureException("Transactions of segment " + fileName + " were already archived");
+        }
+        return segment;
+    }
+
+    // Every card with archived history gets a row; only completed transactions moved money,
+    // the same rule as the reconciliation
+    private void addCardTotals(List<ArchivedTransaction> transactions) {
+        Map<Long, CardTotal> totals = new LinkedHashMap<>();
+        for (ArchivedTransaction transaction : transactions) {
+            BigDecimal amount = "COMPLETED".equals(transaction.status()) ? transaction.amount() : BigDecimal.ZERO;
+            totals.computeIfAbsent(transaction.fromCardId(), id -> new CardTotal()).add(BigDecimal.ZERO, amount);
+            totals.computeIfAbsent(transaction.toCardId(), id -> new CardTotal()).add(amount, BigDecimal.ZERO);
+        }
+        List<Map.Entry<Long, CardTotal>> entries = new ArrayList<>(totals.entrySet());
+        int[][] updated = jdbcTemplate.batchUpdate("""
+                UPDATE archived_card_totals
+                SET total_in = total_in + ?, total_out = total_out + ?, transaction_count = transaction_count + ?
+                WHERE card_id = ?
+                """, entries, entries.size(), (ps, entry) -> {
+            ps.setBigDecimal(1, entry.getValue().totalIn);
+            ps.setBigDecimal(2, entry.getValue().totalOut);
+            ps.setLong(3, entry.getValue().count);
+            ps.setLong(4, entry.getKey());
+        });
+        List<Map.Entry<Long, CardTotal>> missing = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (updated[0][i] == 0) {
+                missing.add(entries.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO archived_card_totals (card_id, total_in, total_out, transaction_count)
+                    VALUES (?, ?, ?, ?)
+                    """, missing, missing.size(), (ps, entry) -> {
+                ps.setLong(1, entry.getKey());
+                ps.setBigDecimal(2, entry.getValue().totalIn);
+                ps.setBigDecimal(3, entry.getValue().totalOut);
+                ps.setLong(4, entry.getValue().count);
+            });
+        }
+    }
+
+    private static class CardTotal {
+        BigDecimal totalIn = BigDecimal.ZERO;
+        BigDecimal totalOut = BigDecimal.ZERO;
+        long count;
+
+        void add(BigDecimal in, BigDecimal out) {
+            totalIn = totalIn.add(in);
+            totalOut = totalOut.add(out);
+            count++;
+        }
+    }
+}
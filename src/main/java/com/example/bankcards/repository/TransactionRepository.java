@@ -2,11 +2,23 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     List<Transaction> findByFromCardIdOrToCardId(Long fromCardId, Long toCardId);
+
+    @Query("""
+            SELECT t FROM Transaction t
+            WHERE (t.fromCard.id = :cardId OR t.toCard.id = :cardId)
+              AND t.transactionDate >= :from AND t.transactionDate < :to
+            """)
+    List<Transaction> findByCardIdAndDateRange(@Param("cardId") Long cardId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,515 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Transaction.TransactionStatus;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Immutable archive file of old transactions.
+// - Each transaction is stored once per card (outgoing for the sender, incoming for the receiver),
+//   sorted by card id, date and transaction id, so one card's history is a contiguous run of rows.
+// - Rows are grouped into blocks of block-rows; inside a block each field is a column of delta/zigzag
+//   varints and the block is Deflate-compressed.
+// - The footer is a sparse index with the first and last (card id, date) key of every block. A lookup
+//   binary-searches it and inflates only the blocks whose key range overlaps the request.
+// - The footer also lists the segment's distinct card ids, so a card that is not in the segment
+//   costs a binary search over the mapped file and no block is inflated.
+// - An id directory (transaction id -> block of its outgoing row, sorted by id) lets a lookup by id
+//   binary-search the mapped file and inflate exactly one block.
+// Readers map the file read-only, so the OS page cache keeps the hot parts and nothing is copied to the heap
+// except the blocks being decoded.
+// reactive-read keeps a copy of this class to serve the archive, so a format change has to be made in both.
+public final class TransactionSegmentFile {
+
+    private static final int MAGIC = 0x42545853; // "BTXS"
+    private static final int FORMAT_VERSION = 2;
+    private static final int TRAILER_BYTES = Long.BYTES + Integer.BYTES;
+    private static final int BLOCK_INDEX_BYTES = 4 * Long.BYTES + Long.BYTES + 3 * Integer.BYTES;
+    private static final int ID_ENTRY_BYTES = Long.BYTES + Integer.BYTES;
+    private static final int AMOUNT_SCALE = 2;
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+    private static final Comparator<Row> ROW_ORDER = Comparator.comparingLong(Row::cardId)
+            .thenComparingLong(Row::micros)
+            .thenComparingLong(row -> row.transaction().id());
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final BlockIndex[] blocks;
+    private final int cardIdsOffset;
+    private final int cardCount;
+    private final int idsOffset;
+    private final int idCount;
+    private final Summary summary;
+
+    private TransactionSegmentFile(Path path, MappedByteBuffer buffer, BlockIndex[] blocks,
+                                   int cardIdsOffset, int cardCount, int idsOffset, int idCount, Summary summary) {
+        this.path = path;
+        this.buffer = buffer;
+        this.blocks = blocks;
+        this.cardIdsOffset = cardIdsOffset;
+        this.cardCount = cardCount;
+        this.idsOffset = idsOffset;
+        this.idCount = idCount;
+        this.summary = summary;
+    }
+
+    // Written under a temporary name, forced to disk and renamed, so a crash never leaves a partial segment
+    public static Summary write(Path target, List<ArchivedTransaction> transactions, int blockRows) {
+        if (transactions.isEmpty()) {
+            throw new IllegalArgumentException("A segment needs at least one transaction");
+        }
+        List<Row> rows = new ArrayList<>(transactions.size() * 2);
+        long minId = Long.MAX_VALUE, maxId = Long.MIN_VALUE, minMicros = Long.MAX_VALUE, maxMicros = Long.MIN_VALUE;
+        for (ArchivedTransaction transaction : transactions) {
+            long micros = toMicros(transaction.transactionDate());
+            rows.add(new Row(transaction.fromCardId(), micros, true, transaction));
+            rows.add(new Row(transaction.toCardId(), micros, false, transaction));
+            minId = Math.min(minId, transaction.id());
+            maxId = Math.max(maxId, transaction.id());
+            minMicros = Math.min(minMicros, micros);
+            maxMicros = Math.max(maxMicros, micros);
+        }
+        rows.sort(ROW_ORDER);
+
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                 DataOutputStream out = new DataOutputStream(
+                         new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                long offset = 2 * Integer.BYTES;
+
+                int step = Math.max(1, blockRows);
+                List<BlockIndex> index = new ArrayList<>();
+                List<IdEntry> ids = new ArrayList<>(transactions.size());
+                Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+                try {
+                    for (int start = 0; start < rows.size(); start += step) {
+                        List<Row> block = rows.subList(start, Math.min(rows.size(), start + step));
+                        byte[] raw = encodeBlock(block);
+                        byte[] compressed = deflate(deflater, raw);
+                        out.write(compressed);
+                        for (Row row : block) {
+                            if (row.outgoing()) {
+                                ids.add(new IdEntry(row.transaction().id(), index.size()));
+                            }
+                        }
+                        Row first = block.get(0);
+                        Row last = block.get(block.size() - 1);
+                        index.add(new BlockIndex(first.cardId(), first.micros(), last.cardId(), last.micros(),
+                                offset, compressed.length, raw.length, block.size()));
+                        offset += compressed.length;
+                    }
+                } finally {
+                    deflater.end();
+                }
+
+                long footerOffset = offset;
+                out.writeInt(index.size());
+                for (BlockIndex block : index) {
+                    out.writeLong(block.firstCardId());
+                    out.writeLong(block.firstMicros());
+                    out.writeLong(block.lastCardId());
+                    out.writeLong(block.lastMicros());
+                    out.writeLong(block.offset());
+                    out.writeInt(block.compressedLength());
+                    out.writeInt(block.rawLength());
+                    out.writeInt(block.rows());
+                }
+                long[] cardIds = rows.stream().mapToLong(Row::cardId).distinct().toArray();
+                out.writeInt(cardIds.length);
+                for (long cardId : cardIds) {
+                    out.writeLong(cardId);
+                }
+                ids.sort(Comparator.comparingLong(IdEntry::id));
+                out.writeInt(ids.size());
+                for (IdEntry entry : ids) {
+                    out.writeLong(entry.id());
+                    out.writeInt(entry.block());
+                }
+                out.writeInt(transactions.size());
+                out.writeLong(minId);
+                out.writeLong(maxId);
+                out.writeLong(minMicros);
+                out.writeLong(maxMicros);
+                out.writeLong(footerOffset);
+                out.writeInt(MAGIC);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return new Summary(transactions.size(), minId, maxId, fromMicros(minMicros), fromMicros(maxMicros),
+                    Files.size(target));
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // The temporary file is only garbage, the next run writes a new one
+            }
+            throw new UncheckedIOException("Could not write archive segment " + target, e);
+        }
+    }
+
+    public static TransactionSegmentFile open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 2 * Integer.BYTES + TRAILER_BYTES) {
+                throw new IOException("File too short");
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(size(size) - Integer.BYTES) != MAGIC) {
+                throw new IOException("Not a transaction segment");
+            }
+            if (buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+                throw new IOException("Unsupported segment version " + buffer.getInt(Integer.BYTES));
+            }
+            ByteBuffer footer = buffer.duplicate();
+            footer.position(size(buffer.getLong(size(size) - TRAILER_BYTES)));
+
+            int blockCount = footer.getInt();
+            if (blockCount < 0 || (long) blockCount * BLOCK_INDEX_BYTES > footer.remaining()) {
+                throw new IOException("Corrupt segment index");
+            }
+            BlockIndex[] blocks = new BlockIndex[blockCount];
+            for (int i = 0; i < blockCount; i++) {
+                blocks[i] = new BlockIndex(footer.getLong(), footer.getLong(), footer.getLong(), footer.getLong(),
+                        footer.getLong(), footer.getInt(), footer.getInt(), footer.getInt());
+            }
+            int cardCount = footer.getInt();
+            if (cardCount < 0 || (long) cardCount * Long.BYTES > footer.remaining()) {
+                throw new IOException("Corrupt segment card directory");
+            }
+            int cardIdsOffset = footer.position();
+            footer.position(cardIdsOffset + cardCount * Long.BYTES);
+            int idCount = footer.getInt();
+            if (idCount < 0 || (long) idCount * ID_ENTRY_BYTES > footer.remaining()) {
+                throw new IOException("Corrupt segment id directory");
+            }
+            int idsOffset = footer.position();
+            footer.position(idsOffset + idCount * ID_ENTRY_BYTES);
+            int transactionCount = footer.getInt();
+            Summary summary = new Summary(transactionCount, footer.getLong(), footer.getLong(),
+                    fromMicros(footer.getLong()), fromMicros(footer.getLong()), size);
+            return new TransactionSegmentFile(path, buffer, blocks, cardIdsOffset, cardCount, idsOffset, idCount,
+                    summary);
+        } catch (IOException | RuntimeException e) {
+            throw new UncheckedIOException(new IOException("Could not open archive segment " + path, e));
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public Summary summary() {
+        return summary;
+    }
+
+    // One card's transactions with from <= date < to, oldest first
+    public List<ArchivedTransaction> findByCard(long cardId, LocalDateTime from, LocalDateTime to) {
+        long fromMicros = from != null ? toMicros(from) : Long.MIN_VALUE;
+        long toMicros = to != null ? toMicros(to) : Long.MAX_VALUE;
+        List<ArchivedTransaction> result = new ArrayList<>();
+        if (fromMicros >= toMicros || !containsCard(cardId)) {
+            return result;
+        }
+        for (int i = firstBlockEndingAtOrAfter(cardId, fromMicros); i < blocks.length; i++) {
+            BlockIndex block = blocks[i];
+            if (compare(block.firstCardId(), block.firstMicros(), cardId, toMicros) >= 0) {
+                break;
+            }
+            for (Row row : decodeBlock(block)) {
+                if (row.cardId() == cardId && row.micros() >= fromMicros && row.micros() < toMicros) {
+                    result.add(row.transaction());
+                }
+            }
+        }
+        return result;
+    }
+
+    // Binary search over the id directory, then at most one block is inflated
+    public Optional<ArchivedTransaction> findById(long id) {
+        if (id < summary.minTransactionId() || id > summary.maxTransactionId()) {
+            return Optional.empty();
+        }
+        int low = 0;
+        int high = idCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int position = idsOffset + mid * ID_ENTRY_BYTES;
+            long value = buffer.getLong(position);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                int block = buffer.getInt(position + Long.BYTES);
+                if (block < 0 || block >= blocks.length) {
+                    throw new IllegalStateException("Corrupt id directory in archive segment " + path);
+                }
+                for (Row row : decodeBlock(blocks[block])) {
+                    if (row.outgoing() && row.transaction().id() == id) {
+                        return Optional.of(row.transaction());
+                    }
+                }
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean containsCard(long cardId) {
+        int low = 0;
+        int high = cardCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = buffer.getLong(cardIdsOffset + mid * Long.BYTES);
+            if (value < cardId) {
+                low = mid + 1;
+            } else if (value > cardId) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int firstBlockEndingAtOrAfter(long cardId, long micros) {
+        int low = 0;
+        int high = blocks.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(blocks[mid].lastCardId(), blocks[mid].lastMicros(), cardId, micros) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(long cardId, long micros, long otherCardId, long otherMicros) {
+        int byCard = Long.compare(cardId, otherCardId);
+        return byCard != 0 ? byCard : Long.compare(micros, otherMicros);
+    }
+
+    // Columns: card id (delta), date (zigzag delta), transaction id (zigzag delta), counterpart card,
+    // flags (direction and status), amount in cents (zigzag) and description (length + 1, 0 for null)
+    private static byte[] encodeBlock(List<Row> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(rows.size() * 24);
+        writeVarLong(out, rows.size());
+        long previous = 0;
+        for (Row row : rows) {
+            writeVarLong(out, row.cardId() - previous);
+            previous = row.cardId();
+        }
+        previous = 0;
+        for (Row row : rows) {
+            writeVarLong(out, zigzag(row.micros() - previous));
+            previous = row.micros();
+        }
+        previous = 0;
+        for (Row row : rows) {
+            writeVarLong(out, zigzag(row.transaction().id() - previous));
+            previous = row.transaction().id();
+        }
+        for (Row row : rows) {
+            writeVarLong(out, row.outgoing() ? row.transaction().toCardId() : row.transaction().fromCardId());
+        }
+        for (Row row : rows) {
+            int status = TransactionStatus.valueOf(row.transaction().status()).ordinal();
+            out.write((status << 1) | (row.outgoing() ? 1 : 0));
+        }
+        for (Row row : rows) {
+            writeVarLong(out, zigzag(row.transaction().amount().setScale(AMOUNT_SCALE).unscaledValue().longValueExact()));
+        }
+        for (Row row : rows) {
+            String description = row.transaction().description();
+            if (description == null) {
+                writeVarLong(out, 0);
+                continue;
+            }
+            byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, bytes.length + 1L);
+            out.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private List<Row> decodeBlock(BlockIndex block) {
+        ByteBuffer in = ByteBuffer.wrap(inflate(block));
+        int count = (int) readVarLong(in);
+        long[] cardIds = new long[count];
+        long[] micros = new long[count];
+        long[] ids = new long[count];
+        long[] counterparts = new long[count];
+        int[] flags = new int[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += readVarLong(in);
+            cardIds[i] = previous;
+        }
+        previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += unzigzag(readVarLong(in));
+            micros[i] = previous;
+        }
+        previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += unzigzag(readVarLong(in));
+            ids[i] = previous;
+        }
+        for (int i = 0; i < count; i++) {
+            counterparts[i] = readVarLong(in);
+        }
+        for (int i = 0; i < count; i++) {
+            flags[i] = in.get() & 0xFF;
+        }
+        List<Row> rows = new ArrayList<>(count);
+        BigDecimal[] amounts = new BigDecimal[count];
+        for (int i = 0; i < count; i++) {
+            amounts[i] = BigDecimal.valueOf(unzigzag(readVarLong(in)), AMOUNT_SCALE);
+        }
+        for (int i = 0; i < count; i++) {
+            int length = (int) readVarLong(in);
+            String description = null;
+            if (length > 0) {
+                byte[] bytes = new byte[length - 1];
+                in.get(bytes);
+                description = new String(bytes, StandardCharsets.UTF_8);
+            }
+            boolean outgoing = (flags[i] & 1) != 0;
+            ArchivedTransaction transaction = new ArchivedTransaction(ids[i],
+                    outgoing ? cardIds[i] : counterparts[i],
+                    outgoing ? counterparts[i] : cardIds[i],
+                    amounts[i], fromMicros(micros[i]), STATUSES[flags[i] >>> 1].name(), description);
+            rows.add(new Row(cardIds[i], micros[i], outgoing, transaction));
+        }
+        return rows;
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        return out.toByteArray();
+    }
+
+    // Inflates straight from the mapped region
+    private byte[] inflate(BlockIndex block) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice(size(block.offset()), block.compressedLength()));
+            byte[] raw = new byte[block.rawLength()];
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, raw.length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != raw.length) {
+                throw new IllegalStateException("Truncated block in archive segment " + path);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt block in archive segment " + path, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    // A single mapping is limited to 2 GB; segments are far smaller
+    private static int size(long value) {
+        return Math.toIntExact(value);
+    }
+
+    public record ArchivedTransaction(long id, long fromCardId, long toCardId, BigDecimal amount,
+                                      LocalDateTime transactionDate, String status, String description) {
+    }
+
+    public record Summary(int transactionCount, long minTransactionId, long maxTransactionId,
+                          LocalDateTime minDate, LocalDateTime maxDate, long sizeBytes) {
+    }
+
+    private record Row(long cardId, long micros, boolean outgoing, ArchivedTransaction transaction) {
+    }
+
+    private record IdEntry(long id, int block) {
+    }
+
+    private record BlockIndex(long firstCardId, long firstMicros, long lastCardId, long lastMicros,
+                              long offset, int compressedLength, int rawLength, int rows) {
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Writes of the user_card_summary read model.
+// Changes are applied as deltas (count = count + ?), which commute, so concurrent card changes of one
+// user all land whatever order they commit in. Callers apply them after the card rows are written, so
+// every writer locks the card before the summary row.
+@Repository
+public class UserCardSummaryJdbcRepository {
+
+    private static final String APPLY_DELTA_SQL = """
+            UPDATE user_card_summary
+            SET card_count = card_count + ?, active_count = active_count + ?, blocked_count = blocked_count + ?,
+                expired_count = expired_count + ?, total_balance = total_balance + ?, updated_at = ?
+            WHERE user_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserCardSummaryJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // Joins the caller's transaction
+    public void applyDelta(long userId, SummaryDelta delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (update(userId, delta, now) > 0) {
+            return;
+        }
+        // First change of a user without a row: the user row lock makes concurrent first changes
+        // take turns, so only one of them inserts
+        jdbcTemplate.queryForList("SELECT id FROM users WHERE id = ? FOR UPDATE", Long.class, userId);
+        jdbcTemplate.update("""
+                INSERT INTO user_card_summary
+                    (user_id, card_count, active_count, blocked_count, expired_count, total_balance, updated_at)
+                SELECT ?, 0, 0, 0, 0, 0, ? FROM users
+                WHERE id = ? AND NOT EXISTS (SELECT 1 FROM user_card_summary WHERE user_id = ?)
+                """, userId, now, userId, userId);
+        update(userId, delta, now);
+    }
+
+    public List<Long> findUserIdsAfter(long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                Long.class, afterId, limit);
+    }
+
+    // Recomputes the rows of the given users from cards and returns how many were wrong.
+    // The summary rows are locked first: a card change that already applied its delta has committed
+    // before the cards are counted, and one that has not yet waits and applies it on top.
+    // The user rows are locked too, so a missing row is not inserted here and by a first change at once.
+    @Transactional
+    public int rebuild(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(userIds.size(), "?"));
+        Object[] ids = userIds.toArray();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.queryForList("SELECT id FROM users WHERE id IN (%s) ORDER BY id FOR UPDATE"
+                .formatted(placeholders), Long.class, ids);
+        Map<Long, Totals> stored = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT user_id, card_count, active_count, blocked_count, expired_count, total_balance
+                FROM user_card_summary WHERE user_id IN (%s) ORDER BY user_id FOR UPDATE
+                """.formatted(placeholders), rs -> {
+            stored.put(rs.getLong(1), new Totals(rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getInt(5),
+                    rs.getBigDecimal(6)));
+        }, ids);
+
+        Map<Long, Totals> actual = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT owner_id,
+                       COUNT(*),
+                       SUM(CASE WHEN status = 'ACTIVE' THEN 1 ELSE 0 END),
+                       SUM(CASE WHEN status = 'BLOCKED' THEN 1 ELSE 0 END),
+                       SUM(CASE WHEN status = 'EXPIRED' THEN 1 ELSE 0 END),
+                       COALESCE(SUM(balance), 0)
+                FROM cards WHERE owner_id IN (%s)
+                GROUP BY owner_id
+                """.formatted(placeholders), rs -> {
+            actual.put(rs.getLong(1), new Totals(rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getInt(5),
+                    rs.getBigDecimal(6)));
+        }, ids);
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (Long userId : userIds) {
+            Totals expected = actual.getOrDefault(userId, Totals.EMPTY);
+            Totals current = stored.get(userId);
+            if (current == null) {
+                // Users without cards need no row, the read falls back to zeros
+                if (!expected.equals(Totals.EMPTY)) {
+                    inserts.add(new Object[]{userId, expected.cards(), expected.active(), expected.blocked(),
+                            expected.expired(), expected.balance(), now});
+                }
+            } else if (!current.equals(expected)) {
+                updates.add(new Object[]{expected.cards(), expected.active(), expected.blocked(), expected.expired(),
+                        expected.balance(), now, userId});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO user_card_summary
+                        (user_id, card_count, active_count, blocked_count, expired_count, total_balance, updated_at)
+                    VALUES (?, ?, ?, ?, ?, ?, ?)
+                    """, inserts);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    UPDATE user_card_summary
+                    SET card_count = ?, active_count = ?, blocked_count = ?, expired_count = ?,
+                        total_balance = ?, updated_at = ?
+                    WHERE user_id = ?
+                    """, updates);
+        }
+        return inserts.size() + updates.size();
+    }
+
+    private int update(long userId, SummaryDelta delta, Timestamp now) {
+        return jdbcTemplate.update(APPLY_DELTA_SQL, delta.cards(), delta.active(), delta.blocked(), delta.expired(),
+                delta.balance(), now, userId);
+    }
+
+    public record SummaryDelta(int cards, int active, int blocked, int expired, BigDecimal balance) {
+
+        public static final SummaryDelta ZERO = new SummaryDelta(0, 0, 0, 0, BigDecimal.ZERO);
+
+        public static SummaryDelta added(Card.CardStatus status, BigDecimal balance) {
+            return ZERO.withStatus(1, status, 1).withBalance(balance);
+        }
+
+        public static SummaryDelta removed(Card.CardStatus status, BigDecimal balance) {
+            return ZERO.withStatus(-1, status, -1).withBalance(balance.negate());
+        }
+
+        public static SummaryDelta statusChanged(Card.CardStatus from, Card.CardStatus to) {
+            return from == to ? ZERO : ZERO.withStatus(0, from, -1).withStatus(0, to, 1);
+        }
+
+        public static SummaryDelta balanceChanged(BigDecimal amount) {
+            return ZERO.withBalance(amount);
+        }
+
+        public SummaryDelta plus(SummaryDelta other) {
+            return new SummaryDelta(cards + other.cards, active + other.active, blocked + other.blocked,
+                    expired + other.expired, balance.add(other.balance));
+        }
+
+        public boolean isZero() {
+            return cards == 0 && active == 0 && blocked == 0 && expired == 0 && balance.signum() == 0;
+        }
+
+        private SummaryDelta withStatus(int cardDelta, Card.CardStatus status, int statusDelta) {
+            return new SummaryDelta(cards + cardDelta,
+                    active + (status == Card.CardStatus.ACTIVE ? statusDelta : 0),
+                    blocked + (status == Card.CardStatus.BLOCKED ? statusDelta : 0),
+                    expired + (status == Card.CardStatus.EXPIRED ? statusDelta : 0),
+                    balance);
+        }
+
+        private SummaryDelta withBalance(BigDecimal amount) {
+            return new SummaryDelta(cards, active, blocked, expired, balance.add(amount));
+        }
+    }
+
+    // Balances compare by value, so a stored 10.00 matches a computed 10
+    private record Totals(int cards, int active, int blocked, int expired, BigDecimal balance) {
+
+        static final Totals EMPTY = new Totals(0, 0, 0, 0, BigDecimal.ZERO);
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Totals totals && cards == totals.cards && active == totals.active
+                    && blocked == totals.blocked && expired == totals.expired
+                    && balance.compareTo(totals.balance) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cards, active, blocked, expired, balance.stripTrailingZeros());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class LoginThrottle {
+
+    private static final String BLOCKED_MESSAGE = "Too many failed login attempts, please retry later";
+
+    private final Tracker usernames;
+    private final Tracker clientIps;
+
+    public LoginThrottle(@Value("${security.login-throttle.username-max-failures:5}") int usernameMaxFailures,
+                         @Value("${security.login-throttle.ip-max-failures:20}") int ipMaxFailures,
+                         @Value("${security.login-throttle.window:15m}") Duration window,
+                         @Value("${security.login-throttle.base-lockout:1m}") Duration baseLockout,
+                         @Value("${security.login-throttle.max-lockout:1h}") Duration maxLockout,
+                         @Value("${security.login-throttle.max-entries:100000}") int maxEntries,
+                         MeterRegistry meterRegistry) {
+        this.usernames = new Tracker("username", usernameMaxFailures, window, baseLockout, maxLockout,
+                maxEntries, meterRegistry);
+        this.clientIps = new Tracker("ip", ipMaxFailures, window, baseLockout, maxLockout,
+                maxEntries, meterRegistry);
+    }
+
+    public void checkAllowed(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (usernames.isLocked(username, now) || clientIps.isLocked(clientIp, now)) {
+            throw new TooManyRequestsException("LOGIN_THROTTLED", BLOCKED_MESSAGE);
+        }
+    }
+
+    public void recordFailure(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        usernames.recordFailure(username, now);
+        clientIps.recordFailure(clientIp, now);
+    }
+
+    public void recordSuccess(String username) {
+        usernames.reset(username);
+    }
+
+    @Scheduled(fixedDelayString = "${security.login-throttle.cleanup-interval:PT1M}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        usernames.evictIdle(now);
+        clientIps.evictIdle(now);
+    }
+
+    private static final class Tracker {
+
+        private final String scope;
+        private final int maxFailures;
+        private final long windowMillis;
+        private final long baseLockoutMillis;
+        private final long maxLockoutMillis;
+        private final int maxEntries;
+        private final Counter blockedCounter;
+        private final Counter untrackedCounter;
+        private final AtomicLong untrackedSinceSweep = new AtomicLong();
+        private final Map<String, Attempts> attempts = new ConcurrentHashMap<>();
+
+        Tracker(String scope, int maxFailures, Duration window, Duration baseLockout, Duration maxLockout,
+                int maxEntries, MeterRegistry meterRegistry) {
+            this.scope = scope;
+            this.maxFailures = maxFailures;
+            this.windowMillis = window.toMillis();
+            this.baseLockoutMillis = baseLockout.toMillis();
+            this.maxLockoutMillis = maxLockout.toMillis();
+            this.maxEntries = maxEntries;
+            this.blockedCounter = Counter.builder("auth.login.blocked")
+                    .tag("scope", scope)
+                    .register(meterRegistry);
+            this.untrackedCounter = Counter.builder("auth.login.untracked")
+                    .tag("scope", scope)
+                    .register(meterRegistry);
+            Gauge.builder("auth.login.tracked", attempts, Map::size)
+                    .tag("scope", scope)
+                    .register(meterRegistry);
+        }
+
+        boolean isLocked(String key, long now) {
+            Attempts current = key != null ? attempts.get(key) : null;
+            if (current != null && current.lockedUntil() > now) {
+                blockedCounter.increment();
+                return true;
+            }
+            return false;
+        }
+
+        void recordFailure(String key, long now) {
+            if (key == null) {
+                return;
+            }
+            // A full map is only cleaned by the scheduled sweep: scanning it here would let every failure
+            // with a fresh key cost a full pass. Keys already tracked keep counting; new ones are counted
+            // as untracked, so the gap is visible in metrics and logs
+            if (attempts.size() >= maxEntries && !attempts.containsKey(key)) {
+                untrackedCounter.increment();
+                untrackedSinceSweep.incrementAndGet();
+                return;
+            }
+            attempts.compute(key, (k, current) -> next(current, now));
+        }
+
+        void reset(String key) {
+            if (key != null) {
+                attempts.remove(key);
+            }
+        }
+
+        void evictIdle(long now) {
+            // Progressive lockout level is forgotten after a quiet period of maxLockout
+            attempts.values().removeIf(entry -> entry.lockedUntil() <= now
+                    && entry.windowStart() + 2 * windowMillis <= now
+                    && (entry.lockoutLevel() == 0 || entry.lockedUntil() + maxLockoutMillis <= now));
+            long untracked = untrackedSinceSweep.getAndSet(0);
+            if (untracked > 0) {
+                log.warn("Login throttle by {} was full: {} failed logins with new keys were not tracked", scope, untracked);
+            }
+        }
+
+        // Sliding window approximated from the current and previous fixed windows
+        private Attempts next(Attempts current, long now) {
+            long windowStart = now - now % windowMillis;
+            int previousCount = 0;
+            int currentCount = 0;
+            int lockoutLevel = 0;
+            if (current != null) {
+                lockoutLevel = current.lockoutLevel();
+                if (current.windowStart() == windowStart) {
+                    previousCount = current.previousCount();
+                    currentCount = current.currentCount();
+                } else if (current.windowStart() == windowStart - windowMillis) {
+                    previousCount = current.currentCount();
+                }
+            }
+            currentCount++;
+
+            double elapsed = (double) (now - windowStart) / windowMillis;
+            double estimated = previousCount * (1.0 - elapsed) + currentCount;
+            if (estimated < maxFailures) {
+                long lockedUntil = current != null ? current.lockedUntil() : 0L;
+                return new Attempts(windowStart, previousCount, currentCount, lockedUntil, lockoutLevel);
+            }
+
+            long lockout = Math.min(maxLockoutMillis, baseLockoutMillis << Math.min(lockoutLevel, 20));
+            return new Attempts(windowStart, 0, 0, now + lockout, lockoutLevel + 1);
+        }
+    }
+
+    private record Attempts(long windowStart, int previousCount, int currentCount,
+                            long lockedUntil, int lockoutLevel) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.RevokedToken;
+import com.example.bankcards.repository.RevokedTokenRepository;
+import com.example.bankcards.service.CacheInvalidationListener;
+import com.example.bankcards.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Revoked access tokens, checked on every request without a query: a Bloom filter in front of an exact set.
+// A revocation reaches the other nodes through CacheInvalidationBus within its coalesce-window; the periodic
+// rebuild only drops expired entries and catches up after a missed notification.
+@Slf4j
+@Service
+public class TokenRevocationService implements CacheInvalidationListener {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+
+    // Exact set behind the filter: jti -> expiry in epoch millis
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${jwt.revocation.expected-insertions:100000}") int expectedInsertions,
+                                  @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.eventPublisher = eventPublisher;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revokedTokens.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    @Transactional
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.after(new Date())) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(
+                jti,
+                LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault())
+        ));
+        add(jti, expiresAt.getTime());
+        eventPublisher.publishEvent(new TokenRevokedEvent(jti));
+    }
+
+    // Revoked on another node; read back from the table, which has them committed
+    @Override
+    public void tokensRevoked(Set<String> jtis) {
+        for (RevokedToken token : revokedTokenRepository.findAllById(jtis)) {
+            add(token.getJti(), token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    @Override
+    public void evict(Set<Long> cardIds, Set<Long> userIds) {
+    }
+
+    // Notifications were missed or too many to list
+    @Override
+    public void evictAll() {
+        rebuild();
+    }
+
+    @PostConstruct
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:PT10M}",
+            initialDelayString = "${jwt.revocation.rebuild-interval:PT10M}")
+    @Transactional
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            revokedTokens.put(token.getJti(),
+                    token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+
+        long nowMillis = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, revokedTokens.size()), falsePositiveRate);
+        revokedTokens.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        // Tokens revoked while the new filter was being filled
+        revokedTokens.keySet().forEach(rebuilt::put);
+
+        log.debug("Revocation filter rebuilt with {} tokens", revokedTokens.size());
+    }
+
+    private void add(String jti, long expiresAtMillis) {
+        revokedTokens.put(jti, expiresAtMillis);
+        filter.put(jti);
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.bankcards.security;
+
+// Published inside the transaction that revoked the token; CacheInvalidationBus tells the other nodes after commit
+public record TokenRevokedEvent(String jti) {
+}
@@ -2,14 +2,21 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.AuthRequest;
 import com.example.bankcards.dto.AuthResponse;
+import com.example.bankcards.dto.RefreshTokenRequest;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.ConflictException;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.LoginThrottle;
+import com.example.bankcards.security.TokenRevocationService;
+import com.example.bankcards.security.UserPrincipal;
 import com.example.bankcards.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -21,40 +28,58 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginThrottle loginThrottle;
 
     public AuthResponse register(AuthRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("Username already exists");
-        }
-
         User user = new User();
         user.setUsername(request.getUsername());
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setRole(User.Role.USER);
 
-        userRepository.save(user);
-
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
-        String token = jwtUtil.generateToken(userDetails);
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("USERNAME_TAKEN", "Username already exists");
+        }
 
-        return new AuthResponse(token, user.getUsername(), user.getRole().name());
+        return toAuthResponse(UserPrincipal.of(user));
     }
 
-    public AuthResponse login(AuthRequest request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getUsername(),
-                        request.getPassword()
-                )
-        );
+    public AuthResponse login(AuthRequest request, String clientIp) {
+        loginThrottle.checkAllowed(request.getUsername(), clientIp);
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getUsername(),
+                            request.getPassword()
+                    )
+            );
+        } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(request.getUsername(), clientIp);
+            throw e;
+        }
 
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        loginThrottle.recordSuccess(request.getUsername());
+        return toAuthResponse((UserPrincipal) authentication.getPrincipal());
+    }
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
-        String token = jwtUtil.generateToken(userDetails);
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        return toAuthResponse(refreshTokenService.consume(request.getRefreshToken()));
+    }
+
+    public void logout(String accessToken) {
+        Claims claims = jwtUtil.extractAllClaims(accessToken);
+        tokenRevocationService.revoke(claims.getId(), claims.getExpiration());
+        refreshTokenService.revokeAll(claims.get(JwtUtil.USER_ID_CLAIM, Long.class));
+    }
 
-        return new AuthResponse(token, user.getUsername(), user.getRole().name());
+    private AuthResponse toAuthResponse(UserPrincipal principal) {
+        String token = jwtUtil.generateToken(principal);
+        String refreshToken = refreshTokenService.issue(principal.getId());
+        return new AuthResponse(token, refreshToken, principal.getUsername(), principal.getRole().name());
     }
-}
\ No newline at end of file
+}
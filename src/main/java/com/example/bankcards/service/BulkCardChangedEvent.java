@@ -0,0 +1,8 @@
+package com.example.bankcards.service;
+
+import java.util.List;
+import java.util.Map;
+
+// Cards changed by a set-based admin operation, grouped by owner; published once per chunk
+public record BulkCardChangedEvent(Map<Long, List<Long>> cardIdsByOwner, boolean deleted) {
+}
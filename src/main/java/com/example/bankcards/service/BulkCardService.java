@@ -0,0 +1,102 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BulkCardOperationRequest;
+import com.example.bankcards.dto.BulkCardOperationResultDto;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.CardBulkJdbcRepository;
+import com.example.bankcards.repository.CardBulkJdbcRepository.CardRef;
+import com.example.bankcards.repository.CardBulkJdbcRepository.CardSelection;
+import com.example.bankcards.repository.CardBulkJdbcRepository.ChunkResult;
+import com.example.bankcards.repository.CardBulkJdbcRepository.Operation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+// Block, activate or delete every card matching a selection, chunk-size cards per statement and transaction.
+// Each chunk commits on its own: a failure part way leaves the earlier chunks applied, and running the
+// same request again finishes the rest, because already changed cards no longer match the rule.
+@Slf4j
+@Service
+public class BulkCardService {
+
+    private final CardBulkJdbcRepository bulkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public BulkCardService(CardBulkJdbcRepository bulkRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${app.cards.bulk.chunk-size:1000}") int chunkSize) {
+        this.bulkRepository = bulkRepository;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public BulkCardOperationResultDto apply(BulkCardOperationRequest request) {
+        List<Long> cardIds = request.getCardIds() == null ? null : request.getCardIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList();
+        if (request.getOwnerId() == null && (cardIds == null || cardIds.isEmpty())
+                && request.getStatus() == null && request.getExpireBefore() == null) {
+            // Never "all cards" by accident
+            throw new BadRequestException("EMPTY_SELECTION", "Select cards by owner, card IDs, status or expiry date");
+        }
+
+        long started = System.currentTimeMillis();
+        Operation operation = Operation.valueOf(request.getAction().name());
+        LocalDate today = LocalDate.now();
+        long matched = 0;
+        long affected = 0;
+        for (List<Long> ids : idChunks(cardIds)) {
+            CardSelection selection = new CardSelection(request.getOwnerId(), ids, request.getStatus(),
+                    request.getExpireBefore());
+            matched += bulkRepository.count(selection);
+
+            long afterId = 0;
+            while (true) {
+                ChunkResult chunk = bulkRepository.applyChunk(selection, operation, today, afterId, chunkSize);
+                if (chunk.cards().isEmpty()) {
+                    break;
+                }
+                affected += chunk.affected();
+                eventPublisher.publishEvent(new BulkCardChangedEvent(byOwner(chunk.cards()),
+                        operation == Operation.DELETE));
+                afterId = chunk.cards().get(chunk.cards().size() - 1).id();
+                if (chunk.cards().size() < chunkSize) {
+                    break;
+                }
+            }
+        }
+
+        long duration = System.currentTimeMillis() - started;
+        log.info("Bulk {} of cards: {} matched, {} affected in {} ms", operation, matched, affected, duration);
+        return new BulkCardOperationResultDto(operation.name(), matched, affected, matched - affected, duration);
+    }
+
+    // A selection by card ids is split so that each statement stays within chunk-size parameters
+    private List<List<Long>> idChunks(List<Long> cardIds) {
+        if (cardIds == null) {
+            return Collections.singletonList(null);
+        }
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < cardIds.size(); from += chunkSize) {
+            chunks.add(cardIds.subList(from, Math.min(from + chunkSize, cardIds.size())));
+        }
+        return chunks;
+    }
+
+    private static Map<Long, List<Long>> byOwner(List<CardRef> cards) {
+        return cards.stream().collect(Collectors.groupingBy(CardRef::ownerId,
+                Collectors.mapping(CardRef::id, Collectors.toList())));
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.security.TokenRevokedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Tells every node which cards and users changed, so node-local state built from them can be dropped,
+// and which access tokens were revoked, so a logout holds on every node and not only the one that took it.
+// - After commit the local listeners are told at once; the ids are also queued for the other nodes.
+//   Bulk admin operations report a whole chunk of cards at a time.
+// - Every coalesce-window the queue goes out as one NOTIFY on the primary (a burst of changes to the
+//   same card is sent once); more than max-keys-per-message ids are sent as a flush-all instead.
+// - Each node LISTENs on a dedicated connection outside the pool, drains a burst of notifications and
+//   applies them in one pass. After (re)connecting it flushes everything, because notifications sent
+//   while it was not listening are lost.
+// Only PostgreSQL has LISTEN/NOTIFY; on other databases the bus is local to the node.
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final String FLUSH_ALL = "*";
+    private static final Pattern JTI = Pattern.compile("[A-Za-z0-9-]{1,64}");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectProvider<CacheInvalidationListener> listeners;
+    private final boolean distributed;
+    private final String channel;
+    private final long coalesceMillis;
+    private final long reconnectDelayMillis;
+    private final long keepaliveMillis;
+    private final int maxKeysPerMessage;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<Long> pendingCardIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingUserIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingJtis = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running;
+    private Thread receiver;
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate,
+                                DataSourceProperties dataSourceProperties,
+                                ObjectProvider<CacheInvalidationListener> listeners,
+                                @Value("${app.cache.invalidation.enabled:true}") boolean enabled,
+                                @Value("${app.cache.invalidation.channel:cache_invalidation}") String channel,
+                                @Value("${app.cache.invalidation.coalesce-window:50ms}") Duration coalesceWindow,
+                                @Value("${app.cache.invalidation.reconnect-delay:5s}") Duration reconnectDelay,
+                                @Value("${app.cache.invalidation.keepalive:30s}") Duration keepalive,
+                                @Value("${app.cache.invalidation.max-keys-per-message:300}") int maxKeysPerMessage) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid cache invalidation channel: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.listeners = listeners;
+        String url = dataSourceProperties.determineUrl();
+        this.distributed = enabled && url != null && url.startsWith("jdbc:postgresql:");
+        this.channel = channel;
+        this.coalesceMillis = Math.max(1, coalesceWindow.toMillis());
+        this.reconnectDelayMillis = Math.max(1, reconnectDelay.toMillis());
+        this.keepaliveMillis = Math.max(1, keepalive.toMillis());
+        this.maxKeysPerMessage = Math.max(1, maxKeysPerMessage);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!distributed) {
+            log.info("Cache invalidation is local to this node");
+            return;
+        }
+        running = true;
+        sender.scheduleWithFixedDelay(this::sendPending, coalesceMillis, coalesceMillis, TimeUnit.MILLISECONDS);
+        receiver = new Thread(this::receive, "cache-invalidation-listener");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        sender.shutdownNow();
+        if (receiver != null) {
+            receiver.interrupt();
+        }
+        sendPending();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardChanged(CardChangedEvent event) {
+        invalidate(Set.of(event.card().getId()), Set.of(event.card().getOwner().getId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkCardChanged(BulkCardChangedEvent event) {
+        Set<Long> cardIds = new HashSet<>();
+        event.cardIdsByOwner().values().forEach(cardIds::addAll);
+        invalidate(cardIds, event.cardIdsByOwner().keySet());
+    }
+
+    // The revoking node has already updated its own revocation set; only the other nodes are told
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        if (distributed) {
+            pendingJtis.add(event.jti());
+        }
+    }
+
+    private void invalidate(Set<Long> cardIds, Set<Long> userIds) {
+        notifyListeners(listener -> listener.evict(cardIds, userIds));
+        if (distributed) {
+            pendingCardIds.addAll(cardIds);
+            pendingUserIds.addAll(userIds);
+        }
+    }
+
+    void sendPending() {
+        Set<Long> cardIds = takeAll(pendingCardIds);
+        Set<Long> userIds = takeAll(pendingUserIds);
+        Set<String> jtis = takeAll(pendingJtis);
+        if (cardIds.isEmpty() && userIds.isEmpty() && jtis.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("SELECT pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) statement -> {
+                statement.setString(1, channel);
+                statement.setString(2, encode(cardIds, userIds, jtis));
+                return statement.execute();
+            });
+        } catch (Exception e) {
+            // Put back for the next round; the other nodes stay stale until then
+            pendingCardIds.addAll(cardIds);
+            pendingUserIds.addAll(userIds);
+            pendingJtis.addAll(jtis);
+            log.warn("Could not send cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    // Payload: node|cardIds|userIds[|jtis] with comma-separated values, or node|* to flush everything.
+    // A NOTIFY payload is limited to 8000 bytes; 300 ids of up to 19 digits fit, and a 36-character jti
+    // counts as two. A flush-all makes every node reload its revocations.
+    String encode(Set<Long> cardIds, Set<Long> userIds, Set<String> jtis) {
+        if (cardIds.size() + userIds.size() + 2 * jtis.size() > maxKeysPerMessage) {
+            return nodeId + "|" + FLUSH_ALL;
+        }
+        String payload = nodeId + "|" + join(cardIds) + "|" + join(userIds);
+        return jtis.isEmpty() ? payload : payload + "|" + String.join(",", jtis);
+    }
+
+    // Merges the notifications of one burst, skipping the node's own; anything unreadable flushes everything
+    void collect(String payload, Invalidation invalidation) {
+        String[] parts = payload.split("\\|", -1);
+        if (parts[0].equals(nodeId)) {
+            return;
+        }
+        if (parts.length < 3 || FLUSH_ALL.equals(parts[1])) {
+            invalidation.all = true;
+            return;
+        }
+        try {
+            parse(parts[1], invalidation.cardIds);
+            parse(parts[2], invalidation.userIds);
+        } catch (NumberFormatException e) {
+            invalidation.all = true;
+            return;
+        }
+        if (parts.length > 3) {
+            for (String jti : parts[3].split(",")) {
+                if (!JTI.matcher(jti).matches()) {
+                    invalidation.all = true;
+                    return;
+                }
+                invalidation.jtis.add(jti);
+            }
+        }
+    }
+
+    void apply(Invalidation invalidation) {
+        if (invalidation.all) {
+            notifyListeners(CacheInvalidationListener::evictAll);
+        } else if (!invalidation.cardIds.isEmpty() || !invalidation.userIds.isEmpty()) {
+            notifyListeners(listener -> listener.changedElsewhere(invalidation.cardIds, invalidation.userIds));
+        }
+        if (!invalidation.all && !invalidation.jtis.isEmpty()) {
+            notifyListeners(listener -> listener.tokensRevoked(invalidation.jtis));
+        }
+    }
+
+    private void receive() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                notifyListeners(CacheInvalidationListener::evictAll);
+                log.info("Listening for cache invalidations on channel {}", channel);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) keepaliveMillis);
+                    if (notifications == null || notifications.length == 0) {
+                        // A dead connection does not always fail the wait, a query does
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        continue;
+                    }
+                    Invalidation invalidation = new Invalidation();
+                    while (notifications != null && notifications.length > 0) {
+                        for (PGNotification notification : notifications) {
+                            collect(notification.getParameter(), invalidation);
+                        }
+                        notifications = pgConnection.getNotifications((int) coalesceMillis);
+                    }
+                    apply(invalidation);
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener disconnected, reconnecting in {} ms: {}",
+                            reconnectDelayMillis, e.getMessage());
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private void notifyListeners(Consumer<CacheInvalidationListener> action) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                action.accept(listener);
+            } catch (RuntimeException e) {
+                log.error("Cache invalidation listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        });
+    }
+
+    private static <T> Set<T> takeAll(Set<T> pending) {
+        Set<T> taken = new HashSet<>();
+        for (Iterator<T> iterator = pending.iterator(); iterator.hasNext(); ) {
+            taken.add(iterator.next());
+            iterator.remove();
+        }
+        return taken;
+    }
+
+    private static String join(Set<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static void parse(String ids, Set<Long> target) {
+        for (String id : ids.split(",")) {
+            if (!id.isEmpty()) {
+                target.add(Long.parseLong(id));
+            }
+        }
+    }
+
+    static class Invalidation {
+        final Set<Long> cardIds = new HashSet<>();
+        final Set<Long> userIds = new HashSet<>();
+        final Set<String> jtis = new HashSet<>();
+        boolean all;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.bankcards.service;
+
+import java.util.Set;
+
+// Node-local state derived from cards, users or revoked tokens; told by CacheInvalidationBus when any node changes them
+public interface CacheInvalidationListener {
+
+    void evict(Set<Long> cardIds, Set<Long> userIds);
+
+    // The same ids, committed on another node; local changes reach evict() only
+    default void changedElsewhere(Set<Long> cardIds, Set<Long> userIds) {
+        evict(cardIds, userIds);
+    }
+
+    // Notifications may have been missed, e.g. while the listening connection was down
+    void evictAll();
+
+    // Access tokens revoked on another node
+    default void tokensRevoked(Set<String> jtis) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+
+// Published inside the transaction that changed the card; CardEventHub forwards it to the owner's streams after commit
+public record CardChangedEvent(Card card, boolean deleted) {
+}
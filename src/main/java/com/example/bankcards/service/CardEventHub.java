@@ -0,0 +1,412 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.security.UserPrincipal;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fan-out of card changes to the owners' SSE streams (GET /api/cards/stream).
+// - Idle connections hold no thread: SseEmitter parks the request in servlet async mode.
+// - Publishing never blocks on a client: events go to a bounded per-connection queue drained on the
+//   dispatcher pool; a connection that falls max-queued events behind is closed and resumes on reconnect.
+// - Each user's channel keeps the last replay-size events, so a reconnect with Last-Event-ID gets the
+//   missed events; if they are no longer buffered it gets a full snapshot instead.
+// - Changes committed on other nodes arrive over CacheInvalidationBus without the card state, so the
+//   affected channels get a fresh snapshot; a flush-all re-snapshots every channel.
+// Channels exist only for users that are or were recently connected; changes for anyone else cost a map lookup.
+@Slf4j
+@Component
+public class CardEventHub implements CacheInvalidationListener {
+
+    private static final String SNAPSHOT_EVENT = "snapshot";
+    private static final String CARD_EVENT = "card";
+    private static final String CARD_DELETED_EVENT = "card-deleted";
+    private static final CardEvent HEARTBEAT = new CardEvent(0, null, null);
+
+    private final CardService cardService;
+    private final CardRepository cardRepository;
+    private final CardMapper cardMapper;
+    private final long timeoutMillis;
+    private final int replaySize;
+    private final int maxQueued;
+    private final Duration retention;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    // Seeded from the clock so ids keep growing across restarts and stale ids fall back to a snapshot
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final ExecutorService dispatcher;
+
+    public CardEventHub(CardService cardService,
+                        CardRepository cardRepository,
+                        CardMapper cardMapper,
+                        @Value("${app.cards.stream.timeout:30m}") Duration timeout,
+                        @Value("${app.cards.stream.replay-size:100}") int replaySize,
+                        @Value("${app.cards.stream.max-queued:256}") int maxQueued,
+                        @Value("${app.cards.stream.retention:5m}") Duration retention,
+                        @Value("${app.cards.stream.dispatcher-threads:2}") int dispatcherThreads) {
+        this.cardService = cardService;
+        this.cardRepository = cardRepository;
+        this.cardMapper = cardMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.replaySize = Math.max(0, replaySize);
+        this.maxQueued = Math.max(1, maxQueued);
+        this.retention = retention;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(Math.max(1, dispatcherThreads), runnable -> {
+            Thread thread = new Thread(runnable, "card-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(UserPrincipal user, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+
+        // Registered before the snapshot is read, so a change committed meanwhile is queued behind it
+        ResumePoint[] resume = new ResumePoint[1];
+        Channel channel = channels.compute(user.getId(), (userId, existing) -> {
+            Channel current = existing != null ? existing : new Channel(user.getUsername(), sequence.get());
+            resume[0] = current.register(subscriber, parseEventId(lastEventId));
+            return current;
+        });
+        emitter.onCompletion(() -> channel.unregister(subscriber));
+        emitter.onTimeout(() -> channel.unregister(subscriber));
+        emitter.onError(error -> channel.unregister(subscriber));
+
+        List<CardEvent> initial;
+        if (resume[0].missed() != null) {
+            initial = resume[0].missed();
+        } else {
+            List<CardDto> cards = cardService.getMyCards(Pageable.unpaged()).stream()
+                    .map(card -> cardMapper.convertToDto(card, user.getUsername()))
+                    .toList();
+            initial = List.of(new CardEvent(resume[0].lastEventId(), SNAPSHOT_EVENT, cards));
+        }
+        subscriber.start(initial);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardChanged(CardChangedEvent event) {
+        Card card = event.card();
+        Channel channel = channels.get(card.getOwner().getId());
+        if (channel == null) {
+            return;
+        }
+        Object data = event.deleted()
+                ? Map.of("id", card.getId())
+                : cardMapper.convertToDto(card, channel.username);
+        channel.publish(new CardEvent(sequence.incrementAndGet(), event.deleted() ? CARD_DELETED_EVENT : CARD_EVENT, data));
+    }
+
+    // Only the owners that are connected cost a query
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkCardChanged(BulkCardChangedEvent event) {
+        event.cardIdsByOwner().forEach((ownerId, cardIds) -> {
+            Channel channel = channels.get(ownerId);
+            if (channel == null) {
+                return;
+            }
+            if (event.deleted()) {
+                cardIds.forEach(id -> channel.publish(
+                        new CardEvent(sequence.incrementAndGet(), CARD_DELETED_EVENT, Map.of("id", id))));
+                return;
+            }
+            cardRepository.findAllById(cardIds).forEach(card -> channel.publish(new CardEvent(
+                    sequence.incrementAndGet(), CARD_EVENT, cardMapper.convertToDto(card, channel.username))));
+        });
+    }
+
+    // Local changes already arrived as CardChangedEvent or BulkCardChangedEvent
+    @Override
+    public void evict(Set<Long> cardIds, Set<Long> userIds) {
+    }
+
+    @Override
+    public void changedElsewhere(Set<Long> cardIds, Set<Long> userIds) {
+        userIds.forEach(this::publishSnapshot);
+    }
+
+    @Override
+    public void evictAll() {
+        channels.keySet().forEach(this::publishSnapshot);
+    }
+
+    // Also for channels without a connection, so a client resuming from an older event id gets it replayed
+    private void publishSnapshot(Long userId) {
+        Channel channel = channels.get(userId);
+        if (channel == null) {
+            return;
+        }
+        List<CardDto> cards = cardRepository.findByOwnerId(userId).stream()
+                .map(card -> cardMapper.convertToDto(card, channel.username))
+                .toList();
+        channel.publish(new CardEvent(sequence.incrementAndGet(), SNAPSHOT_EVENT, cards));
+    }
+
+    // Keeps idle connections from being dropped by proxies and notices clients that went away
+    @Scheduled(fixedDelayString = "${app.cards.stream.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT)));
+    }
+
+    @Scheduled(fixedDelayString = "${app.cards.stream.cleanup-interval:PT1M}")
+    public void removeIdleChannels() {
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        channels.keySet().forEach(userId -> channels.computeIfPresent(userId,
+                (id, channel) -> channel.isIdleSince(cutoff) ? null : channel));
+    }
+
+    public int connectionCount() {
+        return channels.values().stream().mapToInt(channel -> channel.subscribers.size()).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        dispatcher.shutdownNow();
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // A builder is consumed by send(), so every delivery builds its own
+    private record CardEvent(long id, String name, Object data) {
+        SseEmitter.SseEventBuilder toSse() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(Long.toString(id)).name(name).data(data);
+        }
+    }
+
+    // missed is null when the client has to start over from a snapshot
+    private record ResumePoint(long lastEventId, List<CardEvent> missed) {
+    }
+
+    // Plain locks rather than monitors: publish() runs on the committing request thread, which must not pin
+    // a virtual thread's carrier, and no emitter is sent to or completed while a lock is held
+    private class Channel {
+
+        private final String username;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Deque<CardEvent> recent = new ArrayDeque<>();
+        // Every event of this user with a greater id is still in recent
+        private long retainedAfter;
+        private long lastEventId;
+        private volatile long lastActivityMillis = System.currentTimeMillis();
+
+        Channel(String username, long createdAt) {
+            this.username = username;
+            this.retainedAfter = createdAt;
+            this.lastEventId = createdAt;
+        }
+
+        ResumePoint register(Subscriber subscriber, Long resumeFrom) {
+            lock.lock();
+            try {
+                subscribers.add(subscriber);
+                lastActivityMillis = System.currentTimeMillis();
+                if (resumeFrom == null || resumeFrom < retainedAfter || resumeFrom > lastEventId) {
+                    return new ResumePoint(lastEventId, null);
+                }
+                List<CardEvent> missed = new ArrayList<>();
+                for (CardEvent event : recent) {
+                    if (event.id() > resumeFrom) {
+                        missed.add(event);
+                    }
+                }
+                return new ResumePoint(lastEventId, missed);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void unregister(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+            lastActivityMillis = System.currentTimeMillis();
+        }
+
+        // Queued under the same lock as register(), so a resuming client gets each event either replayed or
+        // queued, not both; the subscribers are flushed after the lock is released
+        void publish(CardEvent event) {
+            List<Subscriber> queued = new ArrayList<>();
+            lock.lock();
+            try {
+                recent.addLast(event);
+                while (recent.size() > replaySize) {
+                    retainedAfter = recent.removeFirst().id();
+                }
+                lastEventId = event.id();
+                lastActivityMillis = System.currentTimeMillis();
+                for (Subscriber subscriber : subscribers) {
+                    if (subscriber.enqueue(event)) {
+                        queued.add(subscriber);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            queued.forEach(Subscriber::flush);
+        }
+
+        boolean isIdleSince(long cutoffMillis) {
+            return subscribers.isEmpty() && lastActivityMillis < cutoffMillis;
+        }
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Deque<CardEvent> queue = new ArrayDeque<>();
+        private boolean started;
+        private boolean draining;
+        private boolean closed;
+        // Closed for falling behind; the emitter is completed by the next flush()
+        private boolean completePending;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Snapshot or replay goes ahead of anything published while it was being prepared
+        void start(List<CardEvent> initial) {
+            lock.lock();
+            try {
+                for (int i = initial.size() - 1; i >= 0; i--) {
+                    queue.addFirst(initial.get(i));
+                }
+                started = true;
+            } finally {
+                lock.unlock();
+            }
+            flush();
+        }
+
+        void offer(CardEvent event) {
+            if (enqueue(event)) {
+                flush();
+            }
+        }
+
+        // Only touches the queue; true if the caller has to flush() once it holds no lock
+        boolean enqueue(CardEvent event) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                if (queue.size() >= maxQueued) {
+                    // Too slow to keep up; it resumes from its last event id after reconnecting
+                    closed = true;
+                    completePending = true;
+                    queue.clear();
+                    return true;
+                }
+                queue.addLast(event);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Completes a connection that fell behind or hands the queue to the dispatcher
+        void flush() {
+            boolean complete;
+            lock.lock();
+            try {
+                complete = completePending;
+                completePending = false;
+                if (!complete && (!started || draining || closed || queue.isEmpty())) {
+                    return;
+                }
+                if (!complete) {
+                    draining = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (complete) {
+                emitter.complete();
+                return;
+            }
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RuntimeException e) {
+                lock.lock();
+                try {
+                    draining = false;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                CardEvent event;
+                lock.lock();
+                try {
+                    event = closed ? null : queue.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    emitter.send(event.toSse());
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Card stream closed: {}", e.getMessage());
+                    lock.lock();
+                    try {
+                        closed = true;
+                        draining = false;
+                        queue.clear();
+                    } finally {
+                        lock.unlock();
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -2,15 +2,20 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.exception.ForbiddenException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.ArchivedCardTotalRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
 import com.example.bankcards.util.CardMaskingUtil;
 import com.example.bankcards.util.EncryptionUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,18 +29,21 @@ public class CardService {
     private final CardRepository cardRepository;
     private final UserRepository userRepository;
     private final EncryptionUtil encryptionUtil;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ArchivedCardTotalRepository archivedCardTotalRepository;
+    private final UserCardSummaryService summaryService;
 
     @Transactional
     public Card createCard(String cardNumber, String cardHolder, LocalDate expireDate, Long userId) {
         if (!CardMaskingUtil.isValidCardNumber(cardNumber)) {
-            throw new RuntimeException("Invalid card number format");
+            throw new BadRequestException("INVALID_CARD_NUMBER", "Invalid card number format");
         }
 
         User owner = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new NotFoundException("USER_NOT_FOUND", "User not found"));
 
         if (expireDate.isBefore(LocalDate.now())) {
-            throw new RuntimeException("Card expiration date is in the past");
+            throw new BadRequestException("EXPIRE_DATE_IN_PAST", "Card expiration date is in the past");
         }
 
         Card card = new Card();
@@ -46,81 +54,97 @@ public class CardService {
         card.setBalance(BigDecimal.ZERO);
         card.setOwner(owner);
 
-        return cardRepository.save(card);
+        // Flushed before the summary is touched, so the card row is always locked first
+        Card saved = cardRepository.save(card);
+        cardRepository.flush();
+        summaryService.cardAdded(saved);
+        eventPublisher.publishEvent(new CardChangedEvent(saved, false));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public Page<Card> getMyCards(Pageable pageable) {
-        User currentUser = getCurrentUser();
+        User currentUser = userRepository.getReferenceById(UserPrincipal.current().getId());
         return cardRepository.findByOwner(currentUser, pageable);
     }
 
+    @Transactional(readOnly = true)
     public Page<Card> getAllCards(Pageable pageable) {
         return cardRepository.findAll(pageable);
     }
 
+    @Transactional(readOnly = true)
     public Card getCardById(Long id) {
         Card card = cardRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Card not found"));
+                .orElseThrow(() -> new NotFoundException("CARD_NOT_FOUND", "Card not found"));
 
-        User currentUser = getCurrentUser();
-        if (!isAdmin() && !card.getOwner().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Access denied");
+        UserPrincipal currentUser = UserPrincipal.current();
+        if (!currentUser.isAdmin() && !card.getOwner().getId().equals(currentUser.getId())) {
+            throw new ForbiddenException("ACCESS_DENIED", "Access denied");
         }
 
         return card;
     }
 
+    @RetryOnConflict
     @Transactional
     public Card blockCard(Long id) {
         Card card = getCardById(id);
 
         if (card.getStatus() == Card.CardStatus.EXPIRED) {
-            throw new RuntimeException("Cannot block expired card");
+            throw new ConflictException("CARD_EXPIRED", "Cannot block expired card");
         }
 
+        Card.CardStatus previous = card.getStatus();
         card.setStatus(Card.CardStatus.BLOCKED);
-        return cardRepository.save(card);
+        Card saved = cardRepository.save(card);
+        cardRepository.flush();
+        summaryService.statusChanged(saved, previous);
+        eventPublisher.publishEvent(new CardChangedEvent(saved, false));
+        return saved;
     }
 
+    @RetryOnConflict
     @Transactional
     public Card activateCard(Long id) {
         Card card = getCardById(id);
 
         if (card.getExpireDate().isBefore(LocalDate.now())) {
             card.setStatus(Card.CardStatus.EXPIRED);
-            throw new RuntimeException("Card has expired");
+            throw new ConflictException("CARD_EXPIRED", "Card has expired");
         }
 
+        Card.CardStatus previous = card.getStatus();
         card.setStatus(Card.CardStatus.ACTIVE);
-        return cardRepository.save(card);
+        Card saved = cardRepository.save(card);
+        cardRepository.flush();
+        summaryService.statusChanged(saved, previous);
+        eventPublisher.publishEvent(new CardChangedEvent(saved, false));
+        return saved;
     }
 
     @Transactional
     public void deleteCard(Long id) {
         Card card = cardRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Card not found"));
+                .orElseThrow(() -> new NotFoundException("CARD_NOT_FOUND", "Card not found"));
 
         if (card.getBalance().compareTo(BigDecimal.ZERO) > 0) {
-            throw new RuntimeException("Cannot delete card with positive balance");
+            throw new ConflictException("CARD_HAS_BALANCE", "Cannot delete card with positive balance");
+        }
+
+        // History still in the hot table is protected by its foreign keys, archived history is not
+        if (archivedCardTotalRepository.existsById(id)) {
+            throw new ConflictException("CARD_HAS_HISTORY", "Cannot delete card with archived transaction history");
         }
 
         cardRepository.delete(card);
+        cardRepository.flush();
+        summaryService.cardRemoved(card);
+        eventPublisher.publishEvent(new CardChangedEvent(card, true));
     }
 
     public String getMaskedCardNumber(Card card) {
         String decryptedNumber = encryptionUtil.decrypt(card.getCardNumberEncrypted());
         return CardMaskingUtil.maskCardNumber(decryptedNumber);
     }
-
-    private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return userRepository.findByUsername(auth.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
-
-    private boolean isAdmin() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return auth.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-    }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.ReconciliationRun;
+import com.example.bankcards.repository.ReconciliationJdbcRepository;
+import com.example.bankcards.repository.ReconciliationJdbcRepository.CardBalance;
+import com.example.bankcards.util.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+// Splits the card id space of a run into fixed ranges and reconciles them on a fork-join pool.
+// Ranges are aligned to the run's min card id, so a resumed run sees the same ranges as the original.
+@Slf4j
+@Component
+public class LedgerReconciler {
+
+    private static final int THROTTLE_BATCH = 256;
+
+    private final ReconciliationJdbcRepository jdbcRepository;
+    private final int parallelism;
+    private final long maxCardsPerSecond;
+
+    public LedgerReconciler(ReconciliationJdbcRepository jdbcRepository,
+                            @Value("${app.reconciliation.parallelism:2}") int parallelism,
+                            @Value("${app.reconciliation.max-cards-per-second:20000}") long maxCardsPerSecond) {
+        this.jdbcRepository = jdbcRepository;
+        this.parallelism = Math.max(1, parallelism);
+        this.maxCardsPerSecond = maxCardsPerSecond;
+    }
+
+    // Returns false when the run was stopped before every range got a checkpoint
+    public boolean reconcile(ReconciliationRun run, Set<Long> completedRangeStarts, BooleanSupplier stopRequested) {
+        RunContext context = new RunContext(run, completedRangeStarts, stopRequested,
+                new RateLimiter(maxCardsPerSecond));
+        ForkJoinPool pool = new ForkJoinPool(parallelism, workerFactory(run.getId()), null, false);
+        try {
+            pool.invoke(new RangeTask(context, 0, run.getTotalRanges()));
+        } finally {
+            pool.shutdownNow();
+        }
+        return !context.skipped().get();
+    }
+
+    private void reconcileRange(RunContext context, int rangeIndex) {
+        ReconciliationRun run = context.run();
+        long rangeStart = run.rangeStart(rangeIndex);
+        if (context.completedRangeStarts().contains(rangeStart)) {
+            return;
+        }
+        if (context.stopRequested().getAsBoolean() || Thread.currentThread().isInterrupted()) {
+            context.skipped().set(true);
+            return;
+        }
+
+        long rangeEnd = rangeStart + run.getRangeSize();
+        List<CardBalance> discrepancies = new ArrayList<>();
+        int[] cardsChecked = {0};
+        jdbcRepository.streamRangeBalances(rangeStart, rangeEnd, balance -> {
+            if (!balance.isConsistent()) {
+                discrepancies.add(balance);
+            }
+            if (++cardsChecked[0] % THROTTLE_BATCH == 0) {
+                throttle(context, THROTTLE_BATCH);
+            }
+        });
+        throttle(context, cardsChecked[0] % THROTTLE_BATCH);
+
+        jdbcRepository.saveRangeResult(run.getId(), rangeStart, rangeEnd, cardsChecked[0], discrepancies);
+        if (!discrepancies.isEmpty()) {
+            log.warn("Reconciliation run {}: {} discrepancies in cards [{}, {})",
+                    run.getId(), discrepancies.size(), rangeStart, rangeEnd);
+        }
+    }
+
+    private static void throttle(RunContext context, int cards) {
+        try {
+            context.rateLimiter().acquire(cards);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Reconciliation interrupted");
+        }
+    }
+
+    private static ForkJoinPool.ForkJoinWorkerThreadFactory workerFactory(Long runId) {
+        return pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("reconciliation-" + runId + "-" + thread.getPoolIndex());
+            return thread;
+        };
+    }
+
+    private record RunContext(ReconciliationRun run, Set<Long> completedRangeStarts,
+                              BooleanSupplier stopRequested, RateLimiter rateLimiter, AtomicBoolean skipped) {
+
+        RunContext(ReconciliationRun run, Set<Long> completedRangeStarts,
+                   BooleanSupplier stopRequested, RateLimiter rateLimiter) {
+            this(run, completedRangeStarts, stopRequested, rateLimiter, new AtomicBoolean());
+        }
+    }
+
+    private class RangeTask extends RecursiveAction {
+
+        private final RunContext context;
+        private final int fromRange;
+        private final int toRange;
+
+        RangeTask(RunContext context, int fromRange, int toRange) {
+            this.context = context;
+            this.fromRange = fromRange;
+            this.toRange = toRange;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRange - fromRange <= 1) {
+                if (toRange > fromRange) {
+                    reconcileRange(context, fromRange);
+                }
+                return;
+            }
+            int middle = (fromRange + toRange) >>> 1;
+            invokeAll(new RangeTask(context, fromRange, middle), new RangeTask(context, middle, toRange));
+        }
+    }
+}
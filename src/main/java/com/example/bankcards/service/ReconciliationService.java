@@ -0,0 +1,196 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.ReconciliationDiscrepancy;
+import com.example.bankcards.entity.ReconciliationRun;
+import com.example.bankcards.entity.ReconciliationRun.RunStatus;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.ReconciliationDiscrepancyRepository;
+import com.example.bankcards.repository.ReconciliationJdbcRepository;
+import com.example.bankcards.repository.ReconciliationJdbcRepository.CardIdBounds;
+import com.example.bankcards.repository.ReconciliationJdbcRepository.RunProgress;
+import com.example.bankcards.repository.ReconciliationRunRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+public class ReconciliationService {
+
+    private final ReconciliationRunRepository runRepository;
+    private final ReconciliationDiscrepancyRepository discrepancyRepository;
+    private final ReconciliationJdbcRepository jdbcRepository;
+    private final LedgerReconciler reconciler;
+    private final int rangeSize;
+    private final Duration staleAfter;
+
+    // Runs started by this instance, with their stop flags
+    private final Map<Long, AtomicBoolean> activeRuns = new ConcurrentHashMap<>();
+    // Makes check-then-insert of a run atomic on this instance. A lock rather than synchronized:
+    // it is held across queries, which must not pin a virtual thread's carrier
+    private final ReentrantLock startLock = new ReentrantLock();
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reconciliation-coordinator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReconciliationService(ReconciliationRunRepository runRepository,
+                                 ReconciliationDiscrepancyRepository discrepancyRepository,
+                                 ReconciliationJdbcRepository jdbcRepository,
+                                 LedgerReconciler reconciler,
+                                 @Value("${app.reconciliation.range-size:10000}") int rangeSize,
+                                 @Value("${app.reconciliation.stale-after:5m}") Duration staleAfter) {
+        this.runRepository = runRepository;
+        this.discrepancyRepository = discrepancyRepository;
+        this.jdbcRepository = jdbcRepository;
+        this.reconciler = reconciler;
+        this.rangeSize = Math.max(1, rangeSize);
+        this.staleAfter = staleAfter;
+    }
+
+    public ReconciliationRun start() {
+        startLock.lock();
+        try {
+            ensureNoActiveRun();
+
+            CardIdBounds bounds = jdbcRepository.findCardIdBounds().orElse(null);
+            LocalDateTime now = LocalDateTime.now();
+            ReconciliationRun run = new ReconciliationRun();
+            run.setStatus(RunStatus.RUNNING);
+            run.setMinCardId(bounds != null ? bounds.min() : 0L);
+            run.setMaxCardId(bounds != null ? bounds.max() : 0L);
+            run.setRangeSize(rangeSize);
+            run.setTotalRanges(bounds != null ? Math.toIntExact((bounds.max() - bounds.min()) / rangeSize + 1) : 0);
+            run.setStartedAt(now);
+            run.setHeartbeatAt(now);
+            run = runRepository.save(run);
+
+            launch(run.getId());
+            return run;
+        } finally {
+            startLock.unlock();
+        }
+    }
+
+    // Continues a failed, stopped or abandoned run; ranges with a checkpoint are not read again
+    public ReconciliationRun resume(Long runId) {
+        startLock.lock();
+        try {
+            ReconciliationRun run = getRun(runId);
+            if (run.getStatus() == RunStatus.COMPLETED) {
+                throw new ConflictException("RUN_COMPLETED", "Reconciliation run is already completed");
+            }
+            if (run.getStatus() == RunStatus.RUNNING && !isStale(run)) {
+                throw new ConflictException("RECONCILIATION_RUNNING", "Reconciliation run is still running");
+            }
+            ensureNoActiveRun();
+
+            run.setStatus(RunStatus.RUNNING);
+            run.setHeartbeatAt(LocalDateTime.now());
+            run.setFinishedAt(null);
+            run.setLastError(null);
+            run = runRepository.save(run);
+
+            launch(run.getId());
+            return run;
+        } finally {
+            startLock.unlock();
+        }
+    }
+
+    public ReconciliationRun stop(Long runId) {
+        AtomicBoolean stopFlag = activeRuns.get(runId);
+        if (stopFlag == null) {
+            throw new ConflictException("RUN_NOT_ACTIVE", "Reconciliation run is not running on this instance");
+        }
+        stopFlag.set(true);
+        return getRun(runId);
+    }
+
+    public ReconciliationRun getRun(Long runId) {
+        return runRepository.findById(runId)
+                .orElseThrow(() -> new NotFoundException("RECONCILIATION_RUN_NOT_FOUND", "Reconciliation run not found"));
+    }
+
+    public RunProgress getProgress(Long runId) {
+        return jdbcRepository.getProgress(runId);
+    }
+
+    public Page<ReconciliationDiscrepancy> getDiscrepancies(Long runId, Pageable pageable) {
+        getRun(runId);
+        return discrepancyRepository.findByRunIdOrderByCardId(runId, pageable);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        activeRuns.values().forEach(stopFlag -> stopFlag.set(true));
+        coordinator.shutdown();
+        coordinator.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void ensureNoActiveRun() {
+        boolean runningElsewhere = runRepository.existsByStatusAndHeartbeatAtAfter(
+                RunStatus.RUNNING, LocalDateTime.now().minus(staleAfter));
+        if (!activeRuns.isEmpty() || runningElsewhere) {
+            throw new ConflictException("RECONCILIATION_RUNNING", "Another reconciliation run is in progress");
+        }
+    }
+
+    private boolean isStale(ReconciliationRun run) {
+        return !activeRuns.containsKey(run.getId())
+                && run.getHeartbeatAt().isBefore(LocalDateTime.now().minus(staleAfter));
+    }
+
+    private void launch(Long runId) {
+        AtomicBoolean stopFlag = new AtomicBoolean();
+        activeRuns.put(runId, stopFlag);
+        coordinator.execute(() -> execute(runId, stopFlag));
+    }
+
+    private void execute(Long runId, AtomicBoolean stopFlag) {
+        try {
+            ReconciliationRun run = getRun(runId);
+            boolean finished = reconciler.reconcile(run, jdbcRepository.findCompletedRangeStarts(runId), stopFlag::get);
+            finish(runId, finished ? RunStatus.COMPLETED : RunStatus.INTERRUPTED, null);
+        } catch (CancellationException e) {
+            finish(runId, RunStatus.INTERRUPTED, null);
+        } catch (Exception e) {
+            log.error("Reconciliation run {} failed", runId, e);
+            finish(runId, RunStatus.FAILED, e.getMessage());
+        } finally {
+            activeRuns.remove(runId);
+        }
+    }
+
+    private void finish(Long runId, RunStatus status, String error) {
+        ReconciliationRun run = getRun(runId);
+        RunProgress progress = jdbcRepository.getProgress(runId);
+        LocalDateTime now = LocalDateTime.now();
+        run.setStatus(status);
+        run.setCardsChecked(progress.cardsChecked());
+        run.setDiscrepancies(progress.discrepancies());
+        run.setHeartbeatAt(now);
+        run.setFinishedAt(now);
+        run.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        runRepository.save(run);
+        log.info("Reconciliation run {} {}: {} of {} ranges, {} cards checked, {} discrepancies",
+                runId, status, progress.completedRanges(), run.getTotalRanges(),
+                progress.cardsChecked(), progress.discrepancies());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.RefreshToken;
+import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.util.DigestUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+@Service
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final long refreshExpiration;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               @Value("${jwt.refresh-expiration}") long refreshExpiration) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    @Transactional
+    public String issue(Long userId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUser(userRepository.getReferenceById(userId));
+        refreshToken.setTokenHash(DigestUtil.sha256(rawToken));
+        refreshToken.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpiration * 1_000_000));
+        refreshTokenRepository.save(refreshToken);
+
+        return rawToken;
+    }
+
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public UserPrincipal consume(String rawToken) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(DigestUtil.sha256(rawToken))
+                .orElseThrow(this::invalidToken);
+
+        if (refreshToken.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw invalidToken();
+        }
+
+        if (refreshToken.isRevoked() || refreshTokenRepository.revokeById(refreshToken.getId()) == 0) {
+            // A rotated token was presented again: treat the whole family as stolen
+            refreshTokenRepository.revokeAllByUserId(refreshToken.getUser().getId());
+            throw invalidToken();
+        }
+
+        return UserPrincipal.of(refreshToken.getUser());
+    }
+
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    @Scheduled(cron = "${jwt.refresh-cleanup-cron:0 0 3 * * *}")
+    @Transactional
+    public void deleteExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private UnauthorizedException invalidToken() {
+        return new UnauthorizedException("INVALID_REFRESH_TOKEN", "Invalid refresh token");
+    }
+}
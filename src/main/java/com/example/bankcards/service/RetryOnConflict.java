@@ -0,0 +1,13 @@
+package com.example.bankcards.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Re-runs the method in a new transaction when it lost a race on a row (see ConflictRetryAspect).
+// The method must be safe to run again from the start: it re-reads everything it changes.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,180 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.BusinessException;
+import com.example.bankcards.repository.StandingOrderJdbcRepository;
+import com.example.bankcards.repository.StandingOrderJdbcRepository.DueOrder;
+import com.example.bankcards.util.HashedWheelTimer;
+import com.example.bankcards.util.RateLimiter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs standing orders without a query per order per second:
+// - every poll-interval the loader claims orders due within the horizon, in batches, with SKIP LOCKED;
+// - claimed orders wait in an in-memory hashed wheel until their time;
+// - each tick hands the orders that came due to the workers in batches, throttled by max-transfers-per-second.
+// A midnight peak is therefore spread over polls before midnight and drained at a bounded rate after it.
+@Slf4j
+@Component
+public class StandingOrderEngine {
+
+    private final StandingOrderService orderService;
+    private final StandingOrderJdbcRepository jdbcRepository;
+    private final boolean enabled;
+    private final Duration horizon;
+    private final Duration lease;
+    private final int claimBatchSize;
+    private final int maxScheduled;
+    private final int executionBatchSize;
+    private final RateLimiter rateLimiter;
+
+    private final HashedWheelTimer<DueOrder> wheel;
+    // Claimed and not yet finished: waiting in the wheel, queued for a worker or executing
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "standing-orders-ticker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService workers;
+
+    public StandingOrderEngine(StandingOrderService orderService,
+                               StandingOrderJdbcRepository jdbcRepository,
+                               @Value("${app.standing-orders.enabled:true}") boolean enabled,
+                               @Value("${app.standing-orders.horizon:2m}") Duration horizon,
+                               @Value("${app.standing-orders.lease:10m}") Duration lease,
+                               @Value("${app.standing-orders.claim-batch-size:1000}") int claimBatchSize,
+                               @Value("${app.standing-orders.max-scheduled:100000}") int maxScheduled,
+                               @Value("${app.standing-orders.execution-batch-size:100}") int executionBatchSize,
+                               @Value("${app.standing-orders.workers:4}") int workers,
+                               @Value("${app.standing-orders.max-transfers-per-second:0}") long maxTransfersPerSecond,
+                               @Value("${app.standing-orders.tick:1s}") Duration tick,
+                               @Value("${app.standing-orders.wheel-size:512}") int wheelSize) {
+        this.orderService = orderService;
+        this.jdbcRepository = jdbcRepository;
+        this.enabled = enabled;
+        this.horizon = horizon;
+        this.lease = lease;
+        this.claimBatchSize = Math.max(1, claimBatchSize);
+        this.maxScheduled = Math.max(1, maxScheduled);
+        this.executionBatchSize = Math.max(1, executionBatchSize);
+        this.rateLimiter = new RateLimiter(maxTransfersPerSecond);
+        this.wheel = new HashedWheelTimer<>(tick, wheelSize, System.currentTimeMillis());
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "standing-orders-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            ticker.scheduleAtFixedRate(this::tick, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.standing-orders.poll-interval:PT15S}")
+    public void loadDueOrders() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dueBefore = now.plus(horizon);
+        int claimed = 0;
+        // Stop at max-scheduled unfinished orders: an order leaves the count only when its execution ends,
+        // so a huge backlog is claimed only as fast as it is executed and never sits queued past its lease
+        while (inFlight.get() < maxScheduled) {
+            int limit = Math.min(claimBatchSize, maxScheduled - inFlight.get());
+            List<DueOrder> orders = jdbcRepository.claimDue(dueBefore, now, lease, limit);
+            inFlight.addAndGet(orders.size());
+            for (DueOrder order : orders) {
+                wheel.schedule(order, order.runAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+            claimed += orders.size();
+            if (orders.size() < limit) {
+                break;
+            }
+        }
+        if (claimed > 0) {
+            log.debug("Claimed {} standing orders due before {}", claimed, dueBefore);
+        }
+    }
+
+    public int scheduledCount() {
+        return wheel.size();
+    }
+
+    public int inFlightCount() {
+        return inFlight.get();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        ticker.shutdownNow();
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+        // Let another instance take the orders now instead of after the lease
+        List<DueOrder> unexecuted = wheel.drain();
+        if (!unexecuted.isEmpty()) {
+            inFlight.addAndGet(-unexecuted.size());
+            jdbcRepository.releaseClaims(unexecuted);
+        }
+    }
+
+    private void tick() {
+        try {
+            List<DueOrder> due = wheel.advance(System.currentTimeMillis());
+            for (int from = 0; from < due.size(); from += executionBatchSize) {
+                List<DueOrder> batch = new ArrayList<>(due.subList(from, Math.min(from + executionBatchSize, due.size())));
+                workers.execute(() -> executeBatch(batch));
+            }
+        } catch (Exception e) {
+            log.error("Standing order tick failed", e);
+        }
+    }
+
+    private void executeBatch(List<DueOrder> batch) {
+        int finished = 0;
+        try {
+            for (DueOrder order : batch) {
+                try {
+                    rateLimiter.acquire(1);
+                    orderService.execute(order.id(), order.runAt());
+                } catch (InterruptedException e) {
+                    // The rest stay claimed and are retried once the lease expires
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (BusinessException e) {
+                    recordFailure(order, e.getMessage());
+                } catch (Exception e) {
+                    // Left claimed; it is retried once the lease expires
+                    log.error("Standing order {} failed at {}", order.id(), order.runAt(), e);
+                }
+                finished++;
+                inFlight.decrementAndGet();
+            }
+        } finally {
+            inFlight.addAndGet(-(batch.size() - finished));
+        }
+    }
+
+    private void recordFailure(DueOrder order, String error) {
+        try {
+            orderService.recordFailure(order.id(), order.runAt(), error);
+        } catch (Exception e) {
+            log.error("Could not record failure of standing order {}", order.id(), e);
+        }
+    }
+}
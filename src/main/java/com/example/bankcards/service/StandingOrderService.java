@@ -0,0 +1,190 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.StandingOrderRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.StandingOrder;
+import com.example.bankcards.entity.StandingOrder.StandingOrderStatus;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ForbiddenException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.StandingOrderRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Service
+public class StandingOrderService {
+
+    private final StandingOrderRepository orderRepository;
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+    private final TransferService transferService;
+    private final int maxConsecutiveFailures;
+
+    public StandingOrderService(StandingOrderRepository orderRepository,
+                                CardRepository cardRepository,
+                                UserRepository userRepository,
+                                TransferService transferService,
+                                @Value("${app.standing-orders.max-consecutive-failures:3}") int maxConsecutiveFailures) {
+        this.orderRepository = orderRepository;
+        this.cardRepository = cardRepository;
+        this.userRepository = userRepository;
+        this.transferService = transferService;
+        this.maxConsecutiveFailures = Math.max(1, maxConsecutiveFailures);
+    }
+
+    @Transactional
+    public StandingOrder createOrder(StandingOrderRequest request) {
+        StandingOrder order = new StandingOrder();
+        order.setOwner(userRepository.getReferenceById(UserPrincipal.current().getId()));
+        apply(order, request);
+        return orderRepository.save(order);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<StandingOrder> getMyOrders(Pageable pageable) {
+        return orderRepository.findByOwnerIdOrderById(UserPrincipal.current().getId(), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public StandingOrder getOrderById(Long id) {
+        StandingOrder order = orderRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("STANDING_ORDER_NOT_FOUND", "Standing order not found"));
+
+        if (!order.getOwner().getId().equals(UserPrincipal.current().getId())) {
+            throw new ForbiddenException("ACCESS_DENIED", "Access denied");
+        }
+
+        return order;
+    }
+
+    // Replaces the order and schedules it again from the new start; also revives a completed or failed order
+    @Transactional
+    public StandingOrder updateOrder(Long id, StandingOrderRequest request) {
+        StandingOrder order = getOrderById(id);
+        apply(order, request);
+        return orderRepository.save(order);
+    }
+
+    @Transactional
+    public void deleteOrder(Long id) {
+        orderRepository.delete(getOrderById(id));
+    }
+
+    // Runs one occurrence. Returns false if the order was changed, deleted or already run since it was claimed.
+    // The transfer and the move to the next occurrence commit together, so an occurrence is never paid twice;
+    // a retry after losing a race on a card re-checks the occurrence under the row lock.
+    @RetryOnConflict
+    @Transactional
+    public boolean execute(Long orderId, LocalDateTime runAt) {
+        StandingOrder order = lockScheduled(orderId, runAt);
+        if (order == null) {
+            return false;
+        }
+
+        String description = order.getDescription() != null
+                ? order.getDescription()
+                : "Standing order #" + order.getId();
+        transferService.transferBetweenOwnCards(order.getOwner().getId(), order.getFromCard().getId(),
+                order.getToCard().getId(), order.getAmount(), description);
+
+        order.setConsecutiveFailures(0);
+        order.setLastError(null);
+        moveToNextOccurrence(order);
+        return true;
+    }
+
+    // Called in a fresh transaction after execute() failed: the occurrence is skipped, and the order
+    // stops after max-consecutive-failures in a row until the owner updates it
+    @Transactional
+    public void recordFailure(Long orderId, LocalDateTime runAt, String error) {
+        StandingOrder order = lockScheduled(orderId, runAt);
+        if (order == null) {
+            return;
+        }
+
+        order.setConsecutiveFailures(order.getConsecutiveFailures() + 1);
+        order.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        if (order.getConsecutiveFailures() >= maxConsecutiveFailures) {
+            order.setStatus(StandingOrderStatus.FAILED);
+            order.setNextRunAt(null);
+            order.setLastRunAt(LocalDateTime.now());
+            order.setClaimedUntil(null);
+        } else {
+            moveToNextOccurrence(order);
+        }
+    }
+
+    private StandingOrder lockScheduled(Long orderId, LocalDateTime runAt) {
+        StandingOrder order = orderRepository.findByIdForUpdate(orderId).orElse(null);
+        if (order == null || order.getStatus() != StandingOrderStatus.ACTIVE || !runAt.equals(order.getNextRunAt())) {
+            return null;
+        }
+        return order;
+    }
+
+    // Occurrences missed while the engine was down are skipped rather than paid in a burst
+    private void moveToNextOccurrence(StandingOrder order) {
+        LocalDateTime now = LocalDateTime.now();
+        int occurrence = order.getOccurrence() + 1;
+        LocalDateTime next = order.getFrequency().occurrence(order.getStartAt(), occurrence);
+        while (!next.isAfter(now)) {
+            next = order.getFrequency().occurrence(order.getStartAt(), ++occurrence);
+        }
+
+        order.setLastRunAt(now);
+        order.setClaimedUntil(null);
+        if (order.getEndDate() != null && next.toLocalDate().isAfter(order.getEndDate())) {
+            order.setStatus(StandingOrderStatus.COMPLETED);
+            order.setNextRunAt(null);
+        } else {
+            order.setOccurrence(occurrence);
+            order.setNextRunAt(next);
+        }
+    }
+
+    private void apply(StandingOrder order, StandingOrderRequest request) {
+        Long ownerId = UserPrincipal.current().getId();
+
+        Card fromCard = cardRepository.findById(request.getFromCardId())
+                .orElseThrow(() -> new NotFoundException("SOURCE_CARD_NOT_FOUND", "Source card not found"));
+
+        Card toCard = cardRepository.findById(request.getToCardId())
+                .orElseThrow(() -> new NotFoundException("DESTINATION_CARD_NOT_FOUND", "Destination card not found"));
+
+        if (!fromCard.getOwner().getId().equals(ownerId) || !toCard.getOwner().getId().equals(ownerId)) {
+            throw new ForbiddenException("FOREIGN_CARD", "You can only transfer between your own cards");
+        }
+
+        if (fromCard.getId().equals(toCard.getId())) {
+            throw new BadRequestException("SAME_CARD", "Cannot transfer to the same card");
+        }
+
+        if (request.getEndDate() != null && request.getEndDate().isBefore(request.getStartAt().toLocalDate())) {
+            throw new BadRequestException("INVALID_END_DATE", "End date must not be before the start");
+        }
+
+        LocalDateTime startAt = request.getStartAt().truncatedTo(ChronoUnit.SECONDS);
+        order.setFromCard(fromCard);
+        order.setToCard(toCard);
+        order.setAmount(request.getAmount());
+        order.setDescription(request.getDescription());
+        order.setFrequency(request.getFrequency());
+        order.setStartAt(startAt);
+        order.setEndDate(request.getEndDate());
+        order.setOccurrence(0);
+        order.setNextRunAt(startAt);
+        order.setStatus(StandingOrderStatus.ACTIVE);
+        order.setConsecutiveFailures(0);
+        order.setLastError(null);
+        order.setClaimedUntil(null);
+    }
+}
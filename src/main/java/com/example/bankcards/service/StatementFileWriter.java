@@ -0,0 +1,238 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Statement;
+import com.example.bankcards.entity.StatementRun;
+import com.example.bankcards.repository.StatementJdbcRepository.StatementLine;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+
+// Writes one statement file per user: <output-dir>/<yyyy-MM>/<userId / 1000>/<userId>.csv|json.
+// Files are written to a .tmp sibling and moved into place, so a crash never leaves a truncated statement.
+@Component
+public class StatementFileWriter {
+
+    private static final String CSV_HEADER = "card,transaction_id,date,direction,amount,description\n";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public UserStatement open(StatementRun run, long userId) throws IOException {
+        Path file = statementPath(run, userId);
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8);
+        UserStatement statement = run.getFormat() == StatementRun.StatementFormat.JSON
+                ? new JsonStatement(run, userId, file, tmp, out)
+                : new CsvStatement(run, userId, file, tmp, out);
+        statement.begin();
+        return statement;
+    }
+
+    public static Path statementPath(StatementRun run, long userId) {
+        String extension = run.getFormat().name().toLowerCase();
+        // Buckets of 1000 ids keep directories small with millions of users
+        return Path.of(run.getOutputDir(), YearMonth.from(run.getPeriod()).toString(),
+                String.valueOf(userId / 1000), userId + "." + extension);
+    }
+
+    public abstract static class UserStatement {
+
+        protected final StatementRun run;
+        protected final long userId;
+        private final Path file;
+        private final Path tmp;
+        protected final Writer out;
+
+        private int cardCount;
+        private int transactionCount;
+        private BigDecimal totalIn = BigDecimal.ZERO;
+        private BigDecimal totalOut = BigDecimal.ZERO;
+        private boolean cardOpen;
+        protected String card;
+        protected BigDecimal cardIn;
+        protected BigDecimal cardOut;
+
+        UserStatement(StatementRun run, long userId, Path file, Path tmp, Writer out) {
+            this.run = run;
+            this.userId = userId;
+            this.file = file;
+            this.tmp = tmp;
+            this.out = out;
+        }
+
+        public long userId() {
+            return userId;
+        }
+
+        public void startCard(String maskedCardNumber) throws IOException {
+            endCard();
+            cardOpen = true;
+            cardCount++;
+            card = maskedCardNumber;
+            cardIn = BigDecimal.ZERO;
+            cardOut = BigDecimal.ZERO;
+            beginCard();
+        }
+
+        public void line(StatementLine line) throws IOException {
+            transactionCount++;
+            if (line.incoming()) {
+                cardIn = cardIn.add(line.amount());
+                totalIn = totalIn.add(line.amount());
+            } else {
+                cardOut = cardOut.add(line.amount());
+                totalOut = totalOut.add(line.amount());
+            }
+            writeLine(line);
+        }
+
+        public Statement finish() throws IOException {
+            endCard();
+            end(totalIn, totalOut);
+            out.close();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Statement statement = new Statement();
+            statement.setUserId(userId);
+            statement.setPeriod(run.getPeriod());
+            statement.setCardCount(cardCount);
+            statement.setTransactionCount(transactionCount);
+            statement.setTotalIn(totalIn);
+            statement.setTotalOut(totalOut);
+            statement.setFilePath(file.toString());
+            return statement;
+        }
+
+        private void endCard() throws IOException {
+            if (cardOpen) {
+                cardOpen = false;
+                endCard(cardIn, cardOut);
+            }
+        }
+
+        protected abstract void begin() throws IOException;
+
+        protected abstract void beginCard() throws IOException;
+
+        protected abstract void writeLine(StatementLine line) throws IOException;
+
+        protected abstract void endCard(BigDecimal incoming, BigDecimal outgoing) throws IOException;
+
+        protected abstract void end(BigDecimal totalIn, BigDecimal totalOut) throws IOException;
+    }
+
+    // Flat rows; per-card and per-user totals live in the statements table
+    private static class CsvStatement extends UserStatement {
+
+        CsvStatement(StatementRun run, long userId, Path file, Path tmp, Writer out) {
+            super(run, userId, file, tmp, out);
+        }
+
+        @Override
+        protected void begin() throws IOException {
+            out.write(CSV_HEADER);
+        }
+
+        @Override
+        protected void beginCard() {
+        }
+
+        @Override
+        protected void writeLine(StatementLine line) throws IOException {
+            out.write(card);
+            out.write(',');
+            out.write(Long.toString(line.transactionId()));
+            out.write(',');
+            out.write(line.date().toString());
+            out.write(',');
+            out.write(line.incoming() ? "IN" : "OUT");
+            out.write(',');
+            out.write(line.amount().toPlainString());
+            out.write(',');
+            out.write(escape(line.description()));
+            out.write('\n');
+        }
+
+        @Override
+        protected void endCard(BigDecimal incoming, BigDecimal outgoing) {
+        }
+
+        @Override
+        protected void end(BigDecimal totalIn, BigDecimal totalOut) {
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private class JsonStatement extends UserStatement {
+
+        private JsonGenerator json;
+
+        JsonStatement(StatementRun run, long userId, Path file, Path tmp, Writer out) {
+            super(run, userId, file, tmp, out);
+        }
+
+        @Override
+        protected void begin() throws IOException {
+            json = jsonFactory.createGenerator(out);
+            json.writeStartObject();
+            json.writeNumberField("userId", userId);
+            json.writeStringField("period", YearMonth.from(run.getPeriod()).toString());
+            json.writeArrayFieldStart("cards");
+        }
+
+        @Override
+        protected void beginCard() throws IOException {
+            json.writeStartObject();
+            json.writeStringField("card", card);
+            json.writeArrayFieldStart("transactions");
+        }
+
+        @Override
+        protected void writeLine(StatementLine line) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", line.transactionId());
+            json.writeStringField("date", line.date().toString());
+            json.writeStringField("direction", line.incoming() ? "IN" : "OUT");
+            json.writeNumberField("amount", line.amount());
+            if (line.description() != null) {
+                json.writeStringField("description", line.description());
+            }
+            json.writeEndObject();
+        }
+
+        @Override
+        protected void endCard(BigDecimal incoming, BigDecimal outgoing) throws IOException {
+            json.writeEndArray();
+            json.writeNumberField("totalIn", incoming);
+            json.writeNumberField("totalOut", outgoing);
+            json.writeEndObject();
+        }
+
+        @Override
+        protected void end(BigDecimal totalIn, BigDecimal totalOut) throws IOException {
+            json.writeEndArray();
+            json.writeNumberField("totalIn", totalIn);
+            json.writeNumberField("totalOut", totalOut);
+            json.writeEndObject();
+            json.flush();
+        }
+    }
+}
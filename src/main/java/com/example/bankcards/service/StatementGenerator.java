@@ -0,0 +1,109 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Statement;
+import com.example.bankcards.entity.StatementRun;
+import com.example.bankcards.repository.StatementJdbcRepository;
+import com.example.bankcards.repository.StatementJdbcRepository.CardRow;
+import com.example.bankcards.repository.StatementJdbcRepository.StatementLine;
+import com.example.bankcards.util.CardMaskingUtil;
+import com.example.bankcards.util.EncryptionUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Generates the statements of one chunk of users: one query for their cards, one streamed query
+// for their month of transactions (ordered by user and card), then one batch insert of the summaries
+@Component
+@RequiredArgsConstructor
+public class StatementGenerator {
+
+    private final StatementJdbcRepository jdbcRepository;
+    private final StatementFileWriter fileWriter;
+    private final EncryptionUtil encryptionUtil;
+
+    public int generate(StatementRun run, long fromUserId, long toUserId) {
+        List<CardRow> cards = jdbcRepository.findPendingCards(fromUserId, toUserId, run.getPeriod());
+        if (cards.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime from = run.getPeriod().atStartOfDay();
+        LocalDateTime to = run.getPeriod().plusMonths(1).atStartOfDay();
+        ChunkWriter chunk = new ChunkWriter(run, cards);
+        jdbcRepository.streamTransactions(fromUserId, toUserId, from, to, chunk::accept);
+        List<Statement> statements = chunk.finish();
+
+        jdbcRepository.saveStatements(run.getId(), statements);
+        return statements.size();
+    }
+
+    // Walks the card list in the same order as the transaction stream, so cards without
+    // transactions still appear and each user file is opened and closed exactly once
+    private class ChunkWriter {
+
+        private final StatementRun run;
+        private final List<CardRow> cards;
+        private final Map<Long, Integer> cardPositions = new HashMap<>();
+        private final List<Statement> statements = new ArrayList<>();
+        private StatementFileWriter.UserStatement current;
+        private int position = -1;
+
+        ChunkWriter(StatementRun run, List<CardRow> cards) {
+            this.run = run;
+            this.cards = cards;
+            for (int i = 0; i < cards.size(); i++) {
+                cardPositions.put(cards.get(i).cardId(), i);
+            }
+        }
+
+        void accept(StatementLine line) {
+            Integer cardPosition = cardPositions.get(line.cardId());
+            // Cards of users finished before a restart, or created after the card query
+            if (cardPosition == null || cardPosition < position) {
+                return;
+            }
+            try {
+                advanceTo(cardPosition);
+                current.line(line);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        List<Statement> finish() {
+            try {
+                advanceTo(cards.size() - 1);
+                closeCurrent();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return statements;
+        }
+
+        private void advanceTo(int cardPosition) throws IOException {
+            while (position < cardPosition) {
+                position++;
+                CardRow card = cards.get(position);
+                if (current == null || current.userId() != card.ownerId()) {
+                    closeCurrent();
+                    current = fileWriter.open(run, card.ownerId());
+                }
+                current.startCard(CardMaskingUtil.maskCardNumber(encryptionUtil.decrypt(card.cardNumberEncrypted())));
+            }
+        }
+
+        private void closeCurrent() throws IOException {
+            if (current != null) {
+                statements.add(current.finish());
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.StatementRun;
+import com.example.bankcards.entity.StatementRun.RunStatus;
+import com.example.bankcards.entity.StatementRun.StatementFormat;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.StatementJdbcRepository;
+import com.example.bankcards.repository.StatementRunRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+public class StatementService {
+
+    private final StatementRunRepository runRepository;
+    private final StatementJdbcRepository jdbcRepository;
+    private final StatementGenerator generator;
+    private final String outputDir;
+    private final StatementFormat format;
+    private final int chunkSize;
+    private final int concurrency;
+    private final Duration staleAfter;
+
+    // Runs started by this instance, with their stop flags
+    private final Map<Long, AtomicBoolean> activeRuns = new ConcurrentHashMap<>();
+    // Makes check-then-save of a run atomic on this instance; held across queries, so not a monitor,
+    // which would pin a virtual thread's carrier
+    private final ReentrantLock startLock = new ReentrantLock();
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "statements-coordinator");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService workers;
+
+    public StatementService(StatementRunRepository runRepository,
+                            StatementJdbcRepository jdbcRepository,
+                            StatementGenerator generator,
+                            @Value("${app.statements.output-dir:./statements}") String outputDir,
+                            @Value("${app.statements.format:CSV}") StatementFormat format,
+                            @Value("${app.statements.chunk-size:500}") int chunkSize,
+                            @Value("${app.statements.concurrency:4}") int concurrency,
+                            @Value("${app.statements.stale-after:5m}") Duration staleAfter) {
+        this.runRepository = runRepository;
+        this.jdbcRepository = jdbcRepository;
+        this.generator = generator;
+        this.outputDir = outputDir;
+        this.format = format;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.concurrency = Math.max(1, concurrency);
+        this.staleAfter = staleAfter;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "statements-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // One run per month: a failed, stopped or abandoned run is continued and skips users that already have a statement
+    public StatementRun start(YearMonth period) {
+        startLock.lock();
+        try {
+            if (!activeRuns.isEmpty()) {
+                throw new ConflictException("STATEMENTS_RUNNING", "Another statement run is in progress");
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            StatementRun run = runRepository.findByPeriod(period.atDay(1)).orElse(null);
+            if (run == null) {
+                run = new StatementRun();
+                run.setPeriod(period.atDay(1));
+                run.setFormat(format);
+                run.setOutputDir(outputDir);
+                run.setStartedAt(now);
+            } else if (run.getStatus() == RunStatus.COMPLETED) {
+                throw new ConflictException("STATEMENTS_COMPLETED", "Statements for " + period + " are already generated");
+            } else if (run.getStatus() == RunStatus.RUNNING && !isStale(run)) {
+                throw new ConflictException("STATEMENTS_RUNNING", "Statements for " + period + " are being generated");
+            }
+            // Format and output directory stay those of the first attempt, so a restart completes the same file set
+            run.setStatus(RunStatus.RUNNING);
+            run.setHeartbeatAt(now);
+            run.setFinishedAt(null);
+            run.setLastError(null);
+            try {
+                run = runRepository.save(run);
+            } catch (DataIntegrityViolationException e) {
+                throw new ConflictException("STATEMENTS_RUNNING", "Statements for " + period + " are being generated");
+            }
+
+            launch(run.getId());
+            return run;
+        } finally {
+            startLock.unlock();
+        }
+    }
+
+    public StatementRun stop(Long runId) {
+        AtomicBoolean stopFlag = activeRuns.get(runId);
+        if (stopFlag == null) {
+            throw new ConflictException("RUN_NOT_ACTIVE", "Statement run is not running on this instance");
+        }
+        stopFlag.set(true);
+        return getRun(runId);
+    }
+
+    public StatementRun getRun(Long runId) {
+        return runRepository.findById(runId)
+                .orElseThrow(() -> new NotFoundException("STATEMENT_RUN_NOT_FOUND", "Statement run not found"));
+    }
+
+    public long countStatements(Long runId) {
+        return jdbcRepository.countStatements(runId);
+    }
+
+    // Nightly job for the previous month; disabled unless app.statements.cron is set
+    @Scheduled(cron = "${app.statements.cron:-}")
+    public void generatePreviousMonth() {
+        try {
+            start(YearMonth.now().minusMonths(1));
+        } catch (ConflictException e) {
+            log.info("Scheduled statement run skipped: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        activeRuns.values().forEach(stopFlag -> stopFlag.set(true));
+        coordinator.shutdown();
+        coordinator.awaitTermination(30, TimeUnit.SECONDS);
+        workers.shutdown();
+    }
+
+    private boolean isStale(StatementRun run) {
+        return !activeRuns.containsKey(run.getId())
+                && run.getHeartbeatAt().isBefore(LocalDateTime.now().minus(staleAfter));
+    }
+
+    private void launch(Long runId) {
+        AtomicBoolean stopFlag = new AtomicBoolean();
+        activeRuns.put(runId, stopFlag);
+        coordinator.execute(() -> execute(runId, stopFlag));
+    }
+
+    // Pages users by id and hands each page to a worker; the semaphore keeps at most `concurrency`
+    // chunks in flight, so memory and open result sets stay bounded however many users there are
+    private void execute(Long runId, AtomicBoolean stopFlag) {
+        Semaphore permits = new Semaphore(concurrency);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        try {
+            StatementRun run = getRun(runId);
+            long afterUserId = 0;
+            while (!stopFlag.get() && failure.get() == null) {
+                List<Long> userIds = jdbcRepository.findUserIdsAfter(afterUserId, chunkSize);
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                long fromUserId = userIds.get(0);
+                long toUserId = userIds.get(userIds.size() - 1);
+                afterUserId = toUserId;
+
+                permits.acquire();
+                try {
+                    workers.execute(() -> {
+                        try {
+                            generator.generate(run, fromUserId, toUserId);
+                        } catch (Exception e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+                jdbcRepository.touchRun(runId);
+            }
+            // Wait for the chunks still in flight
+            permits.acquire(concurrency);
+
+            if (failure.get() != null) {
+                log.error("Statement run {} failed", runId, failure.get());
+                finish(runId, RunStatus.FAILED, failure.get().getMessage());
+            } else {
+                finish(runId, stopFlag.get() ? RunStatus.INTERRUPTED : RunStatus.COMPLETED, null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(runId, RunStatus.INTERRUPTED, null);
+        } catch (Exception e) {
+            log.error("Statement run {} failed", runId, e);
+            finish(runId, RunStatus.FAILED, e.getMessage());
+        } finally {
+            activeRuns.remove(runId);
+        }
+    }
+
+    private void finish(Long runId, RunStatus status, String error) {
+        StatementRun run = getRun(runId);
+        long usersProcessed = jdbcRepository.countStatements(runId);
+        LocalDateTime now = LocalDateTime.now();
+        run.setStatus(status);
+        run.setUsersProcessed(usersProcessed);
+        run.setHeartbeatAt(now);
+        run.setFinishedAt(now);
+        run.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        runRepository.save(run);
+        log.info("Statement run {} for {} {}: {} statements", runId, YearMonth.from(run.getPeriod()), status, usersProcessed);
+    }
+}
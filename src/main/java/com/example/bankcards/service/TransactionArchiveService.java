@@ -0,0 +1,250 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransactionArchiveStatusDto;
+import com.example.bankcards.entity.TransactionArchiveSegment;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.repository.TransactionArchiveJdbcRepository;
+import com.example.bankcards.repository.TransactionArchiveSegmentRepository;
+import com.example.bankcards.repository.TransactionSegmentFile;
+import com.example.bankcards.repository.TransactionSegmentFile.ArchivedTransaction;
+import com.example.bankcards.repository.TransactionSegmentFile.Summary;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Moves transactions older than older-than out of the hot table into segment files (TransactionSegmentFile)
+// and serves them back to the history reads.
+// - Each segment is written and synced first; then its catalog row, the per-card archived totals and the
+//   deletion of its rows commit in one transaction. A crash in between leaves an unlisted file that is
+//   overwritten by the next run.
+// - Every node keeps the listed segments mapped. Before reading, it compares the newest catalog id with
+//   its own and reopens the catalog if another node added a segment, so the directory has to be shared
+//   storage when several nodes serve history.
+@Slf4j
+@Service
+public class TransactionArchiveService {
+
+    private final TransactionArchiveSegmentRepository segmentRepository;
+    private final TransactionArchiveJdbcRepository jdbcRepository;
+    private final Path directory;
+    private final Period olderThan;
+    private final int segmentSize;
+    private final int blockRows;
+
+    private volatile Catalog catalog = new Catalog(-1, List.of());
+    private volatile String lastError;
+    private final AtomicBoolean running = new AtomicBoolean();
+    // One reload at a time; it reads the catalog and opens files, so a plain lock that does not pin a carrier thread
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "transaction-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TransactionArchiveService(TransactionArchiveSegmentRepository segmentRepository,
+                                     TransactionArchiveJdbcRepository jdbcRepository,
+                                     @Value("${app.transactions.archive.directory:./archive}") String directory,
+                                     @Value("${app.transactions.archive.older-than:2y}") Period olderThan,
+                                     @Value("${app.transactions.archive.segment-size:50000}") int segmentSize,
+                                     @Value("${app.transactions.archive.block-rows:512}") int blockRows) {
+        this.segmentRepository = segmentRepository;
+        this.jdbcRepository = jdbcRepository;
+        this.directory = Paths.get(directory);
+        this.olderThan = olderThan;
+        this.segmentSize = Math.max(1, segmentSize);
+        this.blockRows = Math.max(1, blockRows);
+    }
+
+    public TransactionArchiveStatusDto start() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("ARCHIVE_RUNNING", "Transaction archival is already running");
+        }
+        try {
+            runner.execute(this::runAndRelease);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return getStatus();
+    }
+
+    // Nightly job; disabled unless app.transactions.archive.cron is set
+    @Scheduled(cron = "${app.transactions.archive.cron:-}")
+    public void archiveScheduled() {
+        if (running.compareAndSet(false, true)) {
+            runAndRelease();
+        } else {
+            log.info("Scheduled transaction archival skipped: already running");
+        }
+    }
+
+    public TransactionArchiveStatusDto getStatus() {
+        Catalog current = currentCatalog();
+        long transactions = 0;
+        long size = 0;
+        LocalDateTime oldest = null;
+        LocalDateTime newest = null;
+        for (TransactionSegmentFile segment : current.segments()) {
+            Summary summary = segment.summary();
+            transactions += summary.transactionCount();
+            size += summary.sizeBytes();
+            oldest = oldest == null || summary.minDate().isBefore(oldest) ? summary.minDate() : oldest;
+            newest = newest == null || summary.maxDate().isAfter(newest) ? summary.maxDate() : newest;
+        }
+        return new TransactionArchiveStatusDto(running.get(), current.segments().size(), transactions, size,
+                oldest, newest, lastError);
+    }
+
+    // Archived transactions of the cards with from <= date < to (either bound may be null), newest first.
+    // A transfer between two of the cards is returned once.
+    public List<ArchivedTransaction> findByCards(Collection<Long> cardIds, LocalDateTime from, LocalDateTime to) {
+        if (cardIds.isEmpty() || (from != null && from.isAfter(archiveHorizon()))) {
+            // The range stays within the hot table: no catalog check, no segment touched
+            return List.of();
+        }
+        Map<Long, ArchivedTransaction> found = new LinkedHashMap<>();
+        for (TransactionSegmentFile segment : currentCatalog().segments()) {
+            Summary summary = segment.summary();
+            if ((from != null && summary.maxDate().isBefore(from)) || (to != null && !summary.minDate().isBefore(to))) {
+                continue;
+            }
+            for (Long cardId : cardIds) {
+                segment.findByCard(cardId, from, to).forEach(transaction -> found.putIfAbsent(transaction.id(), transaction));
+            }
+        }
+        List<ArchivedTransaction> result = new ArrayList<>(found.values());
+        result.sort(Comparator.comparing(ArchivedTransaction::transactionDate)
+                .thenComparingLong(ArchivedTransaction::id).reversed());
+        return result;
+    }
+
+    // Ids are unique across segments: each segment costs an id range check and a binary search over its
+    // id directory, and only the segment holding the id inflates one block
+    public Optional<ArchivedTransaction> findById(long id) {
+        for (TransactionSegmentFile segment : currentCatalog().segments()) {
+            Optional<ArchivedTransaction> transaction = segment.findById(id);
+            if (transaction.isPresent()) {
+                return transaction;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        runner.shutdown();
+        runner.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    // Number of segments written; stops at the first failure, the segments before it are kept
+    int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(olderThan);
+        int written = 0;
+        lastError = null;
+        try {
+            while (true) {
+                List<ArchivedTransaction> batch = jdbcRepository.findOldest(cutoff, segmentSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                // Rows come in id order, and a segment is named after its id range
+                String fileName = String.format("transactions-%019d-%019d.seg",
+                        batch.get(0).id(), batch.get(batch.size() - 1).id());
+                Summary summary = TransactionSegmentFile.write(directory.resolve(fileName), batch, blockRows);
+                jdbcRepository.commitSegment(fileName, summary, batch);
+                written++;
+                log.info("Archived {} transactions up to {} into {} ({} bytes)",
+                        summary.transactionCount(), summary.maxDate(), fileName, summary.sizeBytes());
+            }
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            log.error("Transaction archival failed after {} segments", written, e);
+        }
+        return written;
+    }
+
+    private void runAndRelease() {
+        try {
+            archive();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Nothing newer than this can be archived: segments known here, or any written since, which only
+    // take transactions older than the cutoff
+    private LocalDateTime archiveHorizon() {
+        LocalDateTime horizon = LocalDateTime.now().minus(olderThan);
+        for (TransactionSegmentFile segment : catalog.segments()) {
+            if (segment.summary().maxDate().isAfter(horizon)) {
+                horizon = segment.summary().maxDate();
+            }
+        }
+        return horizon;
+    }
+
+    private Catalog currentCatalog() {
+        Catalog current = catalog;
+        long latestId = jdbcRepository.findLatestSegmentId();
+        return latestId == current.latestId() ? current : reload(latestId);
+    }
+
+    // Segments already mapped are kept. A listed file that cannot be opened is left out and retried on the next read
+    private Catalog reload(long latestId) {
+        reloadLock.lock();
+        try {
+            Catalog current = catalog;
+            if (current.latestId() == latestId) {
+                return current;
+            }
+            Map<String, TransactionSegmentFile> mapped = new HashMap<>();
+            current.segments().forEach(segment -> mapped.put(segment.path().getFileName().toString(), segment));
+
+            List<TransactionSegmentFile> segments = new ArrayList<>();
+            boolean complete = true;
+            for (TransactionArchiveSegment row : segmentRepository.findAll()) {
+                TransactionSegmentFile segment = mapped.get(row.getFileName());
+                if (segment == null) {
+                    try {
+                        segment = TransactionSegmentFile.open(directory.resolve(row.getFileName()));
+                    } catch (UncheckedIOException e) {
+                        log.error("Archive segment {} is listed but unreadable", row.getFileName(), e);
+                        complete = false;
+                        continue;
+                    }
+                }
+                segments.add(segment);
+            }
+            Catalog reloaded = new Catalog(complete ? latestId : -1, List.copyOf(segments));
+            catalog = reloaded;
+            return reloaded;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private record Catalog(long latestId, List<TransactionSegmentFile> segments) {
+    }
+}
@@ -3,59 +3,84 @@ package com.example.bankcards.service;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.Transaction;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.exception.ForbiddenException;
+import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.repository.TransactionSegmentFile.ArchivedTransaction;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class TransferService {
 
+    // Bounds for an open-ended date range in the hot table query
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final CardRepository cardRepository;
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionArchiveService archiveService;
+    private final UserCardSummaryService summaryService;
 
+    @RetryOnConflict
     @Transactional
     public Transaction transferBetweenMyCards(Long fromCardId, Long toCardId, BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new RuntimeException("Transfer amount must be positive");
-        }
+        // Rejected before the principal is resolved, so a bad amount costs one stackless exception
+        requirePositive(amount);
+        return transferBetweenOwnCards(UserPrincipal.current().getId(), fromCardId, toCardId, amount,
+                "Transfer between own cards");
+    }
 
-        User currentUser = getCurrentUser();
+    // Same checks as a user's own transfer, for callers without a security context (standing orders)
+    @Transactional
+    public Transaction transferBetweenOwnCards(Long ownerId, Long fromCardId, Long toCardId, BigDecimal amount,
+                                               String description) {
+        requirePositive(amount);
 
         Card fromCard = cardRepository.findById(fromCardId)
-                .orElseThrow(() -> new RuntimeException("Source card not found"));
+                .orElseThrow(() -> new NotFoundException("SOURCE_CARD_NOT_FOUND", "Source card not found"));
 
         Card toCard = cardRepository.findById(toCardId)
-                .orElseThrow(() -> new RuntimeException("Destination card not found"));
+                .orElseThrow(() -> new NotFoundException("DESTINATION_CARD_NOT_FOUND", "Destination card not found"));
 
-        if (!fromCard.getOwner().getId().equals(currentUser.getId()) ||
-                !toCard.getOwner().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("You can only transfer between your own cards");
+        if (!fromCard.getOwner().getId().equals(ownerId) ||
+                !toCard.getOwner().getId().equals(ownerId)) {
+            throw new ForbiddenException("FOREIGN_CARD", "You can only transfer between your own cards");
         }
 
         if (fromCardId.equals(toCardId)) {
-            throw new RuntimeException("Cannot transfer to the same card");
+            throw new BadRequestException("SAME_CARD", "Cannot transfer to the same card");
         }
 
         if (fromCard.getStatus() != Card.CardStatus.ACTIVE) {
-            throw new RuntimeException("Source card is not active");
+            throw new ConflictException("SOURCE_CARD_NOT_ACTIVE", "Source card is not active");
         }
 
         if (toCard.getStatus() != Card.CardStatus.ACTIVE) {
-            throw new RuntimeException("Destination card is not active");
+            throw new ConflictException("DESTINATION_CARD_NOT_ACTIVE", "Destination card is not active");
         }
 
         if (fromCard.getBalance().compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient balance");
+            throw new ConflictException("INSUFFICIENT_BALANCE", "Insufficient balance");
         }
 
         fromCard.setBalance(fromCard.getBalance().subtract(amount));
@@ -63,19 +88,34 @@ public class TransferService {
 
         cardRepository.save(fromCard);
         cardRepository.save(toCard);
+        summaryService.transferred(fromCard, toCard, amount);
+        eventPublisher.publishEvent(new CardChangedEvent(fromCard, false));
+        eventPublisher.publishEvent(new CardChangedEvent(toCard, false));
 
         Transaction transaction = new Transaction();
         transaction.setFromCard(fromCard);
         transaction.setToCard(toCard);
         transaction.setAmount(amount);
         transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
-        transaction.setDescription("Transfer between own cards");
+        transaction.setDescription(description);
 
         return transactionRepository.save(transaction);
     }
 
+    @Transactional(readOnly = true)
     public List<Transaction> getMyTransactions() {
-        User currentUser = getCurrentUser();
+        return getMyTransactions(null, null);
+    }
+
+    // History with from <= date < to (either bound may be null). Rows moved to the archive are read
+    // from its segments only when the range reaches back past the hot table; the hot table is read
+    // first, so a segment committed in between shows its rows twice at worst, and duplicates are dropped.
+    @Transactional(readOnly = true)
+    public List<Transaction> getMyTransactions(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("INVALID_DATE_RANGE", "'from' must be before 'to'");
+        }
+        User currentUser = userRepository.getReferenceById(UserPrincipal.current().getId());
 
         List<Card> myCards = cardRepository.findByOwner(currentUser, null).getContent();
 
@@ -83,31 +123,64 @@ public class TransferService {
             return List.of();
         }
 
-        return myCards.stream()
-                .flatMap(card -> transactionRepository
-                        .findByFromCardIdOrToCardId(card.getId(), card.getId())
-                        .stream())
-                .distinct()
-                .toList();
+        Map<Long, Transaction> transactions = new LinkedHashMap<>();
+        for (Card card : myCards) {
+            List<Transaction> hot = from == null && to == null
+                    ? transactionRepository.findByFromCardIdOrToCardId(card.getId(), card.getId())
+                    : transactionRepository.findByCardIdAndDateRange(card.getId(),
+                            from != null ? from : MIN_DATE, to != null ? to : MAX_DATE);
+            hot.forEach(transaction -> transactions.putIfAbsent(transaction.getId(), transaction));
+        }
+
+        Map<Long, Card> cardsById = new HashMap<>();
+        myCards.forEach(card -> cardsById.put(card.getId(), card));
+        for (ArchivedTransaction archived : archiveService.findByCards(cardsById.keySet(), from, to)) {
+            transactions.putIfAbsent(archived.id(), toTransaction(archived, cardsById));
+        }
+        return new ArrayList<>(transactions.values());
     }
 
+    @Transactional(readOnly = true)
     public Transaction getTransactionById(Long id) {
         Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+                .or(() -> archiveService.findById(id).map(archived -> toTransaction(archived, Map.of())))
+                .orElseThrow(() -> new NotFoundException("TRANSACTION_NOT_FOUND", "Transaction not found"));
 
-        User currentUser = getCurrentUser();
+        UserPrincipal currentUser = UserPrincipal.current();
 
-        if (!transaction.getFromCard().getOwner().getId().equals(currentUser.getId()) &&
-                !transaction.getToCard().getOwner().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Access denied");
+        if (!isOwnedBy(transaction.getFromCard(), currentUser.getId()) &&
+                !isOwnedBy(transaction.getToCard(), currentUser.getId())) {
+            throw new ForbiddenException("ACCESS_DENIED", "Access denied");
         }
 
         return transaction;
     }
 
-    private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return userRepository.findByUsername(auth.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private static void requirePositive(BigDecimal amount) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BadRequestException("INVALID_AMOUNT", "Transfer amount must be positive");
+        }
+    }
+
+    // Detached view of an archived row; a card deleted since then is left null
+    private Transaction toTransaction(ArchivedTransaction archived, Map<Long, Card> knownCards) {
+        Transaction transaction = new Transaction();
+        transaction.setId(archived.id());
+        transaction.setFromCard(findCard(archived.fromCardId(), knownCards).orElse(null));
+        transaction.setToCard(findCard(archived.toCardId(), knownCards).orElse(null));
+        transaction.setAmount(archived.amount());
+        transaction.setTransactionDate(archived.transactionDate());
+        transaction.setStatus(Transaction.TransactionStatus.valueOf(archived.status()));
+        transaction.setDescription(archived.description());
+        return transaction;
+    }
+
+    private Optional<Card> findCard(long cardId, Map<Long, Card> knownCards) {
+        Card card = knownCards.get(cardId);
+        return card != null ? Optional.of(card) : cardRepository.findById(cardId);
+    }
+
+    private static boolean isOwnedBy(Card card, Long userId) {
+        return card != null && card.getOwner().getId().equals(userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardSummaryRebuildResultDto;
+import com.example.bankcards.dto.UserCardSummaryDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.repository.UserCardSummaryJdbcRepository;
+import com.example.bankcards.repository.UserCardSummaryJdbcRepository.SummaryDelta;
+import com.example.bankcards.repository.UserCardSummaryRepository;
+import com.example.bankcards.security.UserPrincipal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Per-user card count, status counts and total balance for the home screen, read by primary key.
+// CardService, TransferService and the bulk operations report every change in the transaction that
+// makes it; rebuild() recomputes the table from cards if it ever drifts.
+@Slf4j
+@Service
+public class UserCardSummaryService {
+
+    private final UserCardSummaryRepository summaryRepository;
+    private final UserCardSummaryJdbcRepository jdbcRepository;
+    private final int rebuildChunkSize;
+
+    public UserCardSummaryService(UserCardSummaryRepository summaryRepository,
+                                  UserCardSummaryJdbcRepository jdbcRepository,
+                                  @Value("${app.cards.summary.rebuild-chunk-size:500}") int rebuildChunkSize) {
+        this.summaryRepository = summaryRepository;
+        this.jdbcRepository = jdbcRepository;
+        this.rebuildChunkSize = Math.max(1, rebuildChunkSize);
+    }
+
+    @Transactional(readOnly = true)
+    public UserCardSummaryDto getMySummary() {
+        return summaryRepository.findById(UserPrincipal.current().getId())
+                .map(summary -> new UserCardSummaryDto(summary.getCardCount(), summary.getActiveCount(),
+                        summary.getBlockedCount(), summary.getExpiredCount(), summary.getTotalBalance(),
+                        summary.getUpdatedAt()))
+                .orElseGet(() -> new UserCardSummaryDto(0, 0, 0, 0, BigDecimal.ZERO, null));
+    }
+
+    public void cardAdded(Card card) {
+        jdbcRepository.applyDelta(card.getOwner().getId(), SummaryDelta.added(card.getStatus(), card.getBalance()));
+    }
+
+    public void cardRemoved(Card card) {
+        jdbcRepository.applyDelta(card.getOwner().getId(), SummaryDelta.removed(card.getStatus(), card.getBalance()));
+    }
+
+    public void statusChanged(Card card, Card.CardStatus previous) {
+        jdbcRepository.applyDelta(card.getOwner().getId(), SummaryDelta.statusChanged(previous, card.getStatus()));
+    }
+
+    // A transfer between cards of one owner leaves the total as it is and writes nothing
+    public void transferred(Card from, Card to, BigDecimal amount) {
+        Long fromOwner = from.getOwner().getId();
+        Long toOwner = to.getOwner().getId();
+        if (fromOwner.equals(toOwner)) {
+            return;
+        }
+        jdbcRepository.applyDelta(fromOwner, SummaryDelta.balanceChanged(amount.negate()));
+        jdbcRepository.applyDelta(toOwner, SummaryDelta.balanceChanged(amount));
+    }
+
+    // Users in id order, rebuild-chunk-size per transaction
+    public CardSummaryRebuildResultDto rebuild() {
+        long started = System.currentTimeMillis();
+        long users = 0;
+        long corrected = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> userIds = jdbcRepository.findUserIdsAfter(afterId, rebuildChunkSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            corrected += jdbcRepository.rebuild(userIds);
+            users += userIds.size();
+            afterId = userIds.get(userIds.size() - 1);
+        }
+        long duration = System.currentTimeMillis() - started;
+        if (corrected > 0) {
+            log.warn("Card summary rebuild corrected {} of {} users in {} ms", corrected, users, duration);
+        } else {
+            log.info("Card summary rebuild checked {} users in {} ms, nothing to correct", users, duration);
+        }
+        return new CardSummaryRebuildResultDto(users, corrected, duration);
+    }
+}
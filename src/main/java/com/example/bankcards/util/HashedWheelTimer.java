@@ -0,0 +1,106 @@
+package com.example.bankcards.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hashed timing wheel: scheduling is O(1) and a tick only touches one bucket, so holding millions of
+// deadlines costs nothing until they are due. Items fire at most one tick late, never early.
+// The owner drives it by calling advance() on every tick; schedule() may be called from any thread.
+public class HashedWheelTimer<T> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final List<Entry<T>>[] buckets;
+    private final Queue<Entry<T>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimer(Duration tickDuration, int wheelSize, long startMillis) {
+        if (tickDuration.toMillis() <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        int normalizedSize = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickMillis = tickDuration.toMillis();
+        this.startMillis = startMillis;
+        this.mask = Math.max(1, normalizedSize) - 1;
+        this.buckets = new List[mask + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+    }
+
+    public void schedule(T item, long deadlineMillis) {
+        pending.add(new Entry<>(item, deadlineMillis));
+        size.incrementAndGet();
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    // Runs every tick that has elapsed by nowMillis and returns the items that expired
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long lastTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        while (tick <= lastTick) {
+            transferPending();
+            List<Entry<T>> bucket = buckets[(int) (tick & mask)];
+            int kept = 0;
+            for (int i = 0; i < bucket.size(); i++) {
+                Entry<T> entry = bucket.get(i);
+                if (entry.rounds <= 0) {
+                    expired.add(entry.item);
+                } else {
+                    entry.rounds--;
+                    bucket.set(kept++, entry);
+                }
+            }
+            bucket.subList(kept, bucket.size()).clear();
+            tick++;
+        }
+        size.addAndGet(-expired.size());
+        return expired;
+    }
+
+    // Removes and returns everything still scheduled, e.g. to hand it back on shutdown
+    public synchronized List<T> drain() {
+        List<T> items = new ArrayList<>();
+        Entry<T> entry;
+        while ((entry = pending.poll()) != null) {
+            items.add(entry.item);
+        }
+        for (List<Entry<T>> bucket : buckets) {
+            bucket.forEach(e -> items.add(e.item));
+            bucket.clear();
+        }
+        size.addAndGet(-items.size());
+        return items;
+    }
+
+    private void transferPending() {
+        Entry<T> entry;
+        while ((entry = pending.poll()) != null) {
+            // Round the deadline up to a tick so nothing fires early; overdue items go to the current tick
+            long deadlineTick = Math.max(Math.floorDiv(entry.deadlineMillis - startMillis + tickMillis - 1, tickMillis), tick);
+            entry.rounds = (deadlineTick - tick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(entry);
+        }
+    }
+
+    private static class Entry<T> {
+        private final T item;
+        private final long deadlineMillis;
+        private long rounds;
+
+        Entry(T item, long deadlineMillis) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.bankcards.util;
 
+import com.example.bankcards.security.UserPrincipal;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -13,20 +16,34 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long expiration;
+    private final int verifiedCacheSize;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Keyed by SHA-256 of the token, so raw bearer tokens are never kept in memory
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    // The same entries ordered by expiry, so expired ones are dropped from the head without a scan
+    private final ConcurrentSkipListSet<ExpiryKey> expiryOrder = new ConcurrentSkipListSet<>();
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") long expiration,
+                   @Value("${jwt.verified-cache-size:10000}") int verifiedCacheSize) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.expiration = expiration;
+        this.verifiedCacheSize = verifiedCacheSize;
     }
 
     public String extractUsername(String token) {
@@ -42,35 +59,91 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
+    public Claims extractAllClaims(String token) {
+        String digest = DigestUtil.sha256(token);
+        long now = System.currentTimeMillis();
+
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return cached.claims();
+            }
+            if (verifiedTokens.remove(digest, cached)) {
+                expiryOrder.remove(new ExpiryKey(cached.expiresAt(), digest));
+            }
+        }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        cache(digest, claims, now);
+        return claims;
     }
 
-    public String generateToken(UserDetails userDetails) {
+    public String generateToken(UserPrincipal principal) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        claims.put(USER_ID_CLAIM, principal.getId());
+        claims.put(ROLE_CLAIM, principal.getRole().name());
+        return createToken(claims, principal.getUsername());
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .id(UUID.randomUUID().toString())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (ExpiredJwtException e) {
+            return false;
+        }
+        return claims.getSubject().equals(userDetails.getUsername())
+                && claims.getExpiration().after(new Date());
+    }
+
+    private void cache(String digest, Claims claims, long now) {
+        Date expiresAt = claims.getExpiration();
+        if (expiresAt == null || verifiedCacheSize <= 0) {
+            return;
+        }
+        evictExpired(now);
+        if (verifiedTokens.size() >= verifiedCacheSize) {
+            // Full of live tokens: this one is verified again next time, until some expire
+            return;
+        }
+        VerifiedToken entry = new VerifiedToken(claims, expiresAt.getTime());
+        if (verifiedTokens.putIfAbsent(digest, entry) == null) {
+            expiryOrder.add(new ExpiryKey(entry.expiresAt(), digest));
+        }
+    }
+
+    // Costs one step per expired entry; stops at the first live one
+    private void evictExpired(long now) {
+        ExpiryKey head;
+        while ((head = expiryOrder.pollFirst()) != null) {
+            if (head.expiresAt() > now) {
+                expiryOrder.add(head);
+                return;
+            }
+            verifiedTokens.remove(head.digest());
+        }
+    }
+
+    private record VerifiedToken(Claims claims, long expiresAt) {
+    }
+
+    private record ExpiryKey(long expiresAt, String digest) implements Comparable<ExpiryKey> {
+        @Override
+        public int compareTo(ExpiryKey other) {
+            int byExpiry = Long.compare(expiresAt, other.expiresAt);
+            return byExpiry != 0 ? byExpiry : digest.compareTo(other.digest);
+        }
     }
-}
\ No newline at end of file
+}
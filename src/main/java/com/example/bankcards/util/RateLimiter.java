@@ -0,0 +1,29 @@
+package com.example.bankcards.util;
+
+import java.util.concurrent.TimeUnit;
+
+// Spreads permits evenly over time across all callers; a rate of 0 or less disables limiting
+public class RateLimiter {
+
+    private final long nanosPerPermit;
+    private long nextFreeNanos;
+
+    public RateLimiter(long permitsPerSecond) {
+        this.nanosPerPermit = permitsPerSecond > 0 ? Math.max(1, TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    public void acquire(int permits) throws InterruptedException {
+        if (nanosPerPermit == 0 || permits <= 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextFreeNanos);
+            nextFreeNanos = start + permits * nanosPerPermit;
+            waitNanos = nextFreeNanos - now;
+        }
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+}
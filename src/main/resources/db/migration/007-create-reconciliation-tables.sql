@@ -0,0 +1,41 @@
+CREATE TABLE reconciliation_runs (
+    id BIGSERIAL PRIMARY KEY,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED', 'INTERRUPTED')),
+    min_card_id BIGINT NOT NULL,
+    max_card_id BIGINT NOT NULL,
+    range_size INT NOT NULL,
+    total_ranges INT NOT NULL,
+    cards_checked BIGINT,
+    discrepancies BIGINT,
+    started_at TIMESTAMP NOT NULL,
+    heartbeat_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    last_error VARCHAR(500)
+);
+
+CREATE INDEX idx_reconciliation_runs_status ON reconciliation_runs(status);
+
+CREATE TABLE reconciliation_checkpoints (
+    id BIGSERIAL PRIMARY KEY,
+    run_id BIGINT NOT NULL,
+    range_start BIGINT NOT NULL,
+    range_end BIGINT NOT NULL,
+    cards_checked INT NOT NULL,
+    discrepancies INT NOT NULL,
+    completed_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_reconciliation_checkpoints_run FOREIGN KEY (run_id) REFERENCES reconciliation_runs(id) ON DELETE CASCADE,
+    CONSTRAINT uq_reconciliation_checkpoints_range UNIQUE (run_id, range_start)
+);
+
+CREATE TABLE reconciliation_discrepancies (
+    id BIGSERIAL PRIMARY KEY,
+    run_id BIGINT NOT NULL,
+    card_id BIGINT NOT NULL,
+    stored_balance NUMERIC(15, 2) NOT NULL,
+    expected_balance NUMERIC(16, 2) NOT NULL,
+    difference NUMERIC(16, 2) NOT NULL,
+    detected_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_reconciliation_discrepancies_run FOREIGN KEY (run_id) REFERENCES reconciliation_runs(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_reconciliation_discrepancies_run_card ON reconciliation_discrepancies(run_id, card_id);
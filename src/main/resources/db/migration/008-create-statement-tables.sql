@@ -0,0 +1,31 @@
+CREATE TABLE statement_runs (
+    id BIGSERIAL PRIMARY KEY,
+    period DATE NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED', 'INTERRUPTED')),
+    format VARCHAR(10) NOT NULL CHECK (format IN ('CSV', 'JSON')),
+    output_dir VARCHAR(500) NOT NULL,
+    users_processed BIGINT,
+    started_at TIMESTAMP NOT NULL,
+    heartbeat_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    last_error VARCHAR(500),
+    CONSTRAINT uq_statement_runs_period UNIQUE (period)
+);
+
+CREATE TABLE statements (
+    id BIGSERIAL PRIMARY KEY,
+    run_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    period DATE NOT NULL,
+    card_count INT NOT NULL,
+    transaction_count INT NOT NULL,
+    total_in NUMERIC(17, 2) NOT NULL,
+    total_out NUMERIC(17, 2) NOT NULL,
+    file_path VARCHAR(500) NOT NULL,
+    generated_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_statements_run FOREIGN KEY (run_id) REFERENCES statement_runs(id) ON DELETE CASCADE,
+    CONSTRAINT fk_statements_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT uq_statements_user_period UNIQUE (user_id, period)
+);
+
+CREATE INDEX idx_statements_run ON statements(run_id);
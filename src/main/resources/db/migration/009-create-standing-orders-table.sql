@@ -0,0 +1,26 @@
+CREATE TABLE standing_orders (
+    id BIGSERIAL PRIMARY KEY,
+    owner_id BIGINT NOT NULL,
+    from_card_id BIGINT NOT NULL,
+    to_card_id BIGINT NOT NULL,
+    amount NUMERIC(15, 2) NOT NULL CHECK (amount > 0),
+    description VARCHAR(255),
+    frequency VARCHAR(10) NOT NULL CHECK (frequency IN ('DAILY', 'WEEKLY', 'MONTHLY')),
+    start_at TIMESTAMP NOT NULL,
+    end_date DATE,
+    next_run_at TIMESTAMP,
+    occurrence INT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('ACTIVE', 'COMPLETED', 'FAILED')),
+    consecutive_failures INT NOT NULL DEFAULT 0,
+    last_run_at TIMESTAMP,
+    last_error VARCHAR(500),
+    claimed_until TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_standing_orders_owner FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_standing_orders_from_card FOREIGN KEY (from_card_id) REFERENCES cards(id) ON DELETE CASCADE,
+    CONSTRAINT fk_standing_orders_to_card FOREIGN KEY (to_card_id) REFERENCES cards(id) ON DELETE CASCADE,
+    CONSTRAINT chk_standing_orders_different_cards CHECK (from_card_id != to_card_id)
+);
+
+CREATE INDEX idx_standing_orders_due ON standing_orders(status, next_run_at);
+CREATE INDEX idx_standing_orders_owner ON standing_orders(owner_id);
@@ -0,0 +1,2 @@
+-- Optimistic locking: every update of a card checks and bumps its version
+ALTER TABLE cards ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
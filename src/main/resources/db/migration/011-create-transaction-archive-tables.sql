@@ -0,0 +1,19 @@
+CREATE TABLE transaction_archive_segments (
+    id BIGSERIAL PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    transaction_count INT NOT NULL,
+    min_transaction_id BIGINT NOT NULL,
+    max_transaction_id BIGINT NOT NULL,
+    min_date TIMESTAMP NOT NULL,
+    max_date TIMESTAMP NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_transaction_archive_segments_file UNIQUE (file_name)
+);
+
+CREATE TABLE archived_card_totals (
+    card_id BIGINT PRIMARY KEY,
+    total_in NUMERIC(19, 2) NOT NULL,
+    total_out NUMERIC(19, 2) NOT NULL,
+    transaction_count BIGINT NOT NULL
+);
@@ -0,0 +1,22 @@
+CREATE TABLE user_card_summary (
+    user_id BIGINT PRIMARY KEY,
+    card_count INT NOT NULL,
+    active_count INT NOT NULL,
+    blocked_count INT NOT NULL,
+    expired_count INT NOT NULL,
+    total_balance NUMERIC(19, 2) NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_user_card_summary_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Seeded from the existing cards; from here on every card change updates it in its own transaction
+INSERT INTO user_card_summary (user_id, card_count, active_count, blocked_count, expired_count, total_balance, updated_at)
+SELECT owner_id,
+       COUNT(*),
+       SUM(CASE WHEN status = 'ACTIVE' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN status = 'BLOCKED' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN status = 'EXPIRED' THEN 1 ELSE 0 END),
+       COALESCE(SUM(balance), 0),
+       CURRENT_TIMESTAMP
+FROM cards
+GROUP BY owner_id;
@@ -0,0 +1,238 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.RetryOnConflict;
+import com.example.bankcards.service.TransferService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "app.conflict-retry.max-attempts=50")
+class ConflictRetryAspectTest {
+
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 25;
+    private static final String FLAKY_OPERATION = "FlakyOperation.failTimes";
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private FlakyOperation flakyOperation;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User owner;
+    private Card first;
+    private Card second;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setUsername("contention-user");
+        owner.setPassword("x");
+        owner.setRole(User.Role.USER);
+        owner = userRepository.save(owner);
+
+        first = saveCard();
+        second = saveCard();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        transactionRepository.deleteAll();
+        cardRepository.deleteAllById(List.of(first.getId(), second.getId()));
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void save_ShouldFail_WhenCardChangedSinceItWasRead() {
+        Card stale = cardRepository.findById(first.getId()).orElseThrow();
+        authenticate();
+        cardService.blockCard(first.getId());
+
+        stale.setBalance(BigDecimal.ZERO);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> cardRepository.save(stale));
+        assertEquals(Card.CardStatus.BLOCKED, cardRepository.findById(first.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void retry_ShouldRerunUntilSuccess_AndGiveUpAfterMaxAttempts() {
+        assertEquals("done", flakyOperation.failTimes(2));
+        assertEquals(2, counter("conflict.retry.retries", FLAKY_OPERATION));
+
+        assertThrows(ConflictException.class, () -> flakyOperation.failTimes(Integer.MAX_VALUE));
+        assertEquals(1, counter("conflict.retry.exhausted", FLAKY_OPERATION));
+        assertEquals(2, counter("conflict.retry.calls", FLAKY_OPERATION));
+    }
+
+    // Both strategies must conserve money and commit every transfer exactly once, retried or not.
+    // The pessimistic variant does the same writes as a transfer, locking both cards up front.
+    @Test
+    void transfers_ShouldNotLoseUpdatesUnderContention_WithOptimisticOrPessimisticLocking() throws Exception {
+        int transfers = THREADS * TRANSFERS_PER_THREAD;
+        long transactionsBefore = transactionRepository.count();
+        double callsBefore = counter("conflict.retry.calls", "TransferService.transferBetweenMyCards");
+
+        runContended((from, to) -> transferService.transferBetweenMyCards(from, to, BigDecimal.ONE));
+        assertBalancesConserved();
+        assertEquals(transactionsBefore + transfers, transactionRepository.count());
+        assertEquals(transfers, counter("conflict.retry.calls", "TransferService.transferBetweenMyCards") - callsBefore);
+
+        runContended((from, to) -> transactionTemplate.executeWithoutResult(status -> {
+            // Locked in id order so two opposite transfers cannot deadlock
+            Card low = entityManager.find(Card.class, Math.min(from, to), LockModeType.PESSIMISTIC_WRITE);
+            Card high = entityManager.find(Card.class, Math.max(from, to), LockModeType.PESSIMISTIC_WRITE);
+            Card source = low.getId().equals(from) ? low : high;
+            Card destination = source == low ? high : low;
+            source.setBalance(source.getBalance().subtract(BigDecimal.ONE));
+            destination.setBalance(destination.getBalance().add(BigDecimal.ONE));
+
+            Transaction transaction = new Transaction();
+            transaction.setFromCard(source);
+            transaction.setToCard(destination);
+            transaction.setAmount(BigDecimal.ONE);
+            transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+            transactionRepository.save(transaction);
+        }));
+        assertBalancesConserved();
+        assertEquals(transactionsBefore + 2L * transfers, transactionRepository.count());
+    }
+
+    // Every thread moves 1.00 back and forth between the same two cards
+    private void runContended(BiConsumer<Long, Long> transfer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger threadIndex = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            tasks.add(() -> {
+                authenticate();
+                boolean forward = threadIndex.getAndIncrement() % 2 == 0;
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    transfer.accept(forward ? first.getId() : second.getId(), forward ? second.getId() : first.getId());
+                    forward = !forward;
+                }
+                SecurityContextHolder.clearContext();
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void assertBalancesConserved() {
+        BigDecimal firstBalance = cardRepository.findById(first.getId()).orElseThrow().getBalance();
+        BigDecimal secondBalance = cardRepository.findById(second.getId()).orElseThrow().getBalance();
+        // Half of the threads start in each direction, and each alternates, so the net movement is zero
+        assertEquals(0, new BigDecimal("1000.00").compareTo(firstBalance));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(secondBalance));
+    }
+
+    private double counter(String name, String operation) {
+        Counter counter = meterRegistry.find(name).tag("operation", operation).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private void authenticate() {
+        UserPrincipal principal = UserPrincipal.of(owner);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private Card saveCard() {
+        Card card = new Card();
+        card.setCardNumberEncrypted("encrypted");
+        card.setCardHolder("CONTENTION");
+        card.setExpireDate(LocalDate.now().plusYears(1));
+        card.setStatus(Card.CardStatus.ACTIVE);
+        card.setBalance(new BigDecimal("1000.00"));
+        card.setOwner(owner);
+        return cardRepository.save(card);
+    }
+
+    @TestConfiguration
+    static class FlakyOperationConfig {
+
+        @Bean
+        FlakyOperation flakyOperation() {
+            return new FlakyOperation();
+        }
+    }
+
+    static class FlakyOperation {
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        @RetryOnConflict
+        @Transactional
+        public String failTimes(int times) {
+            if (failures.getAndIncrement() < times) {
+                throw new OptimisticLockingFailureException("Simulated lost race");
+            }
+            failures.set(0);
+            return "done";
+        }
+    }
+}
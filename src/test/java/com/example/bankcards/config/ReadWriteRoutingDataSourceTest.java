@@ -0,0 +1,126 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private ReplicaLagGuard lagGuard;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("routing_primary");
+        DataSource replica = database("routing_replica");
+        lagGuard = new ReplicaLagGuard(Duration.ofSeconds(30), 100);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, lagGuard));
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        assertEquals("routing_replica", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        assertEquals("routing_primary", writeTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUsePrimary_RightAfterSameUserWrote() {
+        authenticate(1L);
+        writeTransaction.executeWithoutResult(status -> currentNode());
+
+        assertEquals("routing_primary", readOnlyTransaction.execute(status -> currentNode()));
+
+        authenticate(2L);
+        assertEquals("routing_replica", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUsePrimary_AfterAnotherNodeChangedTheUser() {
+        lagGuard.evict(Set.of(10L), Set.of(1L));
+
+        authenticate(1L);
+        assertEquals("routing_primary", readOnlyTransaction.execute(status -> currentNode()));
+
+        authenticate(2L);
+        assertEquals("routing_replica", readOnlyTransaction.execute(status -> currentNode()));
+
+        lagGuard.evictAll();
+        assertEquals("routing_primary", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void recordWrite_ShouldSendEveryoneToPrimary_WhenFull_UntilTheSweepFreesRoom() throws InterruptedException {
+        ReplicaLagGuard small = new ReplicaLagGuard(Duration.ofSeconds(30), 2);
+        small.recordWrite(1L);
+        small.recordWrite(2L);
+        assertFalse(small.mustReadPrimary(3L));
+
+        small.recordWrite(3L);
+
+        assertTrue(small.mustReadPrimary(3L));
+        assertTrue(small.mustReadPrimary(4L));
+
+        ReplicaLagGuard shortLag = new ReplicaLagGuard(Duration.ofMillis(20), 2);
+        shortLag.recordWrite(1L);
+        shortLag.recordWrite(2L);
+        Thread.sleep(50);
+        shortLag.evictExpired();
+        shortLag.recordWrite(3L);
+
+        assertTrue(shortLag.mustReadPrimary(3L));
+        assertFalse(shortLag.mustReadPrimary(4L));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(50))");
+        jdbcTemplate.execute("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static void authenticate(Long userId) {
+        UserPrincipal principal = new UserPrincipal(userId, "user" + userId, User.Role.USER, null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
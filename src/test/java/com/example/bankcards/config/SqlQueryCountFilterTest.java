@@ -0,0 +1,103 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.support.QueryBudget;
+import com.example.bankcards.util.EncryptionUtil;
+import com.example.bankcards.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SqlQueryCountFilterTest {
+
+    private static final String USERNAME = "sql-count-user";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private EncryptionUtil encryptionUtil;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.findByUsername(USERNAME).ifPresent(user -> {
+            cardRepository.deleteAll(cardRepository.findByOwner(user, null).getContent());
+            userRepository.delete(user);
+        });
+    }
+
+    @Test
+    void register_ShouldReportInsertedRows() throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + USERNAME + "\",\"password\":\"password123\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlQueryCountFilter.TIME_HEADER))
+                .andExpect(QueryBudget.exactly(2));
+
+        assertTrue(meterRegistry.find("http.server.requests.sql.statements")
+                .tag("uri", "/api/auth/register").summary().count() > 0);
+    }
+
+    @Test
+    void getMyCards_ShouldNotLoadOwnerPerCard() throws Exception {
+        User owner = new User();
+        owner.setUsername(USERNAME);
+        owner.setPassword("x");
+        owner.setRole(User.Role.USER);
+        owner = userRepository.save(owner);
+        for (int i = 0; i < 3; i++) {
+            Card card = new Card();
+            card.setCardNumberEncrypted(encryptionUtil.encrypt("123456789012345" + i));
+            card.setCardHolder("SQL COUNT");
+            card.setExpireDate(LocalDate.now().plusYears(1));
+            card.setStatus(Card.CardStatus.ACTIVE);
+            card.setBalance(BigDecimal.TEN);
+            card.setOwner(owner);
+            cardRepository.save(card);
+        }
+        String token = jwtUtil.generateToken(UserPrincipal.of(owner));
+
+        // page query + owner (once, shared by all cards); no count query since the page is not full
+        mockMvc.perform(get("/api/cards/my").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.exactly(2));
+    }
+}
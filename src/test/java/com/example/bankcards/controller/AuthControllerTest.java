@@ -2,6 +2,9 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.AuthRequest;
 import com.example.bankcards.dto.AuthResponse;
+import com.example.bankcards.dto.RefreshTokenRequest;
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.exception.UnauthorizedException;
 import com.example.bankcards.service.AuthService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -9,10 +12,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,7 +40,7 @@ class AuthControllerTest {
     @Test
     void register_ShouldReturnAuthResponse_WhenRequestIsValid() throws Exception {
         AuthRequest request = new AuthRequest("testuser", "password123");
-        AuthResponse response = new AuthResponse("jwt-token-here", "testuser", "USER");
+        AuthResponse response = new AuthResponse("jwt-token-here", "refresh-token-here", "testuser", "USER");
 
         when(authService.register(any(AuthRequest.class))).thenReturn(response);
 
@@ -69,9 +76,9 @@ class AuthControllerTest {
     @Test
     void login_ShouldReturnAuthResponse_WhenCredentialsAreValid() throws Exception {
         AuthRequest request = new AuthRequest("testuser", "password123");
-        AuthResponse response = new AuthResponse("jwt-token-here", "testuser", "USER");
+        AuthResponse response = new AuthResponse("jwt-token-here", "refresh-token-here", "testuser", "USER");
 
-        when(authService.login(any(AuthRequest.class))).thenReturn(response);
+        when(authService.login(any(AuthRequest.class), anyString())).thenReturn(response);
 
         mockMvc.perform(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -101,4 +108,49 @@ class AuthControllerTest {
                         .content(jsonRequest))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    void login_ShouldReturnTooManyRequests_WhenThrottled() throws Exception {
+        when(authService.login(any(AuthRequest.class), anyString()))
+                .thenThrow(new TooManyRequestsException("LOGIN_THROTTLED", "Too many failed login attempts"));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest("testuser", "password123"))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.error").value("Too Many Requests"))
+                .andExpect(jsonPath("$.code").value("LOGIN_THROTTLED"));
+    }
+
+    @Test
+    void refresh_ShouldReturnUnauthorized_WhenTokenIsInvalid() throws Exception {
+        when(authService.refresh(any(RefreshTokenRequest.class)))
+                .thenThrow(new UnauthorizedException("INVALID_REFRESH_TOKEN", "Invalid refresh token"));
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("stolen"))))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("Unauthorized"))
+                .andExpect(jsonPath("$.code").value("INVALID_REFRESH_TOKEN"));
+    }
+
+    @Test
+    void logout_ShouldReturnBadRequest_WhenAuthorizationIsNotBearer() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_AUTHORIZATION_HEADER"));
+
+        verify(authService, never()).logout(anyString());
+    }
+
+    @Test
+    void logout_ShouldRevokeTheBearerToken() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer access-token"))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logout("access-token");
+    }
+}
@@ -3,6 +3,7 @@ package com.example.bankcards.controller;
 import com.example.bankcards.dto.CardCreateRequest;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.service.CardService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -144,6 +145,18 @@ class CardControllerTest {
                 .andExpect(jsonPath("$.content[0].cardHolder").value("Ivan Ivanov"));
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void getCard_ShouldReturnNotFound_WhenCardDoesNotExist() throws Exception {
+        when(cardService.getCardById(99L)).thenThrow(new NotFoundException("CARD_NOT_FOUND", "Card not found"));
+
+        mockMvc.perform(get("/api/cards/99"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("CARD_NOT_FOUND"))
+                .andExpect(jsonPath("$.message").value("Card not found"))
+                .andExpect(jsonPath("$.path").value("/api/cards/99"));
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void getCard_ShouldReturnCard_WhenCardExists() throws Exception {
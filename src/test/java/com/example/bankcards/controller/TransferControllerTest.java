@@ -137,7 +137,7 @@ class TransferControllerTest {
         transaction.setTransactionDate(LocalDateTime.now());
         transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
 
-        when(transferService.getMyTransactions()).thenReturn(List.of(transaction));
+        when(transferService.getMyTransactions(null, null)).thenReturn(List.of(transaction));
         when(cardService.getMaskedCardNumber(fromCard)).thenReturn("************1111");
         when(cardService.getMaskedCardNumber(toCard)).thenReturn("************2222");
 
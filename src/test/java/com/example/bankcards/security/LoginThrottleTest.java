@@ -0,0 +1,76 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loginThrottle = new LoginThrottle(3, 5, Duration.ofMinutes(15), Duration.ofMinutes(1),
+                Duration.ofHours(1), 1000, meterRegistry);
+    }
+
+    @Test
+    void checkAllowed_ShouldBlockUsername_AfterMaxFailures() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.checkAllowed("victim", "10.0.0." + i);
+            loginThrottle.recordFailure("victim", "10.0.0." + i);
+        }
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> loginThrottle.checkAllowed("victim", "10.0.0.99"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
+        assertEquals("LOGIN_THROTTLED", exception.getErrorCode());
+        assertDoesNotThrow(() -> loginThrottle.checkAllowed("other", "10.0.0.99"));
+        assertEquals(1.0, meterRegistry.get("auth.login.blocked").tag("scope", "username").counter().count());
+    }
+
+    @Test
+    void checkAllowed_ShouldBlockClientIp_AcrossUsernames() {
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.recordFailure("user" + i, "10.0.0.1");
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> loginThrottle.checkAllowed("fresh", "10.0.0.1"));
+        assertDoesNotThrow(() -> loginThrottle.checkAllowed("fresh", "10.0.0.2"));
+    }
+
+    @Test
+    void recordSuccess_ShouldResetUsernameFailures() {
+        loginThrottle.recordFailure("testuser", "10.0.0.1");
+        loginThrottle.recordFailure("testuser", "10.0.0.1");
+        loginThrottle.recordSuccess("testuser");
+        loginThrottle.recordFailure("testuser", "10.0.0.1");
+
+        assertDoesNotThrow(() -> loginThrottle.checkAllowed("testuser", "10.0.0.1"));
+    }
+
+    @Test
+    void recordFailure_ShouldCountNewKeysAsUntracked_WhenFull_AndKeepTrackingKnownOnes() {
+        LoginThrottle small = new LoginThrottle(3, 100, Duration.ofMinutes(15), Duration.ofMinutes(1),
+                Duration.ofHours(1), 2, meterRegistry);
+        small.recordFailure("first", "10.0.0.1");
+        small.recordFailure("second", "10.0.0.2");
+
+        small.recordFailure("third", "10.0.0.3");
+        small.recordFailure("first", "10.0.0.1");
+        small.recordFailure("first", "10.0.0.1");
+
+        assertEquals(1.0, meterRegistry.get("auth.login.untracked").tag("scope", "username").counter().count());
+        assertThrows(TooManyRequestsException.class, () -> small.checkAllowed("first", "10.0.0.9"));
+        assertDoesNotThrow(() -> small.checkAllowed("third", "10.0.0.9"));
+    }
+}
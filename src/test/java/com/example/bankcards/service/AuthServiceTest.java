@@ -0,0 +1,118 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.AuthRequest;
+import com.example.bankcards.dto.AuthResponse;
+import com.example.bankcards.dto.RefreshTokenRequest;
+import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.TokenRevocationService;
+import com.example.bankcards.util.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AuthServiceTest {
+
+    private static final String USERNAME = "auth-service-user";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.findByUsername(USERNAME).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void register_ShouldInsertUserAndRefreshTokenOnly() {
+        statistics.clear();
+
+        AuthResponse response = authService.register(new AuthRequest(USERNAME, "password123"));
+
+        assertEquals(USERNAME, response.getUsername());
+        assertEquals("USER", response.getRole());
+        assertNotNull(response.getToken());
+        assertNotNull(response.getRefreshToken());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void register_ShouldRejectDuplicateUsername() {
+        authService.register(new AuthRequest(USERNAME, "password123"));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> authService.register(new AuthRequest(USERNAME, "otherPassword")));
+
+        assertEquals("Username already exists", exception.getMessage());
+    }
+
+    @Test
+    void login_ShouldIssueTokenFromSingleUserQuery() {
+        authService.register(new AuthRequest(USERNAME, "password123"));
+        statistics.clear();
+
+        AuthResponse response = authService.login(new AuthRequest(USERNAME, "password123"), "127.0.0.1");
+
+        assertEquals(USERNAME, response.getUsername());
+        assertNotNull(response.getToken());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void refresh_ShouldRotateRefreshToken_AndRejectReuse() {
+        AuthResponse registered = authService.register(new AuthRequest(USERNAME, "password123"));
+
+        AuthResponse refreshed = authService.refresh(new RefreshTokenRequest(registered.getRefreshToken()));
+
+        assertEquals(USERNAME, refreshed.getUsername());
+        assertNotEquals(registered.getRefreshToken(), refreshed.getRefreshToken());
+        assertThrows(UnauthorizedException.class,
+                () -> authService.refresh(new RefreshTokenRequest(registered.getRefreshToken())));
+        assertThrows(UnauthorizedException.class,
+                () -> authService.refresh(new RefreshTokenRequest(refreshed.getRefreshToken())));
+    }
+
+    @Test
+    void logout_ShouldRevokeAccessAndRefreshTokens() {
+        AuthResponse response = authService.register(new AuthRequest(USERNAME, "password123"));
+        String jti = jwtUtil.extractAllClaims(response.getToken()).getId();
+
+        authService.logout(response.getToken());
+
+        assertTrue(tokenRevocationService.isRevoked(jti));
+        assertThrows(UnauthorizedException.class,
+                () -> authService.refresh(new RefreshTokenRequest(response.getRefreshToken())));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BulkCardOperationRequest;
+import com.example.bankcards.dto.BulkCardOperationRequest.Action;
+import com.example.bankcards.dto.BulkCardOperationResultDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A chunk of two cards, so every operation spans several statements
+@SpringBootTest(properties = "app.cards.bulk.chunk-size=2")
+class BulkCardServiceTest {
+
+    @Autowired
+    private BulkCardService bulkCardService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User owner;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        owner = saveUser("bulk-owner");
+        other = saveUser("bulk-other");
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        for (User user : List.of(owner, other)) {
+            cardRepository.deleteAllById(cardRepository.findByOwner(user, null).map(Card::getId).getContent());
+            userRepository.delete(user);
+        }
+    }
+
+    @Test
+    void block_ShouldBlockActiveCardsOfOwner_AndSkipExpiredOnes() {
+        List<Card> active = List.of(saveCard(owner, Card.CardStatus.ACTIVE, "0.00"),
+                saveCard(owner, Card.CardStatus.ACTIVE, "10.00"), saveCard(owner, Card.CardStatus.ACTIVE, "0.00"));
+        Card expired = saveCard(owner, Card.CardStatus.EXPIRED, "0.00");
+        Card othersCard = saveCard(other, Card.CardStatus.ACTIVE, "0.00");
+
+        BulkCardOperationResultDto result = bulkCardService.apply(request(Action.BLOCK, owner.getId(), null));
+
+        assertEquals(4, result.getMatched());
+        assertEquals(3, result.getAffected());
+        assertEquals(1, result.getSkipped());
+        for (Card card : active) {
+            Card updated = cardRepository.findById(card.getId()).orElseThrow();
+            assertEquals(Card.CardStatus.BLOCKED, updated.getStatus());
+            assertEquals(card.getVersion() + 1, updated.getVersion());
+        }
+        assertEquals(Card.CardStatus.EXPIRED, cardRepository.findById(expired.getId()).orElseThrow().getStatus());
+        assertEquals(Card.CardStatus.ACTIVE, cardRepository.findById(othersCard.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void activate_ShouldSkipCardsPastTheirExpiryDate() {
+        Card blocked = saveCard(owner, Card.CardStatus.BLOCKED, "0.00");
+        Card outdated = saveCard(owner, Card.CardStatus.BLOCKED, "0.00");
+        outdated.setExpireDate(LocalDate.now().minusDays(1));
+        outdated = cardRepository.save(outdated);
+
+        BulkCardOperationResultDto result = bulkCardService.apply(
+                request(Action.ACTIVATE, null, List.of(blocked.getId(), outdated.getId())));
+
+        assertEquals(1, result.getAffected());
+        assertEquals(Card.CardStatus.ACTIVE, cardRepository.findById(blocked.getId()).orElseThrow().getStatus());
+        assertEquals(Card.CardStatus.BLOCKED, cardRepository.findById(outdated.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void delete_ShouldKeepCardsWithBalanceOrHistory() {
+        Card empty = saveCard(owner, Card.CardStatus.BLOCKED, "0.00");
+        Card withBalance = saveCard(owner, Card.CardStatus.BLOCKED, "5.00");
+        Card withHistory = saveCard(owner, Card.CardStatus.BLOCKED, "0.00");
+        Card counterpart = saveCard(other, Card.CardStatus.ACTIVE, "0.00");
+        Transaction transaction = new Transaction();
+        transaction.setFromCard(counterpart);
+        transaction.setToCard(withHistory);
+        transaction.setAmount(BigDecimal.ONE);
+        transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+        transactionRepository.save(transaction);
+
+        BulkCardOperationRequest request = request(Action.DELETE, owner.getId(), null);
+        request.setStatus(Card.CardStatus.BLOCKED);
+        BulkCardOperationResultDto result = bulkCardService.apply(request);
+
+        assertEquals(3, result.getMatched());
+        assertEquals(1, result.getAffected());
+        assertFalse(cardRepository.existsById(empty.getId()));
+        assertTrue(cardRepository.existsById(withBalance.getId()));
+        assertTrue(cardRepository.existsById(withHistory.getId()));
+    }
+
+    @Test
+    void apply_ShouldRejectRequestWithoutSelection() {
+        assertThrows(BadRequestException.class, () -> bulkCardService.apply(request(Action.BLOCK, null, List.of())));
+    }
+
+    private static BulkCardOperationRequest request(Action action, Long ownerId, List<Long> cardIds) {
+        BulkCardOperationRequest request = new BulkCardOperationRequest();
+        request.setAction(action);
+        request.setOwnerId(ownerId);
+        request.setCardIds(cardIds);
+        return request;
+    }
+
+    private User saveUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRole(User.Role.USER);
+        return userRepository.save(user);
+    }
+
+    private Card saveCard(User cardOwner, Card.CardStatus status, String balance) {
+        Card card = new Card();
+        card.setCardNumberEncrypted("encrypted");
+        card.setCardHolder("BULK");
+        card.setExpireDate(LocalDate.now().plusYears(1));
+        card.setStatus(status);
+        card.setBalance(new BigDecimal(balance));
+        card.setOwner(cardOwner);
+        return cardRepository.save(card);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.security.TokenRevokedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CacheInvalidationBusTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final RecordingListener listener = new RecordingListener();
+    private CacheInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl("jdbc:postgresql://localhost:5432/bankcardsdb");
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("listener", listener);
+
+        // Not started: the test drives sending and receiving itself
+        bus = new CacheInvalidationBus(jdbcTemplate, properties,
+                beanFactory.getBeanProvider(CacheInvalidationListener.class), true, "cache_invalidation",
+                Duration.ofMillis(50), Duration.ofSeconds(5), Duration.ofSeconds(30), 3);
+    }
+
+    @Test
+    void onCardChanged_ShouldEvictLocallyAndSendOneCoalescedNotification() throws Exception {
+        bus.onCardChanged(new CardChangedEvent(card(10L, 1L), false));
+        bus.onCardChanged(new CardChangedEvent(card(10L, 1L), false));
+
+        assertEquals(List.of("10/1", "10/1"), listener.evictions);
+
+        bus.sendPending();
+        bus.sendPending();
+
+        String payload = sentPayload();
+        assertTrue(payload.endsWith("|10|1"), payload);
+    }
+
+    @Test
+    void encode_ShouldFlushEverything_WhenBurstExceedsMaxKeys() {
+        String payload = bus.encode(Set.of(1L, 2L, 3L), Set.of(4L), Set.of());
+
+        CacheInvalidationBus.Invalidation invalidation = new CacheInvalidationBus.Invalidation();
+        bus.collect(payload.replaceFirst("^[^|]+", "other-node"), invalidation);
+
+        assertTrue(payload.endsWith("|*"));
+        assertTrue(invalidation.all);
+    }
+
+    @Test
+    void collect_ShouldMergeOtherNodesAndSkipOwnNotifications() {
+        String own = bus.encode(Set.of(99L), Set.of(9L), Set.of());
+        CacheInvalidationBus.Invalidation invalidation = new CacheInvalidationBus.Invalidation();
+
+        bus.collect(own, invalidation);
+        bus.collect("node-a|10,11|1", invalidation);
+        bus.collect("node-b|11|2", invalidation);
+        bus.apply(invalidation);
+
+        assertFalse(invalidation.all);
+        assertEquals(Set.of(10L, 11L), invalidation.cardIds);
+        assertEquals(Set.of(1L, 2L), invalidation.userIds);
+        assertEquals(1, listener.evictions.size());
+    }
+
+    @Test
+    void onTokenRevoked_ShouldSendJtiToOtherNodes_WhichPassItToListeners() throws Exception {
+        String jti = "3f2b8c1e-7a4d-4e0b-9c6f-1d2e3f4a5b6c";
+        bus.onTokenRevoked(new TokenRevokedEvent(jti));
+        bus.sendPending();
+
+        String payload = sentPayload();
+        assertTrue(listener.revoked.isEmpty());
+        assertTrue(payload.endsWith("|||" + jti), payload);
+
+        CacheInvalidationBus.Invalidation invalidation = new CacheInvalidationBus.Invalidation();
+        bus.collect(payload.replaceFirst("^[^|]+", "other-node"), invalidation);
+        bus.apply(invalidation);
+
+        assertEquals(Set.of(jti), listener.revoked);
+        assertTrue(listener.evictions.isEmpty());
+        assertEquals(0, listener.flushes);
+    }
+
+    @Test
+    void collect_ShouldFlushEverything_WhenPayloadIsUnreadable() {
+        CacheInvalidationBus.Invalidation invalidation = new CacheInvalidationBus.Invalidation();
+
+        bus.collect("node-a|ten|1", invalidation);
+        bus.apply(invalidation);
+
+        assertEquals(1, listener.flushes);
+        assertTrue(listener.evictions.isEmpty());
+    }
+
+    @SuppressWarnings("unchecked")
+    private String sentPayload() throws Exception {
+        ArgumentCaptor<PreparedStatementCallback<Boolean>> callback = ArgumentCaptor.forClass(PreparedStatementCallback.class);
+        verify(jdbcTemplate, times(1)).execute(eq("SELECT pg_notify(?, ?)"), callback.capture());
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        callback.getValue().doInPreparedStatement(statement);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(statement).setString(eq(1), eq("cache_invalidation"));
+        verify(statement).setString(eq(2), payload.capture());
+        verify(statement).execute();
+        return payload.getValue();
+    }
+
+    private static Card card(Long id, Long ownerId) {
+        User owner = new User();
+        owner.setId(ownerId);
+        Card card = new Card();
+        card.setId(id);
+        card.setOwner(owner);
+        return card;
+    }
+
+    private static class RecordingListener implements CacheInvalidationListener {
+
+        private final List<String> evictions = new ArrayList<>();
+        private final Set<String> revoked = new HashSet<>();
+        private int flushes;
+
+        @Override
+        public void evict(Set<Long> cardIds, Set<Long> userIds) {
+            evictions.add(cardIds.iterator().next() + "/" + userIds.iterator().next());
+        }
+
+        @Override
+        public void evictAll() {
+            flushes++;
+        }
+
+        @Override
+        public void tokensRevoked(Set<String> jtis) {
+            revoked.addAll(jtis);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.util.EncryptionUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CardEventHubTest {
+
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("id:(\\d+)\\nevent:snapshot");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EncryptionUtil encryptionUtil;
+
+    @Autowired
+    private CardEventHub cardEventHub;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private Card from;
+    private Card to;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setUsername("card-stream-user");
+        owner.setPassword("x");
+        owner.setRole(User.Role.USER);
+        owner = userRepository.save(owner);
+
+        from = saveCard("4000000000001111", "100.00");
+        to = saveCard("4000000000002222", "0.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        cardRepository.deleteAllById(List.of(from.getId(), to.getId()));
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void stream_ShouldSendSnapshotThenChangedCards() throws Exception {
+        MockHttpServletResponse response = openStream(null);
+        String snapshot = await(response, content -> content.contains("event:snapshot"));
+        assertTrue(snapshot.contains("\"id\":" + from.getId()));
+
+        transferService.transferBetweenOwnCards(owner.getId(), from.getId(), to.getId(), new BigDecimal("25.00"), null);
+
+        String content = await(response, text -> text.split("event:card\\n").length == 3);
+        assertTrue(content.contains("\"id\":" + from.getId() + ",") && content.contains("\"balance\":75.00"));
+        assertTrue(content.contains("\"id\":" + to.getId() + ",") && content.contains("\"balance\":25.00"));
+    }
+
+    @Test
+    void stream_ShouldReplayMissedEvents_WhenResumedWithLastEventId() throws Exception {
+        MockHttpServletResponse first = openStream(null);
+        Matcher matcher = SNAPSHOT_ID.matcher(await(first, content -> SNAPSHOT_ID.matcher(content).find()));
+        assertTrue(matcher.find());
+        String lastEventId = matcher.group(1);
+
+        transferService.transferBetweenOwnCards(owner.getId(), from.getId(), to.getId(), new BigDecimal("10.00"), null);
+
+        MockHttpServletResponse resumed = openStream(lastEventId);
+        String content = await(resumed, text -> text.split("event:card\\n").length == 3);
+        assertFalse(content.contains("event:snapshot"));
+        assertTrue(content.contains("\"balance\":90.00"));
+    }
+
+    @Test
+    void stream_ShouldSendFreshSnapshot_WhenAnotherNodeChangedTheOwnersCards() throws Exception {
+        MockHttpServletResponse response = openStream(null);
+        await(response, content -> content.contains("event:snapshot"));
+
+        // Committed elsewhere: this node only hears the ids from the invalidation bus
+        jdbcTemplate.update("UPDATE cards SET balance = 42.00 WHERE id = ?", from.getId());
+        cardEventHub.changedElsewhere(Set.of(from.getId()), Set.of(owner.getId()));
+
+        String content = await(response, text -> text.split("event:snapshot\\n").length == 3);
+        assertTrue(content.substring(content.lastIndexOf("event:snapshot")).contains("\"balance\":42.00"));
+    }
+
+    private MockHttpServletResponse openStream(String lastEventId) throws Exception {
+        var request = get("/api/cards/stream").with(user(UserPrincipal.of(owner)));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    // Events are written by the dispatcher threads, so the response fills in asynchronously
+    private String await(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = response.getContentAsString();
+        while (!condition.test(content) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        assertTrue(condition.test(content), content);
+        return content;
+    }
+
+    private Card saveCard(String cardNumber, String balance) {
+        Card card = new Card();
+        card.setCardNumberEncrypted(encryptionUtil.encrypt(cardNumber));
+        card.setCardHolder("CARD STREAM");
+        card.setExpireDate(LocalDate.now().plusYears(1));
+        card.setStatus(Card.CardStatus.ACTIVE);
+        card.setBalance(new BigDecimal(balance));
+        card.setOwner(owner);
+        return cardRepository.save(card);
+    }
+}
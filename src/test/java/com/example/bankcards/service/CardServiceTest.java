@@ -2,8 +2,10 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.ArchivedCardTotalRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
 import com.example.bankcards.util.EncryptionUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,15 +13,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +38,15 @@ class CardServiceTest {
     @Mock
     private EncryptionUtil encryptionUtil;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ArchivedCardTotalRepository archivedCardTotalRepository;
+
+    @Mock
+    private UserCardSummaryService summaryService;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -60,11 +69,9 @@ class CardServiceTest {
     private void setupSecurityContext() {
         SecurityContextHolder.setContext(securityContext);
         lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
-        lenient().when(authentication.getName()).thenReturn("testuser");
-        lenient().when(authentication.getAuthorities()).thenReturn(
-                (Collection) Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
+        lenient().when(authentication.getPrincipal()).thenReturn(
+                new UserPrincipal(1L, "testuser", User.Role.USER, null)
         );
-        lenient().when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
     }
 
     @Test
@@ -133,4 +140,23 @@ class CardServiceTest {
         assertEquals(Card.CardStatus.BLOCKED, result.getStatus());
         verify(cardRepository, times(1)).save(card);
     }
+
+    @Test
+    void getCardById_AccessDenied_WhenCardBelongsToAnotherUser() {
+        setupSecurityContext();
+
+        User otherUser = new User();
+        otherUser.setId(2L);
+
+        Card card = new Card();
+        card.setId(5L);
+        card.setOwner(otherUser);
+
+        when(cardRepository.findById(5L)).thenReturn(Optional.of(card));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> cardService.getCardById(5L));
+
+        assertEquals("Access denied", exception.getMessage());
+        verifyNoInteractions(userRepository);
+    }
 }
\ No newline at end of file
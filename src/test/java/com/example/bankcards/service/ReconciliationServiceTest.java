@@ -0,0 +1,184 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.ReconciliationDiscrepancy;
+import com.example.bankcards.entity.ReconciliationRun;
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.ReconciliationDiscrepancyRepository;
+import com.example.bankcards.repository.ReconciliationJdbcRepository;
+import com.example.bankcards.repository.ReconciliationJdbcRepository.RunProgress;
+import com.example.bankcards.repository.ReconciliationRunRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ReconciliationServiceTest {
+
+    private static final String USERNAME = "reconciliation-user";
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private ReconciliationJdbcRepository jdbcRepository;
+
+    @Autowired
+    private ReconciliationRunRepository runRepository;
+
+    @Autowired
+    private ReconciliationDiscrepancyRepository discrepancyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Card first;
+    private Card second;
+    private Card tampered;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setUsername(USERNAME);
+        owner.setPassword("x");
+        owner.setRole(User.Role.USER);
+        owner = userRepository.save(owner);
+
+        first = saveCard(owner, "0.00");
+        second = saveCard(owner, "0.00");
+        tampered = saveCard(owner, "25.00");
+
+        // Money went back and forth, so both balances match their history; the failed transfer is ignored
+        saveTransaction(first, second, "10.00", Transaction.TransactionStatus.COMPLETED);
+        saveTransaction(second, first, "10.00", Transaction.TransactionStatus.COMPLETED);
+        saveTransaction(first, tampered, "99.00", Transaction.TransactionStatus.FAILED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM reconciliation_discrepancies");
+        jdbcTemplate.update("DELETE FROM reconciliation_checkpoints");
+        runRepository.deleteAll();
+        transactionRepository.deleteAll();
+        userRepository.findByUsername(USERNAME).ifPresent(user -> {
+            cardRepository.deleteAll(cardRepository.findByOwner(user, null).getContent());
+            userRepository.delete(user);
+        });
+    }
+
+    @Test
+    void start_ShouldReportOnlyCardsWhoseBalanceDiffersFromHistory() throws Exception {
+        ReconciliationRun run = reconciliationService.start();
+
+        run = awaitFinished(run.getId());
+
+        assertEquals(ReconciliationRun.RunStatus.COMPLETED, run.getStatus());
+        List<ReconciliationDiscrepancy> discrepancies = discrepancyRepository
+                .findByRunIdOrderByCardId(run.getId(), Pageable.unpaged()).getContent();
+        List<Long> cardIds = discrepancies.stream().map(ReconciliationDiscrepancy::getCardId).toList();
+        assertTrue(cardIds.contains(tampered.getId()));
+        assertFalse(cardIds.contains(first.getId()));
+        assertFalse(cardIds.contains(second.getId()));
+
+        ReconciliationDiscrepancy discrepancy = discrepancies.get(cardIds.indexOf(tampered.getId()));
+        assertEquals(0, discrepancy.getStoredBalance().compareTo(new BigDecimal("25.00")));
+        assertEquals(0, discrepancy.getExpectedBalance().compareTo(BigDecimal.ZERO));
+        assertEquals(0, discrepancy.getDifference().compareTo(new BigDecimal("25.00")));
+    }
+
+    @Test
+    void reconcile_ShouldSkipCheckpointedRanges_WhenResumed() {
+        ReconciliationRun run = saveRun();
+        // The first range was finished before the interruption
+        jdbcRepository.saveRangeResult(run.getId(), first.getId(), first.getId() + 1, 1, List.of());
+
+        LedgerReconciler reconciler = new LedgerReconciler(jdbcRepository, 3, 0);
+        boolean finished = reconciler.reconcile(run, jdbcRepository.findCompletedRangeStarts(run.getId()), () -> false);
+
+        assertTrue(finished);
+        RunProgress progress = jdbcRepository.getProgress(run.getId());
+        assertEquals(3, progress.completedRanges());
+        assertEquals(3, progress.cardsChecked());
+        assertEquals(1, progress.discrepancies());
+    }
+
+    @Test
+    void reconcile_ShouldLeaveRangesForResume_WhenStopped() {
+        ReconciliationRun run = saveRun();
+
+        LedgerReconciler reconciler = new LedgerReconciler(jdbcRepository, 3, 0);
+        boolean finished = reconciler.reconcile(run, jdbcRepository.findCompletedRangeStarts(run.getId()), () -> true);
+
+        assertFalse(finished);
+        assertEquals(0, jdbcRepository.getProgress(run.getId()).completedRanges());
+    }
+
+    // One card per range, so the three cards are reconciled by separate fork-join tasks
+    private ReconciliationRun saveRun() {
+        ReconciliationRun run = new ReconciliationRun();
+        run.setStatus(ReconciliationRun.RunStatus.RUNNING);
+        run.setMinCardId(first.getId());
+        run.setMaxCardId(tampered.getId());
+        run.setRangeSize(1);
+        run.setTotalRanges((int) (tampered.getId() - first.getId() + 1));
+        run.setStartedAt(LocalDateTime.now());
+        run.setHeartbeatAt(LocalDateTime.now());
+        return runRepository.save(run);
+    }
+
+    private ReconciliationRun awaitFinished(Long runId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ReconciliationRun run = reconciliationService.getRun(runId);
+        while (run.getStatus() == ReconciliationRun.RunStatus.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            run = reconciliationService.getRun(runId);
+        }
+        return run;
+    }
+
+    private Card saveCard(User owner, String balance) {
+        Card card = new Card();
+        card.setCardNumberEncrypted("encrypted");
+        card.setCardHolder("RECONCILIATION");
+        card.setExpireDate(LocalDate.now().plusYears(1));
+        card.setStatus(Card.CardStatus.ACTIVE);
+        card.setBalance(new BigDecimal(balance));
+        card.setOwner(owner);
+        return cardRepository.save(card);
+    }
+
+    private void saveTransaction(Card from, Card to, String amount, Transaction.TransactionStatus status) {
+        Transaction transaction = new Transaction();
+        transaction.setFromCard(from);
+        transaction.setToCard(to);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setStatus(status);
+        transactionRepository.save(transaction);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.StandingOrder;
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.StandingOrderJdbcRepository;
+import com.example.bankcards.repository.StandingOrderJdbcRepository.DueOrder;
+import com.example.bankcards.repository.StandingOrderRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The background engine is off so the test decides when orders are claimed and run
+@SpringBootTest(properties = "app.standing-orders.enabled=false")
+class StandingOrderServiceTest {
+
+    private static final String USERNAME = "standing-order-user";
+
+    @Autowired
+    private StandingOrderService standingOrderService;
+
+    @Autowired
+    private StandingOrderJdbcRepository jdbcRepository;
+
+    @Autowired
+    private StandingOrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User owner;
+    private Card from;
+    private Card to;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setUsername(USERNAME);
+        owner.setPassword("x");
+        owner.setRole(User.Role.USER);
+        owner = userRepository.save(owner);
+
+        from = saveCard("100.00");
+        to = saveCard("0.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        transactionRepository.deleteAll();
+        cardRepository.deleteAllById(List.of(from.getId(), to.getId()));
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void claimDue_ShouldLeaseOrdersSoTheyAreClaimedOnce() {
+        StandingOrder due = saveOrder("10.00", LocalDateTime.now().minusMinutes(1));
+        StandingOrder later = saveOrder("10.00", LocalDateTime.now().plusHours(1));
+        LocalDateTime now = LocalDateTime.now();
+
+        List<DueOrder> claimed = jdbcRepository.claimDue(now.plusMinutes(2), now, Duration.ofMinutes(10), 100);
+
+        assertEquals(List.of(due.getId()), claimed.stream().map(DueOrder::id).toList());
+        assertTrue(jdbcRepository.claimDue(now.plusMinutes(2), now, Duration.ofMinutes(10), 100).isEmpty());
+        assertNull(orderRepository.findById(later.getId()).orElseThrow().getClaimedUntil());
+    }
+
+    @Test
+    void execute_ShouldTransferAndMoveToNextOccurrence_OnlyOnce() {
+        LocalDateTime runAt = LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS);
+        StandingOrder order = saveOrder("30.00", runAt);
+
+        assertTrue(standingOrderService.execute(order.getId(), runAt));
+        // A second instance holding the same occurrence finds it already run
+        assertFalse(standingOrderService.execute(order.getId(), runAt));
+
+        assertEquals(0, new BigDecimal("70.00").compareTo(cardRepository.findById(from.getId()).orElseThrow().getBalance()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(cardRepository.findById(to.getId()).orElseThrow().getBalance()));
+        List<Transaction> transactions = transactionRepository.findByFromCardIdOrToCardId(from.getId(), from.getId());
+        assertEquals(1, transactions.size());
+        assertEquals("Standing order #" + order.getId(), transactions.get(0).getDescription());
+
+        StandingOrder updated = orderRepository.findById(order.getId()).orElseThrow();
+        assertEquals(StandingOrder.StandingOrderStatus.ACTIVE, updated.getStatus());
+        assertEquals(runAt.plusDays(1), updated.getNextRunAt());
+        assertEquals(1, updated.getOccurrence());
+        assertNull(updated.getClaimedUntil());
+    }
+
+    @Test
+    void recordFailure_ShouldStopOrder_AfterConsecutiveFailures() {
+        LocalDateTime runAt = LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS);
+        StandingOrder order = saveOrder("500.00", runAt);
+
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            LocalDateTime scheduled = orderRepository.findById(order.getId()).orElseThrow().getNextRunAt();
+            assertThrows(ConflictException.class, () -> standingOrderService.execute(order.getId(), scheduled));
+            standingOrderService.recordFailure(order.getId(), scheduled, "Insufficient balance");
+        }
+
+        StandingOrder failed = orderRepository.findById(order.getId()).orElseThrow();
+        assertEquals(StandingOrder.StandingOrderStatus.FAILED, failed.getStatus());
+        assertEquals(3, failed.getConsecutiveFailures());
+        assertEquals("Insufficient balance", failed.getLastError());
+        assertNull(failed.getNextRunAt());
+        assertEquals(0, new BigDecimal("100.00").compareTo(cardRepository.findById(from.getId()).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void engine_ShouldExecuteClaimedOrdersWhenTheyComeDue() throws Exception {
+        LocalDateTime runAt = LocalDateTime.now().plusSeconds(1).truncatedTo(ChronoUnit.SECONDS);
+        StandingOrder order = saveOrder("5.00", runAt);
+        StandingOrderEngine engine = new StandingOrderEngine(standingOrderService, jdbcRepository, true,
+                Duration.ofMinutes(2), Duration.ofMinutes(10), 100, 1000, 10, 2, 0, Duration.ofMillis(50), 64);
+        try {
+            engine.loadDueOrders();
+            assertEquals(1, engine.scheduledCount());
+            assertEquals(1, engine.inFlightCount());
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (orderRepository.findById(order.getId()).orElseThrow().getOccurrence() == 0
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+        } finally {
+            engine.shutdown();
+        }
+
+        assertEquals(0, engine.inFlightCount());
+        assertEquals(1, orderRepository.findById(order.getId()).orElseThrow().getOccurrence());
+        assertEquals(0, new BigDecimal("5.00").compareTo(cardRepository.findById(to.getId()).orElseThrow().getBalance()));
+    }
+
+    private StandingOrder saveOrder(String amount, LocalDateTime nextRunAt) {
+        StandingOrder order = new StandingOrder();
+        order.setOwner(owner);
+        order.setFromCard(from);
+        order.setToCard(to);
+        order.setAmount(new BigDecimal(amount));
+        order.setFrequency(StandingOrder.Frequency.DAILY);
+        order.setStartAt(nextRunAt);
+        order.setNextRunAt(nextRunAt);
+        order.setStatus(StandingOrder.StandingOrderStatus.ACTIVE);
+        return orderRepository.save(order);
+    }
+
+    private Card saveCard(String balance) {
+        Card card = new Card();
+        card.setCardNumberEncrypted("encrypted");
+        card.setCardHolder("STANDING ORDER");
+        card.setExpireDate(LocalDate.now().plusYears(1));
+        card.setStatus(Card.CardStatus.ACTIVE);
+        card.setBalance(new BigDecimal(balance));
+        card.setOwner(owner);
+        return cardRepository.save(card);
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Statement;
+import com.example.bankcards.entity.StatementRun;
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.StatementJdbcRepository;
+import com.example.bankcards.repository.StatementRunRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.EncryptionUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.statements.output-dir=target/test-statements")
+class StatementServiceTest {
+
+    @Autowired
+    private StatementService statementService;
+
+    @Autowired
+    private StatementGenerator statementGenerator;
+
+    @Autowired
+    private StatementJdbcRepository jdbcRepository;
+
+    @Autowired
+    private StatementRunRepository runRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EncryptionUtil encryptionUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path outputDir;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = saveUser("statement-alice");
+        bob = saveUser("statement-bob");
+
+        Card aliceMain = saveCard(alice, "4000000000001111");
+        Card aliceSavings = saveCard(alice, "4000000000002222");
+        Card bobMain = saveCard(bob, "4000000000003333");
+
+        saveTransaction(aliceMain, aliceSavings, "10.00", Transaction.TransactionStatus.COMPLETED);
+        saveTransaction(bobMain, aliceMain, "5.00", Transaction.TransactionStatus.COMPLETED);
+        saveTransaction(bobMain, aliceMain, "99.00", Transaction.TransactionStatus.FAILED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM statements");
+        runRepository.deleteAll();
+        transactionRepository.deleteAll();
+        for (User user : List.of(alice, bob)) {
+            cardRepository.deleteAll(cardRepository.findByOwner(user, null).getContent());
+            userRepository.delete(user);
+        }
+    }
+
+    @Test
+    void start_ShouldWriteOneFileAndSummaryRowPerUser() throws Exception {
+        StatementRun run = statementService.start(YearMonth.now());
+
+        run = awaitFinished(run.getId());
+
+        assertEquals(StatementRun.RunStatus.COMPLETED, run.getStatus());
+        assertEquals(2L, run.getUsersProcessed());
+
+        Map<String, Object> aliceRow = jdbcTemplate.queryForMap(
+                "SELECT * FROM statements WHERE run_id = ? AND user_id = ?", run.getId(), alice.getId());
+        assertEquals(2, ((Number) aliceRow.get("CARD_COUNT")).intValue());
+        assertEquals(3, ((Number) aliceRow.get("TRANSACTION_COUNT")).intValue());
+        assertEquals(0, new BigDecimal("15.00").compareTo((BigDecimal) aliceRow.get("TOTAL_IN")));
+        assertEquals(0, new BigDecimal("10.00").compareTo((BigDecimal) aliceRow.get("TOTAL_OUT")));
+
+        List<String> lines = Files.readAllLines(Path.of((String) aliceRow.get("FILE_PATH")));
+        assertEquals(4, lines.size());
+        assertEquals("card,transaction_id,date,direction,amount,description", lines.get(0));
+        assertTrue(lines.get(1).startsWith("**** **** **** 1111,"));
+        assertTrue(lines.stream().noneMatch(line -> line.contains("99.00")));
+    }
+
+    @Test
+    void generate_ShouldSkipUsersThatAlreadyHaveAStatement() throws Exception {
+        StatementRun run = saveRun(StatementRun.StatementFormat.JSON);
+        // Alice was finished before the interruption
+        Statement done = new Statement();
+        done.setUserId(alice.getId());
+        done.setPeriod(run.getPeriod());
+        done.setCardCount(2);
+        done.setTransactionCount(3);
+        done.setTotalIn(BigDecimal.ZERO);
+        done.setTotalOut(BigDecimal.ZERO);
+        done.setFilePath("done");
+        jdbcRepository.saveStatements(run.getId(), List.of(done));
+
+        int generated = statementGenerator.generate(run, Math.min(alice.getId(), bob.getId()),
+                Math.max(alice.getId(), bob.getId()));
+
+        assertEquals(1, generated);
+        assertEquals(2, jdbcRepository.countStatements(run.getId()));
+        assertFalse(Files.exists(StatementFileWriter.statementPath(run, alice.getId())));
+
+        JsonNode statement = new ObjectMapper().readTree(StatementFileWriter.statementPath(run, bob.getId()).toFile());
+        assertEquals(bob.getId(), statement.get("userId").asLong());
+        assertEquals("**** **** **** 3333", statement.at("/cards/0/card").asText());
+        assertEquals(1, statement.at("/cards/0/transactions").size());
+        assertEquals(0, new BigDecimal("5.00").compareTo(statement.get("totalOut").decimalValue()));
+    }
+
+    private StatementRun saveRun(StatementRun.StatementFormat format) {
+        StatementRun run = new StatementRun();
+        run.setPeriod(YearMonth.now().atDay(1));
+        run.setStatus(StatementRun.RunStatus.RUNNING);
+        run.setFormat(format);
+        run.setOutputDir(outputDir.toString());
+        run.setStartedAt(LocalDateTime.now());
+        run.setHeartbeatAt(LocalDateTime.now());
+        return runRepository.save(run);
+    }
+
+    private StatementRun awaitFinished(Long runId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        StatementRun run = statementService.getRun(runId);
+        while (run.getStatus() == StatementRun.RunStatus.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            run = statementService.getRun(runId);
+        }
+        return run;
+    }
+
+    private User saveUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRole(User.Role.USER);
+        return userRepository.save(user);
+    }
+
+    private Card saveCard(User owner, String cardNumber) {
+        Card card = new Card();
+        card.setCardNumberEncrypted(encryptionUtil.encrypt(cardNumber));
+        card.setCardHolder("STATEMENT");
+        card.setExpireDate(LocalDate.now().plusYears(1));
+        card.setStatus(Card.CardStatus.ACTIVE);
+        card.setBalance(new BigDecimal("100.00"));
+        card.setOwner(owner);
+        return cardRepository.save(card);
+    }
+
+    private void saveTransaction(Card from, Card to, String amount, Transaction.TransactionStatus status) {
+        Transaction transaction = new Transaction();
+        transaction.setFromCard(from);
+        transaction.setToCard(to);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setStatus(status);
+        transactionRepository.save(transaction);
+    }
+}
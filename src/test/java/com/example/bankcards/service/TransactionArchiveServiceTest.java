@@ -0,0 +1,287 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransactionArchiveStatusDto;
+import com.example.bankcards.entity.ArchivedCardTotal;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.repository.ArchivedCardTotalRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.ReconciliationJdbcRepository;
+import com.example.bankcards.repository.ReconciliationJdbcRepository.CardBalance;
+import com.example.bankcards.repository.TransactionArchiveSegmentRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.repository.TransactionSegmentFile;
+import com.example.bankcards.repository.TransactionSegmentFile.ArchivedTransaction;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Three transactions per segment and two rows per block, so a history spans several segments and blocks
+@SpringBootTest(properties = {
+        "app.transactions.archive.directory=target/test-archive",
+        "app.transactions.archive.segment-size=3",
+        "app.transactions.archive.block-rows=2"
+})
+class TransactionArchiveServiceTest {
+
+    private static final Path ARCHIVE_DIR = Path.of("target/test-archive");
+
+    @Autowired
+    private TransactionArchiveService archiveService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private ReconciliationJdbcRepository reconciliationRepository;
+
+    @Autowired
+    private TransactionArchiveSegmentRepository segmentRepository;
+
+    @Autowired
+    private ArchivedCardTotalRepository archivedCardTotalRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path tempDir;
+
+    private User owner;
+    private Card main;
+    private Card savings;
+    private final LocalDateTime longAgo = LocalDateTime.now().minusYears(3).truncatedTo(ChronoUnit.SECONDS);
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setUsername("archive-user");
+        owner.setPassword("x");
+        owner.setRole(User.Role.USER);
+        owner = userRepository.save(owner);
+        main = saveCard();
+        savings = saveCard();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(UserPrincipal.of(owner), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        SecurityContextHolder.clearContext();
+        segmentRepository.deleteAll();
+        archivedCardTotalRepository.deleteAll();
+        transactionRepository.deleteAll();
+        cardRepository.deleteAllById(List.of(main.getId(), savings.getId()));
+        userRepository.delete(owner);
+        if (Files.exists(ARCHIVE_DIR)) {
+            try (Stream<Path> files = Files.list(ARCHIVE_DIR)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    void archive_ShouldMoveOldTransactionsIntoSegments_AndKeepThemInHistory() {
+        long first = insertTransaction(main, savings, "10.00", longAgo, "COMPLETED", "Первый перевод");
+        long refund = insertTransaction(savings, main, "2.50", longAgo.plusDays(1), "COMPLETED", null);
+        long failed = insertTransaction(main, savings, "7.00", longAgo.plusDays(2), "FAILED", "Declined");
+        long late = insertTransaction(main, savings, "1.00", longAgo.plusMonths(6), "COMPLETED", "Late");
+        long recent = insertTransaction(savings, main, "4.00", LocalDateTime.now().minusDays(1), "COMPLETED", "Recent");
+        Map<Long, BigDecimal> expectedBefore = expectedBalances();
+
+        assertEquals(2, archiveService.archive());
+
+        assertEquals(List.of(recent), transactionRepository.findAll().stream().map(Transaction::getId).toList());
+        TransactionArchiveStatusDto status = archiveService.getStatus();
+        assertEquals(2, status.getSegments());
+        assertEquals(4, status.getArchivedTransactions());
+        assertEquals(longAgo, status.getOldestArchived());
+        assertNull(status.getLastError());
+
+        // The whole history: the hot row and the archived ones, each once
+        List<Transaction> history = transferService.getMyTransactions();
+        assertEquals(Set.of(first, refund, failed, late, recent),
+                Set.copyOf(history.stream().map(Transaction::getId).toList()));
+        Transaction archivedRefund = history.stream().filter(t -> t.getId() == refund).findFirst().orElseThrow();
+        assertEquals(savings.getId(), archivedRefund.getFromCard().getId());
+        assertEquals(main.getId(), archivedRefund.getToCard().getId());
+        assertEquals(0, new BigDecimal("2.50").compareTo(archivedRefund.getAmount()));
+        assertEquals(longAgo.plusDays(1), archivedRefund.getTransactionDate());
+        assertNull(archivedRefund.getDescription());
+
+        // A range within the hot table does not reach the archive, an old one reads only the archive
+        assertEquals(List.of(recent), transferService.getMyTransactions(LocalDateTime.now().minusYears(1), null)
+                .stream().map(Transaction::getId).toList());
+        assertEquals(List.of(refund, first), transferService.getMyTransactions(longAgo, longAgo.plusDays(2))
+                .stream().map(Transaction::getId).toList());
+
+        Transaction archivedFailed = transferService.getTransactionById(failed);
+        assertEquals(Transaction.TransactionStatus.FAILED, archivedFailed.getStatus());
+        assertEquals("Declined", archivedFailed.getDescription());
+
+        // The archived flows still count, the failed one still does not
+        assertEquals(expectedBefore, expectedBalances());
+        ArchivedCardTotal mainTotal = archivedCardTotalRepository.findById(main.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("2.50").compareTo(mainTotal.getTotalIn()));
+        assertEquals(0, new BigDecimal("11.00").compareTo(mainTotal.getTotalOut()));
+        assertEquals(4, mainTotal.getTransactionCount());
+
+        ConflictException error = assertThrows(ConflictException.class, () -> cardService.deleteCard(savings.getId()));
+        assertEquals("CARD_HAS_HISTORY", error.getErrorCode());
+
+        // Nothing left to archive
+        assertEquals(0, archiveService.archive());
+    }
+
+    @Test
+    void segmentFile_ShouldReadOneCardAndDateRange_FromTheSparseIndex() {
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0, 0, 123_456_000);
+        List<ArchivedTransaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            long from = 1 + i % 50;
+            long to = 1 + (i * 7 + 3) % 50;
+            if (from == to) {
+                to = from % 50 + 1;
+            }
+            transactions.add(new ArchivedTransaction(1000 + i, from, to, new BigDecimal(i + ".25"),
+                    start.plusHours(i), i % 10 == 0 ? "FAILED" : "COMPLETED", i % 3 == 0 ? null : "Перевод " + i));
+        }
+        Path path = tempDir.resolve("segment.seg");
+
+        TransactionSegmentFile.Summary summary = TransactionSegmentFile.write(path, transactions, 16);
+        TransactionSegmentFile segment = TransactionSegmentFile.open(path);
+
+        assertEquals(summary, segment.summary());
+        assertEquals(1000, summary.transactionCount());
+        assertEquals(start, summary.minDate());
+        LocalDateTime from = start.plusHours(100);
+        LocalDateTime to = start.plusHours(700);
+        List<ArchivedTransaction> expected = transactions.stream()
+                .filter(t -> t.fromCardId() == 7 || t.toCardId() == 7)
+                .filter(t -> !t.transactionDate().isBefore(from) && t.transactionDate().isBefore(to))
+                .sorted(Comparator.comparing(ArchivedTransaction::transactionDate))
+                .toList();
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, segment.findByCard(7, from, to));
+        assertEquals(transactions.get(421), segment.findById(1421).orElseThrow());
+
+        assertTrue(segment.containsCard(50));
+        assertFalse(segment.containsCard(51));
+        assertTrue(segment.findByCard(51, null, null).isEmpty());
+        assertTrue(segment.findById(5000).isEmpty());
+    }
+
+    @Test
+    void segmentFile_ShouldInflateOnlyTheBlockOfTheId_WhenFindingById() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<ArchivedTransaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            transactions.add(new ArchivedTransaction(1000 + i, 1 + i % 20, 1 + (i + 1) % 20, new BigDecimal("1.00"),
+                    start.plusHours(i), "COMPLETED", null));
+        }
+        Path path = tempDir.resolve("by-id.seg");
+        TransactionSegmentFile.write(path, transactions, 8);
+        // Damage the first block: card 1's rows are there, card 20's outgoing rows are in the last block
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF}), 8);
+        }
+        TransactionSegmentFile segment = TransactionSegmentFile.open(path);
+
+        assertEquals(transactions.get(199), segment.findById(1199).orElseThrow());
+        assertThrows(IllegalStateException.class, () -> segment.findById(1000));
+        assertTrue(segment.findById(999).isEmpty());
+        assertTrue(segment.findById(1200).isEmpty());
+    }
+
+    private Map<Long, BigDecimal> expectedBalances() {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        long low = Math.min(main.getId(), savings.getId());
+        long high = Math.max(main.getId(), savings.getId());
+        reconciliationRepository.streamRangeBalances(low, high + 1,
+                (CardBalance balance) -> balances.put(balance.cardId(), balance.expectedBalance().stripTrailingZeros()));
+        return balances;
+    }
+
+    // Inserted with JDBC, because the entity stamps its own date
+    private long insertTransaction(Card from, Card to, String amount, LocalDateTime date, String status,
+                                   String description) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                    INSERT INTO transactions (from_card_id, to_card_id, amount, transaction_date, status, description)
+                    VALUES (?, ?, ?, ?, ?, ?)
+                    """, new String[]{"id"});
+            statement.setLong(1, from.getId());
+            statement.setLong(2, to.getId());
+            statement.setBigDecimal(3, new BigDecimal(amount));
+            statement.setTimestamp(4, Timestamp.valueOf(date));
+            statement.setString(5, status);
+            statement.setString(6, description);
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private Card saveCard() {
+        Card card = new Card();
+        card.setCardNumberEncrypted("encrypted");
+        card.setCardHolder("ARCHIVE USER");
+        card.setExpireDate(LocalDate.now().plusYears(1));
+        card.setStatus(Card.CardStatus.ACTIVE);
+        card.setBalance(BigDecimal.ZERO);
+        card.setOwner(owner);
+        return cardRepository.save(card);
+    }
+}
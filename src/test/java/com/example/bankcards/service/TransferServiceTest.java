@@ -3,15 +3,22 @@ package com.example.bankcards.service;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.Transaction;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.exception.UnauthorizedException;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransactionRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -36,6 +43,15 @@ class TransferServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionArchiveService archiveService;
+
+    @Mock
+    private UserCardSummaryService summaryService;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -72,15 +88,15 @@ class TransferServiceTest {
 
         SecurityContextHolder.setContext(securityContext);
         lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
-        lenient().when(authentication.getName()).thenReturn("testuser");
-        lenient().when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        lenient().when(authentication.getPrincipal()).thenReturn(
+                new UserPrincipal(1L, "testuser", User.Role.USER, null)
+        );
     }
 
     @Test
     void transferBetweenMyCards_Success() {
         BigDecimal amount = new BigDecimal("100.00");
 
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
         when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
         when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArguments()[0]);
@@ -100,15 +116,16 @@ class TransferServiceTest {
     void transferBetweenMyCards_InsufficientBalance() {
         BigDecimal amount = new BigDecimal("2000.00");
 
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
         when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
         when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
 
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+        ConflictException exception = assertThrows(ConflictException.class, () -> {
             transferService.transferBetweenMyCards(1L, 2L, amount);
         });
 
         assertEquals("Insufficient balance", exception.getMessage());
+        assertEquals("INSUFFICIENT_BALANCE", exception.getErrorCode());
+        assertEquals(0, exception.getStackTrace().length);
         verify(cardRepository, never()).save(any(Card.class));
         verify(transactionRepository, never()).save(any(Transaction.class));
     }
@@ -117,7 +134,6 @@ class TransferServiceTest {
     void transferBetweenMyCards_SameCard() {
         BigDecimal amount = new BigDecimal("100.00");
 
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
         lenient().when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -131,8 +147,6 @@ class TransferServiceTest {
     void transferBetweenMyCards_NegativeAmount() {
         BigDecimal amount = new BigDecimal("-100.00");
 
-        lenient().when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             transferService.transferBetweenMyCards(1L, 2L, amount);
         });
@@ -140,12 +154,35 @@ class TransferServiceTest {
         assertEquals("Transfer amount must be positive", exception.getMessage());
     }
 
+    @Test
+    void transferBetweenMyCards_NegativeAmount_ShouldBeRejectedBeforeThePrincipalIsResolved() {
+        SecurityContextHolder.clearContext();
+
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> {
+            transferService.transferBetweenMyCards(1L, 2L, new BigDecimal("-1.00"));
+        });
+
+        assertEquals("INVALID_AMOUNT", exception.getErrorCode());
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void transferBetweenMyCards_ShouldRejectUnauthenticatedCallerWith401() {
+        SecurityContextHolder.clearContext();
+
+        UnauthorizedException exception = assertThrows(UnauthorizedException.class, () -> {
+            transferService.transferBetweenMyCards(1L, 2L, new BigDecimal("100.00"));
+        });
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatus());
+        assertEquals("NOT_AUTHENTICATED", exception.getErrorCode());
+    }
+
     @Test
     void transferBetweenMyCards_BlockedSourceCard() {
         BigDecimal amount = new BigDecimal("100.00");
         fromCard.setStatus(Card.CardStatus.BLOCKED);
 
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
         when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
         when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
 
@@ -160,10 +197,9 @@ class TransferServiceTest {
     void transferBetweenMyCards_CardNotFound() {
         BigDecimal amount = new BigDecimal("100.00");
 
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
         when(cardRepository.findById(1L)).thenReturn(Optional.empty());
 
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> {
             transferService.transferBetweenMyCards(1L, 2L, amount);
         });
 
@@ -0,0 +1,129 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BulkCardOperationRequest;
+import com.example.bankcards.dto.BulkCardOperationRequest.Action;
+import com.example.bankcards.dto.CardSummaryRebuildResultDto;
+import com.example.bankcards.dto.UserCardSummaryDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserCardSummaryRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class UserCardSummaryServiceTest {
+
+    @Autowired
+    private UserCardSummaryService summaryService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private BulkCardService bulkCardService;
+
+    @Autowired
+    private UserCardSummaryRepository summaryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setUsername("summary-user");
+        owner.setPassword("x");
+        owner.setRole(User.Role.USER);
+        owner = userRepository.save(owner);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(UserPrincipal.of(owner), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM transactions");
+        summaryRepository.deleteAll();
+        cardRepository.deleteAllById(cardRepository.findByOwner(owner, null).map(Card::getId).getContent());
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void getMySummary_ShouldReturnZeros_ForUserWithoutCards() {
+        UserCardSummaryDto summary = summaryService.getMySummary();
+
+        assertEquals(0, summary.getCardCount());
+        assertEquals(0, summary.getTotalBalance().signum());
+        assertNull(summary.getUpdatedAt());
+    }
+
+    @Test
+    void cardChanges_ShouldKeepSummaryInStep_AndRebuildShouldCorrectDrift() {
+        Card main = cardService.createCard("4000001234567890", "SUMMARY USER", LocalDate.now().plusYears(2), owner.getId());
+        Card savings = cardService.createCard("4000001234567891", "SUMMARY USER", LocalDate.now().plusYears(2), owner.getId());
+        Card spare = cardService.createCard("4000001234567892", "SUMMARY USER", LocalDate.now().plusYears(2), owner.getId());
+        // Money arrives outside the services, so the summary is reset from the cards
+        jdbcTemplate.update("UPDATE cards SET balance = 100.00 WHERE id = ?", main.getId());
+        summaryService.rebuild();
+
+        transferService.transferBetweenOwnCards(owner.getId(), main.getId(), savings.getId(), new BigDecimal("30.00"), "Savings");
+        cardService.blockCard(spare.getId());
+        cardService.activateCard(spare.getId());
+        cardService.blockCard(spare.getId());
+        bulkCardService.apply(bulkRequest(Action.BLOCK));
+        cardService.deleteCard(spare.getId());
+
+        assertSummary(2, 0, 2, "100.00");
+        assertEquals(0, summaryService.rebuild().getCorrected());
+
+        jdbcTemplate.update("UPDATE user_card_summary SET card_count = 7, total_balance = 1 WHERE user_id = ?",
+                owner.getId());
+        CardSummaryRebuildResultDto result = summaryService.rebuild();
+
+        assertEquals(1, result.getCorrected());
+        assertSummary(2, 0, 2, "100.00");
+    }
+
+    private void assertSummary(int cards, int active, int blocked, String balance) {
+        UserCardSummaryDto summary = summaryService.getMySummary();
+        assertEquals(cards, summary.getCardCount());
+        assertEquals(active, summary.getActiveCount());
+        assertEquals(blocked, summary.getBlockedCount());
+        assertEquals(0, summary.getExpiredCount());
+        assertEquals(0, new BigDecimal(balance).compareTo(summary.getTotalBalance()));
+    }
+
+    private BulkCardOperationRequest bulkRequest(Action action) {
+        BulkCardOperationRequest request = new BulkCardOperationRequest();
+        request.setAction(action);
+        request.setOwnerId(owner.getId());
+        return request;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.bankcards.smoke;
+
+import com.example.bankcards.support.SmokeClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class AuthSmokeIT {
+
+    private static SmokeClient client;
+
+    @BeforeAll
+    static void connect() throws Exception {
+        client = SmokeClient.connect();
+    }
+
+    @Test
+    void register_ShouldReturnAuthResponse_WhenRequestIsValid() throws Exception {
+        String username = "smoke_" + UUID.randomUUID().toString().substring(0, 8);
+
+        SmokeClient.Response response = client.post("/api/auth/register",
+                Map.of("username", username, "password", "password123"), null);
+
+        assertEquals(200, response.status());
+        JsonNode body = response.json();
+        assertEquals(username, body.get("username").asText());
+        assertEquals("USER", body.get("role").asText());
+        assertFalse(body.get("token").asText().isEmpty());
+    }
+
+    @Test
+    void register_ShouldReturnBadRequest_WhenUsernameIsBlank() throws Exception {
+        SmokeClient.Response response = client.post("/api/auth/register",
+                "{\"username\":\"\",\"password\":\"password123\"}", null);
+
+        assertEquals(400, response.status());
+    }
+
+    @Test
+    void register_ShouldReturnConflict_WhenUsernameIsTaken() throws Exception {
+        String username = "smoke_" + UUID.randomUUID().toString().substring(0, 8);
+        Map<String, String> request = Map.of("username", username, "password", "password123");
+        client.post("/api/auth/register", request, null);
+
+        SmokeClient.Response response = client.post("/api/auth/register", request, null);
+
+        assertEquals(409, response.status());
+        assertEquals("USERNAME_TAKEN", response.json().get("code").asText());
+    }
+
+    @Test
+    void login_ShouldReturnAuthResponse_WhenCredentialsAreValid() throws Exception {
+        String username = "smoke_" + UUID.randomUUID().toString().substring(0, 8);
+        client.post("/api/auth/register", Map.of("username", username, "password", "password123"), null);
+
+        SmokeClient.Response response = client.post("/api/auth/login",
+                Map.of("username", username, "password", "password123"), null);
+
+        assertEquals(200, response.status());
+        assertEquals(username, response.json().get("username").asText());
+    }
+
+    @Test
+    void refreshAndLogout_ShouldRotateAndRevokeTokens() throws Exception {
+        String username = "smoke_" + UUID.randomUUID().toString().substring(0, 8);
+        JsonNode registered = client.post("/api/auth/register",
+                Map.of("username", username, "password", "password123"), null).json();
+
+        SmokeClient.Response refreshed = client.post("/api/auth/refresh",
+                Map.of("refreshToken", registered.get("refreshToken").asText()), null);
+        assertEquals(200, refreshed.status());
+
+        String token = refreshed.json().get("token").asText();
+        assertEquals(204, client.post("/api/auth/logout", "", token).status());
+        assertEquals(403, client.get("/api/cards/my", token).status());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.bankcards.smoke;
+
+import com.example.bankcards.support.SmokeClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CardSmokeIT {
+
+    private static SmokeClient client;
+    private static String adminToken;
+
+    @BeforeAll
+    static void connect() throws Exception {
+        client = SmokeClient.connect();
+        adminToken = client.adminToken();
+    }
+
+    @Test
+    void createCard_ShouldReturnMaskedCard_WhenRequestIsValid() throws Exception {
+        String userToken = client.registerUser();
+        String cardNumber = randomCardNumber();
+
+        SmokeClient.Response response = client.post("/api/cards",
+                cardRequest(cardNumber, client.userId(userToken)), adminToken);
+
+        assertEquals(200, response.status());
+        JsonNode card = response.json();
+        assertEquals("**** **** **** " + cardNumber.substring(12), card.get("maskedCardNumber").asText());
+        assertEquals("SMOKE TEST", card.get("cardHolder").asText());
+        assertEquals("ACTIVE", card.get("status").asText());
+    }
+
+    @Test
+    void createCard_ShouldReturnBadRequest_WhenCardNumberIsInvalid() throws Exception {
+        SmokeClient.Response response = client.post("/api/cards",
+                cardRequest("1234", 1L), adminToken);
+
+        assertEquals(400, response.status());
+    }
+
+    @Test
+    void getMyCards_ShouldReturnOnlyOwnCards() throws Exception {
+        String userToken = client.registerUser();
+        client.post("/api/cards", cardRequest(randomCardNumber(), client.userId(userToken)), adminToken);
+
+        SmokeClient.Response response = client.get("/api/cards/my", userToken);
+
+        assertEquals(200, response.status());
+        JsonNode page = response.json();
+        assertEquals(1, page.get("totalElements").asInt());
+        assertEquals("SMOKE TEST", page.get("content").get(0).get("cardHolder").asText());
+    }
+
+    @Test
+    void getAllCards_ShouldReturnPage_ForAdmin() throws Exception {
+        SmokeClient.Response response = client.get("/api/cards?size=5", adminToken);
+
+        assertEquals(200, response.status());
+        assertEquals(5, response.json().get("size").asInt());
+    }
+
+    @Test
+    void getCard_ShouldReturnNotFound_WhenCardDoesNotExist() throws Exception {
+        SmokeClient.Response response = client.get("/api/cards/" + Long.MAX_VALUE, adminToken);
+
+        assertEquals(404, response.status());
+        assertEquals("CARD_NOT_FOUND", response.json().get("code").asText());
+    }
+
+    @Test
+    void blockAndActivateCard_ShouldChangeStatus() throws Exception {
+        String userToken = client.registerUser();
+        long cardId = client.post("/api/cards",
+                cardRequest(randomCardNumber(), client.userId(userToken)), adminToken).json().get("id").asLong();
+
+        assertEquals("BLOCKED", client.put("/api/cards/" + cardId + "/block", adminToken).json().get("status").asText());
+        assertEquals("ACTIVE", client.put("/api/cards/" + cardId + "/activate", adminToken).json().get("status").asText());
+        assertEquals(204, client.delete("/api/cards/" + cardId, adminToken).status());
+    }
+
+    @Test
+    void getAllCards_ShouldBeForbidden_ForUser() throws Exception {
+        String userToken = client.registerUser();
+
+        assertEquals(403, client.get("/api/cards", userToken).status());
+    }
+
+    static Map<String, Object> cardRequest(String cardNumber, long ownerId) {
+        return Map.of(
+                "cardNumber", cardNumber,
+                "cardHolder", "SMOKE TEST",
+                "expireDate", LocalDate.now().plusYears(3),
+                "ownerId", ownerId
+        );
+    }
+
+    static String randomCardNumber() {
+        return String.valueOf(ThreadLocalRandom.current().nextLong(4_000_000_000_000_000L, 5_000_000_000_000_000L));
+    }
+}
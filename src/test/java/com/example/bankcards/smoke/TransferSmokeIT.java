@@ -0,0 +1,72 @@
+package com.example.bankcards.smoke;
+
+import com.example.bankcards.support.SmokeClient;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static com.example.bankcards.smoke.CardSmokeIT.cardRequest;
+import static com.example.bankcards.smoke.CardSmokeIT.randomCardNumber;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransferSmokeIT {
+
+    private static SmokeClient client;
+    private static String adminToken;
+
+    @BeforeAll
+    static void connect() throws Exception {
+        client = SmokeClient.connect();
+        adminToken = client.adminToken();
+    }
+
+    @Test
+    void transfer_ShouldReturnConflict_WhenBalanceIsInsufficient() throws Exception {
+        String userToken = client.registerUser();
+        long from = createCard(userToken);
+        long to = createCard(userToken);
+
+        SmokeClient.Response response = client.post("/api/transfers",
+                Map.of("fromCardId", from, "toCardId", to, "amount", "10.00"), userToken);
+
+        assertEquals(409, response.status());
+        assertEquals("INSUFFICIENT_BALANCE", response.json().get("code").asText());
+    }
+
+    @Test
+    void transfer_ShouldReturnForbidden_WhenCardBelongsToAnotherUser() throws Exception {
+        String userToken = client.registerUser();
+        long own = createCard(userToken);
+        long foreign = createCard(client.registerUser());
+
+        SmokeClient.Response response = client.post("/api/transfers",
+                Map.of("fromCardId", foreign, "toCardId", own, "amount", "10.00"), userToken);
+
+        assertEquals(403, response.status());
+        assertEquals("FOREIGN_CARD", response.json().get("code").asText());
+    }
+
+    @Test
+    void transfer_ShouldReturnBadRequest_WhenAmountIsMissing() throws Exception {
+        String userToken = client.registerUser();
+
+        SmokeClient.Response response = client.post("/api/transfers",
+                "{\"fromCardId\":1,\"toCardId\":2}", userToken);
+
+        assertEquals(400, response.status());
+    }
+
+    @Test
+    void getMyTransactions_ShouldReturnEmptyList_ForNewUser() throws Exception {
+        SmokeClient.Response response = client.get("/api/transfers/my", client.registerUser());
+
+        assertEquals(200, response.status());
+        assertEquals(0, response.json().size());
+    }
+
+    private long createCard(String userToken) throws Exception {
+        return client.post("/api/cards", cardRequest(randomCardNumber(), client.userId(userToken)), adminToken)
+                .json().get("id").asLong();
+    }
+}
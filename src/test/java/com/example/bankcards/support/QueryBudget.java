@@ -0,0 +1,33 @@
+package com.example.bankcards.support;
+
+import com.example.bankcards.config.SqlQueryCountFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// MockMvc matchers over the X-Sql-Query-Count header, e.g. .andExpect(QueryBudget.exactly(3))
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static ResultMatcher exactly(int statements) {
+        return result -> assertEquals(statements, count(result.getResponse().getHeader(SqlQueryCountFilter.COUNT_HEADER)),
+                "SQL statements for " + result.getRequest().getRequestURI());
+    }
+
+    public static ResultMatcher atMost(int statements) {
+        return result -> {
+            int count = count(result.getResponse().getHeader(SqlQueryCountFilter.COUNT_HEADER));
+            assertTrue(count <= statements, "SQL statements for " + result.getRequest().getRequestURI()
+                    + ": expected at most " + statements + " but was " + count);
+        };
+    }
+
+    private static int count(String header) {
+        assertNotNull(header, SqlQueryCountFilter.COUNT_HEADER + " header is missing");
+        return Integer.parseInt(header);
+    }
+}
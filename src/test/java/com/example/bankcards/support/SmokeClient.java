@@ -0,0 +1,130 @@
+package com.example.bankcards.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Assumptions;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+// HTTP client for the *SmokeIT suite, which runs against a started binary (native profile) instead of MockMvc
+public class SmokeClient {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final String baseUrl;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private SmokeClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    // Skips the suite unless -Dsmoke.base-url is set, then waits until the application answers
+    public static SmokeClient connect() throws InterruptedException {
+        String baseUrl = System.getProperty("smoke.base-url");
+        Assumptions.assumeTrue(baseUrl != null && !baseUrl.isBlank(), "smoke.base-url is not set");
+        SmokeClient client = new SmokeClient(baseUrl);
+        client.awaitStarted();
+        return client;
+    }
+
+    public Response get(String path, String token) throws IOException, InterruptedException {
+        return send(request(path, token).GET());
+    }
+
+    public Response post(String path, Object body, String token) throws IOException, InterruptedException {
+        return send(request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(body))));
+    }
+
+    public Response put(String path, String token) throws IOException, InterruptedException {
+        return send(request(path, token).PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    public Response delete(String path, String token) throws IOException, InterruptedException {
+        return send(request(path, token).DELETE());
+    }
+
+    // Registers a fresh user and returns its access token
+    public String registerUser() throws IOException, InterruptedException {
+        String username = "smoke_" + UUID.randomUUID().toString().substring(0, 8);
+        Response response = post("/api/auth/register",
+                Map.of("username", username, "password", "Smoke123!"), null);
+        if (response.status() != 200) {
+            throw new IllegalStateException("Registration failed: " + response.status() + " " + response.body());
+        }
+        return response.json().get("token").asText();
+    }
+
+    public String login(String username, String password) throws IOException, InterruptedException {
+        Response response = post("/api/auth/login", Map.of("username", username, "password", password), null);
+        if (response.status() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": " + response.status());
+        }
+        return response.json().get("token").asText();
+    }
+
+    // The seeded admin password is environment specific, so admin scenarios skip unless it is passed in
+    public String adminToken() throws IOException, InterruptedException {
+        String password = System.getProperty("smoke.admin-password", "");
+        Assumptions.assumeFalse(password.isBlank(), "smoke.admin-password is not set");
+        return login(System.getProperty("smoke.admin-username", "admin"), password);
+    }
+
+    // Reads the uid claim without verifying the signature; the server already issued the token
+    public long userId(String token) throws IOException {
+        String payload = new String(Base64.getUrlDecoder().decode(token.split("\\.")[1]), StandardCharsets.UTF_8);
+        return OBJECT_MAPPER.readTree(payload).get("uid").asLong();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private Response send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        return new Response(response.statusCode(), response.body());
+    }
+
+    private String toJson(Object body) throws IOException {
+        return body instanceof String json ? json : OBJECT_MAPPER.writeValueAsString(body);
+    }
+
+    private void awaitStarted() throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (true) {
+            try {
+                get("/api/auth/login", null);
+                return;
+            } catch (IOException e) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Application at " + baseUrl + " did not start", e);
+                }
+                Thread.sleep(500);
+            }
+        }
+    }
+
+    public record Response(int status, String body) {
+
+        public JsonNode json() throws IOException {
+            return OBJECT_MAPPER.readTree(body);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class EncryptionUtilTest {
+
+    private final EncryptionUtil encryptionUtil = new EncryptionUtil("MySecretKey16Bit");
+
+    @Test
+    void decrypt_ShouldReturnTheEncryptedCardNumber() {
+        String encrypted = encryptionUtil.encrypt("4000001234567890");
+
+        assertNotEquals("4000001234567890", encrypted);
+        assertEquals("4000001234567890", encryptionUtil.decrypt(encrypted));
+    }
+
+    @Test
+    void maskedNumber_ShouldShowTheRealLastFourDigits_AfterDecrypting() {
+        String encrypted = encryptionUtil.encrypt("4000001234567890");
+
+        assertEquals("**** **** **** 7890", CardMaskingUtil.maskCardNumber(encryptionUtil.decrypt(encrypted)));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedWheelTimerTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void advance_ShouldReturnItemsOnlyOnceTheirDeadlinePassed() {
+        HashedWheelTimer<String> wheel = new HashedWheelTimer<>(Duration.ofMillis(100), 8, START);
+        wheel.schedule("a", START + 250);
+        wheel.schedule("b", START + 300);
+
+        assertTrue(wheel.advance(START + 299).isEmpty());
+        assertEquals(List.of("a", "b"), wheel.advance(START + 300));
+        assertTrue(wheel.advance(START + 1_000).isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_ShouldFireOverdueItemsOnTheNextTick() {
+        HashedWheelTimer<String> wheel = new HashedWheelTimer<>(Duration.ofMillis(100), 8, START);
+        wheel.advance(START + 500);
+
+        wheel.schedule("late", START - 10_000);
+
+        assertEquals(List.of("late"), wheel.advance(START + 600));
+    }
+
+    @Test
+    void advance_ShouldKeepItemsBeyondOneRevolutionForLaterRounds() {
+        HashedWheelTimer<String> wheel = new HashedWheelTimer<>(Duration.ofMillis(100), 8, START);
+        // 8 buckets of 100 ms: 2 s away is two and a half revolutions
+        wheel.schedule("far", START + 2_050);
+        wheel.schedule("near", START + 50);
+
+        assertEquals(List.of("near"), wheel.advance(START + 100));
+        assertTrue(wheel.advance(START + 2_000).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("far"), wheel.advance(START + 2_100));
+    }
+
+    @Test
+    void drain_ShouldReturnEverythingStillScheduled() {
+        HashedWheelTimer<String> wheel = new HashedWheelTimer<>(Duration.ofMillis(100), 8, START);
+        wheel.schedule("a", START + 150);
+        wheel.advance(START + 100);
+        wheel.schedule("b", START + 5_000);
+
+        List<String> drained = wheel.drain();
+
+        assertEquals(2, drained.size());
+        assertTrue(drained.containsAll(List.of("a", "b")));
+        assertEquals(0, wheel.size());
+        assertTrue(wheel.advance(START + 10_000).isEmpty());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "testSecretKeyForJWTTokenGenerationAndValidationInTests123";
+
+    private JwtUtil jwtUtil;
+    private UserPrincipal user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 3600000, 100);
+
+        user = new UserPrincipal(7L, "testuser", User.Role.USER, null);
+    }
+
+    @Test
+    void generateToken_ShouldCarryUserIdAndRole() {
+        Claims claims = jwtUtil.extractAllClaims(jwtUtil.generateToken(user));
+
+        assertEquals("testuser", claims.getSubject());
+        assertEquals(7L, claims.get(JwtUtil.USER_ID_CLAIM, Long.class));
+        assertEquals("USER", claims.get(JwtUtil.ROLE_CLAIM, String.class));
+    }
+
+    @Test
+    void extractAllClaims_ShouldReuseVerifiedClaims_ForSameToken() {
+        String token = jwtUtil.generateToken(user);
+
+        assertSame(jwtUtil.extractAllClaims(token), jwtUtil.extractAllClaims(token));
+    }
+
+    @Test
+    void extractAllClaims_ShouldVerifyWithoutCaching_WhenCacheIsFullOfLiveTokens() {
+        JwtUtil smallCache = new JwtUtil(SECRET, 3600000, 1);
+        String first = smallCache.generateToken(user);
+        String second = smallCache.generateToken(user);
+        Claims cached = smallCache.extractAllClaims(first);
+
+        Claims uncached = smallCache.extractAllClaims(second);
+
+        assertEquals("testuser", uncached.getSubject());
+        assertNotSame(uncached, smallCache.extractAllClaims(second));
+        assertSame(cached, smallCache.extractAllClaims(first));
+    }
+
+    @Test
+    void extractAllClaims_ShouldRejectTamperedToken() {
+        String token = jwtUtil.generateToken(user);
+        jwtUtil.extractAllClaims(token);
+
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(SignatureException.class, () -> jwtUtil.extractAllClaims(tampered));
+    }
+
+    @Test
+    void extractAllClaims_ShouldRejectExpiredToken() {
+        JwtUtil expiringJwtUtil = new JwtUtil(SECRET, -1000, 100);
+        String token = expiringJwtUtil.generateToken(user);
+
+        assertThrows(ExpiredJwtException.class, () -> expiringJwtUtil.extractAllClaims(token));
+    }
+}
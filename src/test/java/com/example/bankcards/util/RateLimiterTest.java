@@ -0,0 +1,31 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    @Test
+    void acquire_ShouldSpreadPermitsOverTime() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(1000);
+
+        long start = System.nanoTime();
+        rateLimiter.acquire(100);
+        rateLimiter.acquire(100);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 190, "200 permits at 1000/s took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void acquire_ShouldNotWait_WhenRateIsUnlimited() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(0);
+
+        long start = System.nanoTime();
+        rateLimiter.acquire(1_000_000);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 50);
+    }
+}